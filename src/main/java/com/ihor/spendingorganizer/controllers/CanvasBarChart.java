@@ -0,0 +1,306 @@
+package com.ihor.spendingorganizer.controllers;
+
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+// Represents a bar chart that is drawn in immediate mode on a canvas from a matrix of values,
+// unlike BarChart and StackedBarChart it doesn't create a node per bar, so it stays fast with
+// tens of thousands of bars; bars of a series are grouped side by side or stacked,
+// and a tooltip shows value of the bar under the mouse
+public class CanvasBarChart extends Region {
+    // Same colors as default colors of JavaFX charts
+    private static final Color[] PALETTE = {
+        Color.web("#f3622d"), Color.web("#fba71b"), Color.web("#57b757"), Color.web("#41a9c9"),
+        Color.web("#4258c9"), Color.web("#9a42c8"), Color.web("#c84164"), Color.web("#888888")
+    };
+    private static final double PADDING = 10;
+    private static final double TITLE_HEIGHT = 30;
+    private static final double LEGEND_HEIGHT = 24;
+    private static final double X_LABELS_HEIGHT = 24;
+    private static final double Y_LABELS_WIDTH = 70;
+    private static final double MIN_LABEL_WIDTH = 70;
+    private static final double GROUP_FRACTION = 0.8;
+    private static final int Y_TICKS = 5;
+
+    private final Canvas canvas = new Canvas();
+    // Created on the first hover, since this chart can be created on a background thread along with its scene
+    private Tooltip tooltip;
+
+    private String title = "";
+    private List<String> xLabels = Collections.emptyList();
+    private List<String> seriesNames = Collections.emptyList();
+    // values[series][x]
+    private double[][] values = new double[0][];
+    private boolean isStacked;
+    private double yMax = 1;
+
+    public CanvasBarChart() {
+        getChildren().add(canvas);
+        addEventHandler(MouseEvent.MOUSE_MOVED, this::mouseMoved);
+        addEventHandler(MouseEvent.MOUSE_EXITED, e -> hideTooltip());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this chart show values, i.e., values[series][x] is a bar of series at xLabels[x],
+    //          a series with null name isn't shown in legend,
+    //          bars of one x are stacked on top of each other if isStacked, otherwise put side by side
+    // REQUIRES: values.length == seriesNames.size(), values[i].length == xLabels.size() for each i
+    public void setData(String title, List<String> xLabels, List<String> seriesNames, double[][] values,
+                        boolean isStacked) {
+        this.title = Objects.isNull(title) ? "" : title;
+        this.xLabels = new ArrayList<>(xLabels);
+        this.seriesNames = new ArrayList<>(seriesNames);
+        this.values = values;
+        this.isStacked = isStacked;
+        this.yMax = computeYMax();
+        draw();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.setWidth(getWidth());
+        canvas.setHeight(getHeight());
+        draw();
+    }
+
+    // EFFECTS: returns the largest height of a bar or a stack of bars, or 1 if there are none
+    private double computeYMax() {
+        double max = 0;
+        for (int x = 0; x < xLabels.size(); x++) {
+            double stack = 0;
+            for (double[] series : values) {
+                if (isStacked) {
+                    stack += series[x];
+                } else {
+                    max = Math.max(max, series[x]);
+                }
+            }
+            max = Math.max(max, stack);
+        }
+        return max > 0 ? niceStep(max / Y_TICKS) * Y_TICKS : 1;
+    }
+
+    // EFFECTS: returns 1, 2, 2.5 or 5 times a power of 10 that is closest to rawStep from above
+    private static double niceStep(double rawStep) {
+        double magnitude = Math.pow(10, Math.floor(Math.log10(rawStep)));
+        for (double factor : new double[]{1, 2, 2.5, 5, 10}) {
+            if (factor * magnitude >= rawStep) {
+                return factor * magnitude;
+            }
+        }
+        return 10 * magnitude;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: redraws the whole chart
+    private void draw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.setFill(Color.WHITE);
+        gc.fillRect(0, 0, width, height);
+        if (plotWidth() <= 0 || plotHeight() <= 0) {
+            return;
+        }
+
+        drawTitle(gc, width);
+        drawYAxis(gc);
+        drawBars(gc);
+        drawXAxis(gc);
+        drawLegend(gc, height);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws title above the plot
+    private void drawTitle(GraphicsContext gc, double width) {
+        gc.setFill(Color.BLACK);
+        gc.setFont(Font.font(null, FontWeight.BOLD, 16));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText(title, width / 2, PADDING + TITLE_HEIGHT / 2);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws y axis with labels and horizontal grid lines
+    private void drawYAxis(GraphicsContext gc) {
+        gc.setFont(Font.font(12));
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.CENTER);
+        for (int i = 0; i <= Y_TICKS; i++) {
+            double value = yMax * i / Y_TICKS;
+            double y = toY(value);
+            gc.setStroke(Color.gray(0.9));
+            gc.strokeLine(plotLeft(), y, plotLeft() + plotWidth(), y);
+            gc.setFill(Color.BLACK);
+            gc.fillText(String.format("%,.0f", value), plotLeft() - 5, y);
+        }
+        gc.setStroke(Color.gray(0.4));
+        gc.strokeLine(plotLeft(), plotTop(), plotLeft(), plotBottom());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws bars of all series
+    private void drawBars(GraphicsContext gc) {
+        double band = bandWidth();
+        double barWidth = barWidth();
+        for (int x = 0; x < xLabels.size(); x++) {
+            double groupLeft = plotLeft() + x * band + band * (1 - GROUP_FRACTION) / 2;
+            double base = 0;
+            for (int s = 0; s < values.length; s++) {
+                double value = values[s][x];
+                if (value <= 0) {
+                    continue;
+                }
+                gc.setFill(PALETTE[s % PALETTE.length]);
+                if (isStacked) {
+                    gc.fillRect(groupLeft, toY(base + value), barWidth, toY(base) - toY(base + value));
+                    base += value;
+                } else {
+                    gc.fillRect(groupLeft + s * barWidth, toY(value), barWidth, plotBottom() - toY(value));
+                }
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws x axis with labels, labels are skipped if they don't fit under their bars
+    private void drawXAxis(GraphicsContext gc) {
+        gc.setStroke(Color.gray(0.4));
+        gc.strokeLine(plotLeft(), plotBottom(), plotLeft() + plotWidth(), plotBottom());
+        gc.setFill(Color.BLACK);
+        gc.setFont(Font.font(12));
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        double band = bandWidth();
+        int every = (int) Math.max(1, Math.ceil(MIN_LABEL_WIDTH / band));
+        for (int x = 0; x < xLabels.size(); x += every) {
+            gc.fillText(xLabels.get(x), plotLeft() + (x + 0.5) * band, plotBottom() + 5);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: draws a colored box and a name for each named series under the x axis
+    private void drawLegend(GraphicsContext gc, double height) {
+        gc.setFont(Font.font(12));
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.setTextBaseline(VPos.CENTER);
+        double x = plotLeft();
+        double y = height - PADDING - LEGEND_HEIGHT / 2;
+        for (int s = 0; s < seriesNames.size(); s++) {
+            String name = seriesNames.get(s);
+            if (Objects.isNull(name)) {
+                continue;
+            }
+            gc.setFill(PALETTE[s % PALETTE.length]);
+            gc.fillRect(x, y - 5, 10, 10);
+            gc.setFill(Color.BLACK);
+            gc.fillText(name, x + 14, y);
+            x += 14 + name.length() * 7 + 16;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows tooltip with series, x label and value of the bar under the mouse, hides it otherwise
+    private void mouseMoved(MouseEvent e) {
+        int[] hit = hitTest(e.getX(), e.getY());
+        if (Objects.isNull(hit)) {
+            hideTooltip();
+            return;
+        }
+        if (Objects.isNull(tooltip)) {
+            tooltip = new Tooltip();
+        }
+        String name = seriesNames.get(hit[0]);
+        tooltip.setText((Objects.isNull(name) ? "" : name + "\n") + xLabels.get(hit[1]) + ": "
+                + String.format("%,.2f", values[hit[0]][hit[1]]));
+        if (tooltip.isShowing()) {
+            tooltip.setAnchorX(e.getScreenX() + 12);
+            tooltip.setAnchorY(e.getScreenY() + 12);
+        } else {
+            tooltip.show(this, e.getScreenX() + 12, e.getScreenY() + 12);
+        }
+    }
+
+    private void hideTooltip() {
+        if (Objects.nonNull(tooltip)) {
+            tooltip.hide();
+        }
+    }
+
+    // EFFECTS: returns {series, x} of the bar at point (px, py) of this chart, or null if there's no bar there,
+    //          bar is found from its position, so bars aren't searched
+    int[] hitTest(double px, double py) {
+        if (xLabels.isEmpty() || values.length == 0 || py > plotBottom() || py < plotTop()) {
+            return null;
+        }
+        double band = bandWidth();
+        int x = (int) Math.floor((px - plotLeft()) / band);
+        if (px < plotLeft() || x >= xLabels.size()) {
+            return null;
+        }
+        double offset = px - plotLeft() - x * band - band * (1 - GROUP_FRACTION) / 2;
+        if (offset < 0 || offset >= band * GROUP_FRACTION) {
+            return null;
+        }
+        if (isStacked) {
+            double base = 0;
+            for (int s = 0; s < values.length; s++) {
+                double top = base + Math.max(0, values[s][x]);
+                if (py >= toY(top) && py <= toY(base) && top > base) {
+                    return new int[]{s, x};
+                }
+                base = top;
+            }
+            return null;
+        }
+        int s = Math.min(values.length - 1, (int) (offset / barWidth()));
+        return values[s][x] > 0 && py >= toY(values[s][x]) ? new int[]{s, x} : null;
+    }
+
+    // EFFECTS: returns vertical position of value in the plot
+    private double toY(double value) {
+        return plotBottom() - value / yMax * plotHeight();
+    }
+
+    private double bandWidth() {
+        return plotWidth() / Math.max(1, xLabels.size());
+    }
+
+    private double barWidth() {
+        double groupWidth = bandWidth() * GROUP_FRACTION;
+        return isStacked ? groupWidth : groupWidth / Math.max(1, values.length);
+    }
+
+    private double plotLeft() {
+        return PADDING + Y_LABELS_WIDTH;
+    }
+
+    private double plotTop() {
+        return PADDING + TITLE_HEIGHT;
+    }
+
+    private double plotBottom() {
+        return canvas.getHeight() - PADDING - LEGEND_HEIGHT - X_LABELS_HEIGHT;
+    }
+
+    private double plotWidth() {
+        return canvas.getWidth() - PADDING - plotLeft();
+    }
+
+    private double plotHeight() {
+        return plotBottom() - plotTop();
+    }
+}
@@ -4,11 +4,17 @@ import com.ihor.spendingorganizer.controllers.enums.SceneEnum;
 import com.ihor.spendingorganizer.controllers.holders.SceneHolder;
 import com.ihor.spendingorganizer.controllers.holders.SpendingListHolder;
 import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.DateBuckets;
+import com.ihor.spendingorganizer.model.OffHeapRecordStore;
 import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.SpendingTotals;
+import com.ihor.spendingorganizer.persistence.WorkspaceCatalog;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.Scene;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
@@ -17,6 +23,12 @@ import java.net.URL;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 // Represents a controller for Chart scene
@@ -24,6 +36,12 @@ import java.util.stream.Collectors;
 public class ChartController implements Initializable {
 
     private final String emptyDatesError = "Dates cannot be blank";
+    // Charts with more bars than this are drawn on canvasChart instead of a node per bar
+    private static final int CANVAS_POINT_THRESHOLD = 1000;
+    // Narrowest bar in pixels, months are summed up into quarters, years, ... if their bars would be narrower
+    private static final double MIN_BAR_WIDTH = 3;
+    // Width of chart taken by its number axis and padding
+    private static final double AXIS_WIDTH = 80;
 
     @FXML TableView<Category> categoriesTable;
     @FXML TableColumn<Category, String> categoriesColumn;
@@ -45,6 +63,8 @@ public class ChartController implements Initializable {
     @FXML CategoryAxis stackedCategoryAxis;
     @FXML NumberAxis stackedNumberAxis;
 
+    @FXML CanvasBarChart canvasChart;
+
     @FXML RadioButton categoryToggle;
     @FXML RadioButton dateToggle;
     @FXML ToggleGroup chartGroup;
@@ -52,21 +72,169 @@ public class ChartController implements Initializable {
 
     ChartSetUpHelper chartSetUpHelper;
     SpendingList spendingList;
+    // Groupings that charts are plotted from, i.e., results of groupings of spendingList,
+    // which are reused while it doesn't change, or totals of a workspace or of a file that is opened read-only
+    ChartQueries queries;
+    // true if this scene is shown in its own window, e.g., for a workspace, instead of spending lists that are opened
+    private boolean isStandalone;
+    // Groups records for charts off the FX thread, one query at a time
+    private final ExecutorService queryExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chart-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Number of the latest plot request, results of older requests are discarded
+    private long latestRequest;
+    private Future<?> pendingQuery;
+    // true if spendingList has changed since the chart was last plotted
+    private boolean isStale;
+    // true if width of chart has changed since the chart was last plotted
+    private boolean isLayoutStale;
+    // Chart last plotted in monthly tab, null if another chart has been requested since
+    private MonthlyPlot monthlyPlot;
+    // Replots the chart at most once per animation pulse after spendingList changes
+    private final PulseCoalescer redraw = new PulseCoalescer(this::redrawIfStale);
+    // Kept in a field, so it can be removed from spendingList once another spending list is opened
+    private final InvalidationListener spendingListListener = o -> {
+        isStale = true;
+        redraw.request();
+    };
     final SceneHolder sceneHolder = SceneHolder.getInstance();
     final SpendingListHolder spendingListHolder = SpendingListHolder.getInstance();
 
+    // EFFECTS: sets up UI of chart scene, which can be loaded on a background thread,
+    //          and binds it to the spending list in spendingListHolder on the FX thread,
+    //          chart scene is loaded once and follows spending lists that are opened later,
+    //          unless it is made to show a workspace or a read-only file right after it's loaded
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        spendingList = spendingListHolder.getSpendingList();
-
         chartSetUpHelper = new ChartSetUpHelper(this);
         chartSetUpHelper.setUpChartController();
 
-        if (isReadyToPlot()) {
+        // buckets of dates depend on width of chart
+        barChart.widthProperty().addListener(o -> {
+            isStale = true;
+            isLayoutStale = true;
+            redraw.request();
+        });
+        barChart.sceneProperty().addListener((o, oldScene, scene) -> {
+            if (Objects.nonNull(scene)) {
+                scene.windowProperty().addListener((w, oldWindow, window) -> redrawIfStale());
+            }
+        });
+
+        Platform.runLater(() -> {
+            if (isStandalone) {
+                return;
+            }
+            spendingListHolder.spendingListProperty().addListener((o, oldList, newList) -> setSpendingList(newList));
+            setSpendingList(spendingListHolder.getSpendingList());
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this scene show totals of all files of catalog instead of the opened spending list,
+    //          this scene doesn't follow spending lists that are opened later
+    // REQUIRES: is called on the FX thread right after this scene is loaded, catalog isn't refreshed anymore
+    void showWorkspace(WorkspaceCatalog catalog) {
+        showStandalone(new WorkspaceChartQueries(catalog), catalog.getCategoryNames(), catalog.getDates());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this scene show records of a file that is opened read-only, which are copied to store,
+    //          instead of the opened spending list, this scene doesn't follow spending lists that are opened later
+    // REQUIRES: is called on the FX thread right after this scene is loaded, totals are those of store
+    void showRecordStore(OffHeapRecordStore store, SpendingTotals totals) {
+        List<String> names = store.getCategories().stream().map(Category::getName).collect(Collectors.toList());
+        showStandalone(new RecordStoreChartQueries(store, totals), names, totals.getMonths());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this scene plot charts from queries, with categories that have names and months in its
+    //          categories table and dateComboBox, instead of plotting the opened spending list
+    private void showStandalone(ChartQueries queries, List<String> names, List<LocalDate> months) {
+        isStandalone = true;
+        this.queries = queries;
+        chartSetUpHelper.bindStandalone(names, months);
+        isStale = true;
+        redrawIfStale();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes this scene show spendingList instead of the one it showed before,
+    //          results of queries for the previous spending list that are still running are discarded
+    private void setSpendingList(SpendingList spendingList) {
+        if (Objects.isNull(spendingList) || spendingList == this.spendingList) {
+            return;
+        }
+        SpendingList oldSpendingList = this.spendingList;
+        if (Objects.nonNull(oldSpendingList)) {
+            oldSpendingList.removeListener(spendingListListener);
+        }
+        this.spendingList = spendingList;
+        queries = new ChartQueryCache(spendingList);
+        spendingList.addListener(spendingListListener);
+        chartSetUpHelper.bindSpendingList(oldSpendingList);
+        latestRequest++;
+        isStale = true;
+        redrawIfStale();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates or replots chart if spendingList has changed since it was last plotted,
+    //          and this scene is shown and isReadyToPlot, otherwise leaves it stale until it is shown
+    private void redrawIfStale() {
+        Scene scene = barChart.getScene();
+        if (isStale && Objects.nonNull(queries) && Objects.nonNull(scene) && Objects.nonNull(scene.getWindow())
+                && isReadyToPlot() && !updateChangedCategories()) {
             plotChart();
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: updates monthlyPlot with sums of categories whose totals changed since it was plotted,
+    //          so only their bars change and records aren't grouped again, and returns true,
+    //          returns false if chart has to be replotted instead, e.g., because another chart was requested,
+    //          categories were renamed, or categories or dates on the axis of chart would change
+    private boolean updateChangedCategories() {
+        MonthlyPlot plot = monthlyPlot;
+        if (Objects.isNull(plot) || !plot.isCurrent()) {
+            return false;
+        }
+        SpendingTotals totals = plot.totals;
+        Set<String> names = totals.getNamesChangedSince(plot.version);
+        LocalDate from = plot.date.equals(LocalDate.MIN) ? LocalDate.MIN : plot.date.withDayOfMonth(1);
+        LocalDate to = plot.date.equals(LocalDate.MIN) ? LocalDate.MAX : from;
+        if (Objects.nonNull(plot.byCategory)) {
+            Map<String, Double> byCategory = new HashMap<>(plot.byCategory);
+            byCategory.keySet().removeAll(names);
+            byCategory.putAll(totals.sumByCategory(from, to, names));
+            plot.byCategory = SpendingList.sortMapByValue(byCategory);
+            plotCategoryMap(plot.byCategory);
+        } else {
+            Map<String, Map<LocalDate, Double>> changed = totals.sumByCategoryAndMonth(from, to, names);
+            Map<String, Map<LocalDate, Double>> byDate = new LinkedHashMap<>(plot.byDate);
+            byDate.keySet().removeAll(names);
+            byDate.putAll(changed);
+            List<LocalDate> allDates = plot.date.equals(LocalDate.MIN) ? getDatesFromMap(byDate) : plot.allDates;
+            if (!byDate.keySet().equals(plot.byDate.keySet()) || !allDates.equals(plot.allDates)) {
+                return false;
+            }
+            // buckets depend only on width of chart, dates and number of series, which are the same
+            DateBuckets buckets = fitBuckets(plot.chart, allDates, byDate.size());
+            List<String> labels = dateLabels(buckets, allDates);
+            if ((long) labels.size() * byDate.size() <= CANVAS_POINT_THRESHOLD) {
+                ChartSeriesUpdater.updateSeries(plot.chart.getData(), dateSeries(buckets, changed));
+            } else {
+                plotSeries(plot.chart, plot.categoryAxis, labels, dateSeries(buckets, byDate));
+            }
+            plot.byDate = byDate;
+        }
+        plot.version = totals.getVersion();
+        isStale = false;
+        return true;
+    }
+
     // MODIFIES: this
     // EFFECTS: makes bar chart visible and stacked chart hidden,
     //          disables isStaked option,
@@ -121,26 +289,19 @@ public class ChartController implements Initializable {
 
     // MODIFIES: this
     // EFFECTS: changes view to main scene (one with records table),
-    //          and saves this scene to sceneHolder
+    //          and saves this scene to sceneHolder,
+    //          a chart that is shown in its own window, e.g., of a workspace, closes its window instead
     @FXML
     public void backToSpendingList() {
+        if (isStandalone) {
+            barChart.getScene().getWindow().hide();
+            return;
+        }
         sceneHolder.getSceneMap().put(SceneEnum.CHART, categoriesTable.getScene());
         Stage window = (Stage) barChart.getScene().getWindow();
         window.setScene(sceneHolder.getSceneMap().get(SceneEnum.MAIN));
     }
 
-    // MODIFIES: this
-    // EFFECTS: repopulates dates combobox if spending list contains
-    //          a record with month that isn't available in the combobox
-    @FXML
-    public void monthComboboxEntered() {
-        LocalDate latestRecord = spendingList.getRecords().get(0).getTimeAdded().toLocalDate().withDayOfMonth(1);
-        LocalDate latestComboBoxMonth = dateComboBox.getItems().get(1);
-        if (!latestRecord.equals(latestComboBoxMonth)) {
-            chartSetUpHelper.repopulateDateComboBox();
-        }
-    }
-
     // MODIFIES: this
     // EFFECTS: plots a new chart as soon as a month from combobox is selected
     @FXML
@@ -158,6 +319,9 @@ public class ChartController implements Initializable {
     //          #6: (1) dataToggle, (2) not Stacked, (3) dataTab
     @FXML
     public void plotChart() {
+        isStale = false;
+        isLayoutStale = false;
+        monthlyPlot = null;
         if (categoryToggle.isSelected()) {
             if (monthlyTab.isSelected()) {
                 plotCategoryMonthly();
@@ -184,16 +348,14 @@ public class ChartController implements Initializable {
     // EFFECTS: plots barchart by category in selected month,
     //          or uses all records if selected month is LocalDate.MIN
     private void plotCategoryMonthly() {
-        setUpCategoryChart("");
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-
         LocalDate selectedDate = dateComboBox.getSelectionModel().getSelectedItem();
-        Map<String, Double> map = spendingList.groupByCategory(selectedDate);
-
-        setUpCategoryChartXAxis(map);
-
-        map.forEach((key, value) -> series.getData().add(new XYChart.Data<>(key, value)));
-        barChart.getData().add(series);
+        MonthlyPlot plot = new MonthlyPlot(barChart, barCategoryAxis, selectedDate);
+        query(queries.groupByCategory(selectedDate), map -> {
+            setUpCategoryChart("");
+            plotCategoryMap(map);
+            plot.byCategory = map;
+            monthlyPlot = plot;
+        });
     }
 
     // EFFECTS: plot barchart by category in selected time period,
@@ -202,19 +364,22 @@ public class ChartController implements Initializable {
         LocalDate from = fromDatePicker.getValue();
         LocalDate to = toDatePicker.getValue();
 
-        XYChart.Series<String, Number> series = new XYChart.Series<>();
-
         if (Objects.isNull(from) || Objects.isNull(to)) {
             chartSetUpHelper.showErrorMessage(emptyDatesError);
         } else {
-            setUpCategoryChart("Custom Period");
-            Map<String, Double> map = spendingList.groupByCategory(from, to);
-            setUpCategoryChartXAxis(map);
-            map.forEach((key, value) -> series.getData().add(new XYChart.Data<>(key, value)));
-            barChart.getData().add(series);
+            query(queries.groupByCategory(from, to), map -> {
+                setUpCategoryChart("Custom Period");
+                plotCategoryMap(map);
+            });
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: plots groupByCategory map on barchart
+    private void plotCategoryMap(Map<String, Double> map) {
+        plotSeries(barChart, barCategoryAxis, new ArrayList<>(map.keySet()), Collections.singletonMap(null, map));
+    }
+
     // EFFECTS: plots by date in selected time period
     private void plotDateCustom(XYChart<String, Number> chart, CategoryAxis categoryAxis) {
         LocalDate from = fromDatePicker.getValue();
@@ -223,18 +388,8 @@ public class ChartController implements Initializable {
         if (Objects.isNull(from) || Objects.isNull(to)) {
             chartSetUpHelper.showErrorMessage(emptyDatesError);
         } else {
-            setUpDataChart(chart, categoryAxis);
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern(chartSetUpHelper.monthFormat);
-
-            Map<String, Map<LocalDate, Double>> map = spendingList.groupByCategoryAndDate(from, to);
-            List<LocalDate> allDates = getDatesFromMap(map);
-            setUpDateChartXAxis(categoryAxis, allDates, formatter);
-
-            List<XYChart.Series<String, Number>> seriesList = new ArrayList<>();
-            parseMapForDateChart(formatter, map, seriesList);
-
-            chart.getData().addAll(seriesList);
-            setUpDateChartXAxis(categoryAxis, allDates, formatter);
+            query(queries.groupByCategoryAndDate(from, to),
+                    map -> plotDateMap(chart, categoryAxis, map, getDatesFromMap(map)));
         }
     }
 
@@ -242,40 +397,128 @@ public class ChartController implements Initializable {
     // EFFECTS: plots chart by date in selected month,
     //          or uses all records if selected month is LocalDate.MIN
     private void plotDateMonthly(XYChart<String, Number> chart, CategoryAxis categoryAxis) {
-        setUpDataChart(chart, categoryAxis);
+        LocalDate selectedDate = dateComboBox.getSelectionModel().getSelectedItem();
+        MonthlyPlot plot = new MonthlyPlot(chart, categoryAxis, selectedDate);
+        query(queries.groupByCategoryAndDate(selectedDate), map -> {
+            List<LocalDate> allDates = selectedDate.equals(LocalDate.MIN)
+                    ? getDatesFromMap(map) : Collections.singletonList(selectedDate);
+            plotDateMap(chart, categoryAxis, map, allDates);
+            plot.byDate = map;
+            plot.allDates = allDates;
+            monthlyPlot = plot;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: plots groupByCategoryAndDate map on chart with allDates on its axis,
+    //          months are summed up into coarser buckets if their bars wouldn't fit into width of chart
+    private void plotDateMap(XYChart<String, Number> chart, CategoryAxis categoryAxis,
+                             Map<String, Map<LocalDate, Double>> map, List<LocalDate> allDates) {
+        DateBuckets buckets = fitBuckets(chart, allDates, map.size());
+        setUpDataChart(chart, categoryAxis, buckets);
+        plotSeries(chart, categoryAxis, dateLabels(buckets, allDates), dateSeries(buckets, map));
+    }
+
+    // EFFECTS: returns labels of buckets that allDates fall into, i.e., x labels of a date chart
+    private List<String> dateLabels(DateBuckets buckets, List<LocalDate> allDates) {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern(chartSetUpHelper.monthFormat);
+        return buckets.bucketsOf(allDates).stream().map(d -> buckets.label(d, formatter))
+                .collect(Collectors.toList());
+    }
 
-        LocalDate selectedDate = dateComboBox.getSelectionModel().getSelectedItem();
+    // EFFECTS: returns series of a date chart, i.e., {category: {bucket label: amount}},
+    //          of groupByCategoryAndDate map with months summed up into buckets
+    private Map<String, Map<String, Double>> dateSeries(DateBuckets buckets, Map<String, Map<LocalDate, Double>> map) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(chartSetUpHelper.monthFormat);
+        return parseMapForDateChart(d -> buckets.label(d, formatter), buckets.sum(map));
+    }
 
-        List<LocalDate> allDates;
-        if (selectedDate.equals(LocalDate.MIN)) {
-            allDates = spendingList.getDates();
-            Collections.sort(allDates);
-        } else {
-            allDates = Collections.singletonList(selectedDate);
+    // EFFECTS: returns the finest buckets that sorted allDates fit into width of chart with,
+    //          given that chart has bars of seriesCount series side by side unless it's stacked
+    private DateBuckets fitBuckets(XYChart<String, Number> chart, List<LocalDate> allDates, int seriesCount) {
+        if (allDates.isEmpty()) {
+            return DateBuckets.of(1);
         }
+        // chart isn't laid out before it's shown for the first time
+        double width = (chart.getWidth() > 0 ? chart.getWidth() : chart.getPrefWidth()) - AXIS_WIDTH;
+        double minBucketWidth = MIN_BAR_WIDTH * (chart instanceof StackedBarChart ? 1 : Math.max(1, seriesCount));
+        return DateBuckets.forWidth(allDates.get(0), allDates.get(allDates.size() - 1), width, minBucketWidth);
+    }
 
-        setUpDateChartXAxis(categoryAxis, allDates, formatter);
-
-        Map<String, Map<LocalDate, Double>> map = spendingList.groupByCategoryAndDate(selectedDate);
-        List<XYChart.Series<String, Number>> seriesList = new ArrayList<>();
-        parseMapForDateChart(formatter, map, seriesList);
+    // MODIFIES: this
+    // EFFECTS: plots series, i.e., {series name: {x label: value}}, with xLabels on x axis,
+    //          on chart, or on canvasChart if they have more than CANVAS_POINT_THRESHOLD bars,
+    //          stacks bars on canvasChart if chart is stacked
+    private void plotSeries(XYChart<String, Number> chart, CategoryAxis categoryAxis, List<String> xLabels,
+                            Map<String, Map<String, Double>> series) {
+        if ((long) xLabels.size() * series.size() <= CANVAS_POINT_THRESHOLD) {
+            canvasChart.setVisible(false);
+            setAxisCategories(categoryAxis, xLabels);
+            ChartSeriesUpdater.update(chart.getData(), series);
+            return;
+        }
+        // bars of chart would be hidden under canvasChart anyway
+        chart.getData().clear();
+        Map<String, Integer> xIndexes = new HashMap<>();
+        for (int x = 0; x < xLabels.size(); x++) {
+            xIndexes.put(xLabels.get(x), x);
+        }
+        double[][] values = new double[series.size()][xLabels.size()];
+        int s = 0;
+        for (Map<String, Double> points : series.values()) {
+            for (Map.Entry<String, Double> point : points.entrySet()) {
+                Integer x = xIndexes.get(point.getKey());
+                if (Objects.nonNull(x)) {
+                    values[s][x] += point.getValue();
+                }
+            }
+            s++;
+        }
+        canvasChart.setData(chart.getTitle(), xLabels, new ArrayList<>(series.keySet()), values,
+                chart instanceof StackedBarChart);
+        canvasChart.setVisible(true);
+    }
 
-        chart.getData().addAll(seriesList);
-        setUpDateChartXAxis(categoryAxis, allDates, formatter);
+    // MODIFIES: this
+    // EFFECTS: runs query on a background thread and passes its result to plot on the FX thread,
+    //          unless a newer plot request has been made by then, in which case the result is discarded,
+    //          queries of older requests that haven't started yet are cancelled,
+    //          query must only read state that isn't modified meanwhile, e.g., a snapshot from queryCache,
+    //          if it fails anyway, an error is shown instead of the chart
+    private <T> void query(Supplier<T> query, Consumer<T> plot) {
+        long request = ++latestRequest;
+        if (Objects.nonNull(pendingQuery)) {
+            pendingQuery.cancel(false);
+        }
+        pendingQuery = queryExecutor.submit(() -> {
+            try {
+                T result = query.get();
+                Platform.runLater(() -> {
+                    if (request == latestRequest) {
+                        plot.accept(result);
+                    }
+                });
+            } catch (RuntimeException e) {
+                Platform.runLater(() -> {
+                    if (request == latestRequest) {
+                        chartSetUpHelper.showErrorMessage("Couldn't plot the chart: " + e.getMessage());
+                    }
+                });
+            }
+        });
     }
 
-    // MODIFIES: seriesList
-    // EFFECTS: parses groupByCategoryAndDate map and populates a list of series from it
-    private void parseMapForDateChart(DateTimeFormatter formatter, Map<String, Map<LocalDate, Double>> map,
-                                      List<XYChart.Series<String, Number>> seriesList) {
+    // EFFECTS: parses groupByCategoryAndDate map into values of series, i.e.,
+    //          {category: {formatted date: amount}}
+    private Map<String, Map<String, Double>> parseMapForDateChart(Function<LocalDate, String> formatter,
+                                                                  Map<String, Map<LocalDate, Double>> map) {
+        Map<String, Map<String, Double>> series = new LinkedHashMap<>();
         for (Map.Entry<String, Map<LocalDate, Double>> entry : map.entrySet()) {
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName(entry.getKey());
-            entry.getValue().forEach((key, value) -> series.getData()
-                    .add(new XYChart.Data<>(formatter.format(key), value)));
-            seriesList.add(series);
+            Map<String, Double> values = new LinkedHashMap<>();
+            entry.getValue().forEach((key, value) -> values.put(formatter.apply(key), value));
+            series.put(entry.getKey(), values);
         }
+        return series;
     }
 
     // EFFECTS: returns a sorted list of distinct LocalDate extracted from map
@@ -297,36 +540,40 @@ public class ChartController implements Initializable {
 
     // MODIFIES: this
     // EFFECTS: sets up categories of a data chart
-    private void setUpDataChart(XYChart<String, Number> chart, CategoryAxis categoryAxis) {
+    private void setUpDataChart(XYChart<String, Number> chart, CategoryAxis categoryAxis, DateBuckets buckets) {
         setUpBarChart(chart);
         chart.setTitle("Total Amount Spent by Date");
-        categoryAxis.setLabel("Month");
+        switch (buckets.getMonthsPerBucket()) {
+            case 1:
+                categoryAxis.setLabel("Month");
+                break;
+            case 3:
+                categoryAxis.setLabel("Quarter");
+                break;
+            case 12:
+                categoryAxis.setLabel("Year");
+                break;
+            default:
+                categoryAxis.setLabel("Years");
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: generally sets up any bar chart
+    // EFFECTS: generally sets up any bar chart,
+    //          displayed series are kept, so they can be updated in place
     private void setUpBarChart(XYChart<String, Number> chart) {
         stackedNumberAxis.setLabel("Amount Spent");
         barNumberAxis.setLabel("Amount Spent");
-        chart.getData().clear();
         chart.setAnimated(false);
     }
 
     // MODIFIES: this
-    // EFFECTS: updates categories axis of chart to be strings
-    private void setUpCategoryChartXAxis(Map<String, Double> map) {
-        ObservableList<String> categories = FXCollections.observableArrayList(map.keySet());
-        barCategoryAxis.setCategories(categories);
-        barCategoryAxis.setAutoRanging(true);
-    }
-
-    // MODIFIES: this
-    // EFFECTS: updates categories axis of chart to be dates
-    private void setUpDateChartXAxis(CategoryAxis categoryAxis, List<LocalDate> allDates, DateTimeFormatter formatter) {
-        List<String> formattedDates = allDates.stream().map(d -> d.format(formatter)).collect(Collectors.toList());
-        ObservableList<String> c = FXCollections.observableArrayList(formattedDates);
+    // EFFECTS: makes categoryAxis show categories, axis is left untouched if it already shows them
+    private void setAxisCategories(CategoryAxis categoryAxis, List<String> categories) {
         categoryAxis.setAutoRanging(true);
-        categoryAxis.setCategories(c);
+        if (!categoryAxis.getCategories().equals(categories)) {
+            categoryAxis.setCategories(FXCollections.observableArrayList(categories));
+        }
     }
 
     // EFFECTS: returns true is use is in the Monthly menu,
@@ -336,4 +583,46 @@ public class ChartController implements Initializable {
                 || (customPeriodTab.isSelected() && Objects.nonNull(fromDatePicker.getValue())
                 && Objects.nonNull(toDatePicker.getValue()));
     }
-}
\ No newline at end of file
+
+    // Represents a chart plotted in monthly tab from totals of spendingList, totals are null for a standalone chart,
+    // which can be updated by categories whose totals changed since version instead of being replotted
+    private final class MonthlyPlot {
+        private final XYChart<String, Number> chart;
+        private final CategoryAxis categoryAxis;
+        private final LocalDate date;
+        // null if spendingList had no totals when chart was requested
+        private final SpendingTotals totals;
+        private long version;
+        private final long categoriesModCount;
+        private final long request;
+        // groupByCategory map of a category chart, null for a date chart
+        private Map<String, Double> byCategory;
+        // groupByCategoryAndDate map of a date chart and dates on its axis, null for a category chart
+        private Map<String, Map<LocalDate, Double>> byDate;
+        private List<LocalDate> allDates;
+
+        // EFFECTS: creates a plot of chart for date that is requested next
+        MonthlyPlot(XYChart<String, Number> chart, CategoryAxis categoryAxis, LocalDate date) {
+            this.chart = chart;
+            this.categoryAxis = categoryAxis;
+            this.date = date;
+            boolean hasTotals = Objects.nonNull(spendingList) && !isStandalone && spendingList.hasTotals();
+            this.totals = hasTotals ? spendingList.getTotals() : null;
+            this.version = hasTotals ? totals.getVersion() : 0;
+            this.categoriesModCount = hasTotals ? spendingList.getCategoriesModCount() : 0;
+            // request that query makes for this plot next
+            this.request = latestRequest + 1;
+        }
+
+        // EFFECTS: returns true if this is the latest plot, it's still shown for the selected month,
+        //          and its totals are those of spendingList, whose categories haven't changed since
+        boolean isCurrent() {
+            XYChart<String, Number> selectedChart = categoryToggle.isSelected() || !isStacked.isSelected()
+                    ? barChart : stackedBarChart;
+            return request == latestRequest && !isLayoutStale && monthlyTab.isSelected() && chart == selectedChart
+                    && date.equals(dateComboBox.getSelectionModel().getSelectedItem())
+                    && Objects.nonNull(totals) && spendingList.hasTotals() && totals == spendingList.getTotals()
+                    && categoriesModCount == spendingList.getCategoriesModCount();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ihor.spendingorganizer.controllers;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Represents the groupings that charts are plotted from,
+// queries are made on the FX thread and return suppliers of unmodifiable results,
+// which can be computed on a background thread
+interface ChartQueries {
+
+    // EFFECTS: returns supplier of {category name: sum of amounts} in month, sorted by values,
+    //          or of all months if month is LocalDate.MIN
+    Supplier<Map<String, Double>> groupByCategory(LocalDate month);
+
+    // EFFECTS: returns supplier of {category name: sum of amounts} in [from, to], sorted by values
+    Supplier<Map<String, Double>> groupByCategory(LocalDate from, LocalDate to);
+
+    // EFFECTS: returns supplier of {category name: {month: sum of amounts}} in month,
+    //          or of all months if month is LocalDate.MIN
+    Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate month);
+
+    // EFFECTS: returns supplier of {category name: {month: sum of amounts}} in [from, to]
+    Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate from, LocalDate to);
+}
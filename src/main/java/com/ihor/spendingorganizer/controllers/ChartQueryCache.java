@@ -0,0 +1,296 @@
+package com.ihor.spendingorganizer.controllers;
+
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.SpendingTotals;
+import javafx.application.Platform;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Represents results of the queries that charts make to a spending list,
+// results are reused until the spending list is modified (see SpendingList.getModCount),
+// so switching between views of unchanged data doesn't group records again;
+// at most MAX_RESULTS least recently used results are kept,
+// queries are made on the FX thread, which takes a snapshot of the spending list for them,
+// and the returned suppliers compute results from that snapshot on a background thread,
+// snapshot holds values of records and names of categories, not records or categories themselves,
+// so the background thread never reads state of the spending list that the FX thread can modify meanwhile
+class ChartQueryCache implements ChartQueries {
+    private static final int MAX_RESULTS = 32;
+
+    private final SpendingList spendingList;
+    private final Map<Key, Map<String, ?>> results = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Map<String, ?>> eldest) {
+            return size() > MAX_RESULTS;
+        }
+    };
+    // modCount of spendingList that results were computed for
+    private long modCount;
+
+    ChartQueryCache(SpendingList spendingList) {
+        this.spendingList = spendingList;
+        this.modCount = spendingList.getModCount();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns supplier of unmodifiable result of spendingList.groupByCategory(month)
+    @Override
+    public Supplier<Map<String, Double>> groupByCategory(LocalDate month) {
+        return get(new Key(Query.CATEGORY_MONTH, month, null), false, snapshot -> snapshot.groupByCategory(month));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns supplier of unmodifiable result of spendingList.groupByCategory(from, to)
+    @Override
+    public Supplier<Map<String, Double>> groupByCategory(LocalDate from, LocalDate to) {
+        return get(new Key(Query.CATEGORY_RANGE, from, to), true, snapshot -> snapshot.groupByCategory(from, to));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns supplier of unmodifiable result of spendingList.groupByCategoryAndDate(month),
+    //          its inner maps must not be modified either
+    @Override
+    public Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate month) {
+        return get(new Key(Query.DATE_MONTH, month, null), false,
+                snapshot -> snapshot.groupByCategoryAndDate(month));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns supplier of unmodifiable result of spendingList.groupByCategoryAndDate(from, to),
+    //          its inner maps must not be modified either
+    @Override
+    public Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate from, LocalDate to) {
+        return get(new Key(Query.DATE_RANGE, from, to), true,
+                snapshot -> snapshot.groupByCategoryAndDate(from, to));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns supplier of cached result for key, or takes a snapshot of spendingList and
+    //          returns supplier that computes result from it with query and caches it;
+    //          all results are dropped first if spendingList has been modified since they were computed,
+    //          a result isn't cached if spendingList was modified while it was computed,
+    //          snapshot has records if needsRecords
+    // REQUIRES: is called on the FX thread
+    @SuppressWarnings("unchecked")
+    private <V> Supplier<Map<String, V>> get(Key key, boolean needsRecords, Function<Snapshot, Map<String, V>> query) {
+        long current = spendingList.getModCount();
+        synchronized (this) {
+            if (modCount != current) {
+                results.clear();
+                modCount = current;
+            }
+            Map<String, V> result = (Map<String, V>) results.get(key);
+            if (Objects.nonNull(result)) {
+                return () -> result;
+            }
+        }
+        Snapshot snapshot = new Snapshot(needsRecords);
+        return () -> {
+            Map<String, V> result = Collections.unmodifiableMap(query.apply(snapshot));
+            synchronized (this) {
+                if (modCount == snapshot.modCount) {
+                    results.put(key, result);
+                }
+            }
+            return result;
+        };
+    }
+
+    // Represents state of spendingList at modCount that is taken on the FX thread and read on another one:
+    // sums of its totals by category name and month if it has totals,
+    // and values of its records if they are needed or there are no totals, each record is a slot of arrays,
+    // categories are kept only as keys of totals that are given back to spendingList, and are never read
+    private final class Snapshot {
+        private final long modCount;
+        // {category name: {month: sum of amounts}}, null until computed from records if spendingList had no totals
+        private Map<String, Map<LocalDate, Double>> monthTotals;
+        // Names of categories of records at the time of snapshot, by index of category in snapshot
+        private final List<String> names = new ArrayList<>();
+        private final List<Category> categories = new ArrayList<>();
+        // Values of records, by index of record in spendingList, null if records aren't needed
+        private final int[] categoryIndexes;
+        private final long[] epochSeconds;
+        private final int[] nanos;
+        private final int[] monthIndexes;
+        private final double[] amounts;
+
+        Snapshot(boolean needsRecords) {
+            this.modCount = spendingList.getModCount();
+            if (spendingList.hasTotals()) {
+                this.monthTotals = spendingList.getTotals().sumByCategoryAndMonth(LocalDate.MIN, LocalDate.MAX);
+            }
+            if (!needsRecords && Objects.nonNull(monthTotals)) {
+                categoryIndexes = null;
+                epochSeconds = null;
+                nanos = null;
+                monthIndexes = null;
+                amounts = null;
+                return;
+            }
+            List<Record> records = spendingList.getRecords();
+            categoryIndexes = new int[records.size()];
+            epochSeconds = new long[records.size()];
+            nanos = new int[records.size()];
+            monthIndexes = new int[records.size()];
+            amounts = new double[records.size()];
+            Map<Category, Integer> indexes = new IdentityHashMap<>();
+            for (int i = 0; i < records.size(); i++) {
+                Record r = records.get(i);
+                LocalDateTime timeAdded = r.getTimeAdded();
+                categoryIndexes[i] = indexes.computeIfAbsent(r.getCategory(), c -> {
+                    categories.add(c);
+                    names.add(c.getName());
+                    return names.size() - 1;
+                });
+                epochSeconds[i] = timeAdded.toEpochSecond(ZoneOffset.UTC);
+                nanos[i] = timeAdded.getNano();
+                monthIndexes[i] = timeAdded.getYear() * 12 + timeAdded.getMonthValue() - 1;
+                amounts[i] = r.getAmount();
+            }
+        }
+
+        // EFFECTS: same as SpendingTotals.groupByCategory(date) of spendingList at the time of snapshot
+        Map<String, Double> groupByCategory(LocalDate date) {
+            Map<String, Double> sums = new HashMap<>();
+            groupByCategoryAndDate(date).forEach((name, byMonth) ->
+                    byMonth.values().forEach(amount -> sums.merge(name, amount, Double::sum)));
+            return SpendingList.sortMapByValue(sums);
+        }
+
+        // EFFECTS: same as SpendingTotals.groupByCategoryAndDate(date) of spendingList at the time of snapshot
+        Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(LocalDate date) {
+            LocalDate from = date.equals(LocalDate.MIN) ? LocalDate.MIN : date.withDayOfMonth(1);
+            LocalDate to = date.equals(LocalDate.MIN) ? LocalDate.MAX : from;
+            Map<String, Map<LocalDate, Double>> result = new HashMap<>();
+            getMonthTotals().forEach((name, byMonth) -> byMonth.forEach((month, amount) -> {
+                if (!month.isBefore(from) && !month.isAfter(to)) {
+                    result.computeIfAbsent(name, n -> new HashMap<>()).put(month, amount);
+                }
+            }));
+            return result;
+        }
+
+        // EFFECTS: same as SpendingList.groupByCategory(from, to) of spendingList at the time of snapshot
+        Map<String, Double> groupByCategory(LocalDate from, LocalDate to) {
+            long fromSecond = from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            long toSecond = to.atTime(LocalTime.MAX).toEpochSecond(ZoneOffset.UTC);
+            double[] sums = new double[names.size()];
+            boolean[] isPresent = new boolean[sums.length];
+            for (int i = 0; i < amounts.length; i++) {
+                if (isInRange(i, fromSecond, toSecond)) {
+                    sums[categoryIndexes[i]] += amounts[i];
+                    isPresent[categoryIndexes[i]] = true;
+                }
+            }
+            Map<String, Double> map = new HashMap<>();
+            for (int c = 0; c < sums.length; c++) {
+                if (isPresent[c]) {
+                    map.merge(names.get(c), sums[c], Double::sum);
+                }
+            }
+            return SpendingList.sortMapByValue(map);
+        }
+
+        // EFFECTS: same as SpendingList.groupByCategoryAndDate(from, to) of spendingList at the time of snapshot
+        Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(LocalDate from, LocalDate to) {
+            long fromSecond = from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+            long toSecond = to.atTime(LocalTime.MAX).toEpochSecond(ZoneOffset.UTC);
+            Map<String, Map<LocalDate, Double>> result = new LinkedHashMap<>();
+            for (int i = 0; i < amounts.length; i++) {
+                if (isInRange(i, fromSecond, toSecond)) {
+                    result.computeIfAbsent(names.get(categoryIndexes[i]), n -> new HashMap<>())
+                            .merge(monthOf(monthIndexes[i]), amounts[i], Double::sum);
+                }
+            }
+            return result;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns sums of totals of snapshot, computes them from records if spendingList had no totals,
+        //          in which case totals are given to spendingList on the FX thread,
+        //          unless spendingList was modified since the snapshot was taken
+        private Map<String, Map<LocalDate, Double>> getMonthTotals() {
+            if (Objects.isNull(monthTotals)) {
+                SpendingTotals totals = new SpendingTotals();
+                monthTotals = new HashMap<>();
+                for (int i = 0; i < amounts.length; i++) {
+                    LocalDate month = monthOf(monthIndexes[i]);
+                    totals.add(categories.get(categoryIndexes[i]), month, amounts[i]);
+                    monthTotals.computeIfAbsent(names.get(categoryIndexes[i]), n -> new HashMap<>())
+                            .merge(month, amounts[i], Double::sum);
+                }
+                Platform.runLater(() -> spendingList.setTotals(totals, modCount));
+            }
+            return monthTotals;
+        }
+
+        // EFFECTS: returns true if record at index was added in the range SpendingList groups records of,
+        //          i.e., strictly after fromSecond and strictly before the last nanosecond of toSecond
+        private boolean isInRange(int index, long fromSecond, long toSecond) {
+            long second = epochSeconds[index];
+            boolean isAfterFrom = second > fromSecond || (second == fromSecond && nanos[index] > 0);
+            boolean isBeforeTo = second < toSecond || (second == toSecond && nanos[index] < LocalTime.MAX.getNano());
+            return isAfterFrom && isBeforeTo;
+        }
+
+        // EFFECTS: returns first day of month with monthIndex, i.e., year * 12 + month - 1
+        private LocalDate monthOf(int monthIndex) {
+            return LocalDate.of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1);
+        }
+    }
+
+    // Represents kinds of chart queries, stacked and regular date charts plot the same query
+    private enum Query {
+        CATEGORY_MONTH, CATEGORY_RANGE, DATE_MONTH, DATE_RANGE
+    }
+
+    // Represents a query with its arguments, to is null for monthly queries
+    private static final class Key {
+        private final Query query;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        Key(Query query, LocalDate from, LocalDate to) {
+            this.query = query;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+
+            return query == key.query && Objects.equals(from, key.from) && Objects.equals(to, key.to);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = query.hashCode();
+            result = 31 * result + Objects.hashCode(from);
+            result = 31 * result + Objects.hashCode(to);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ihor.spendingorganizer.controllers;
+
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Represents an updater that brings series displayed on a chart in line with new values
+// by changing only what differs: y values are set in place, only missing points are added
+// and only points that are gone are removed, so series, points and their nodes are reused between plots
+class ChartSeriesUpdater {
+
+    private ChartSeriesUpdater() {
+    }
+
+    // MODIFIES: displayed
+    // EFFECTS: makes displayed series of a chart, i.e., chart.getData(), be series in order,
+    //          i.e., {series name: {x value: y value}},
+    //          a series with null name is unnamed, series are matched with displayed ones by name,
+    //          and points are matched with displayed ones by x value
+    static void update(ObservableList<XYChart.Series<String, Number>> displayed,
+                       Map<String, Map<String, Double>> series) {
+        Map<String, XYChart.Series<String, Number>> displayedByName = new HashMap<>();
+        displayed.forEach(s -> displayedByName.put(s.getName(), s));
+
+        List<XYChart.Series<String, Number>> updated = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Double>> entry : series.entrySet()) {
+            XYChart.Series<String, Number> s = displayedByName.remove(entry.getKey());
+            if (Objects.isNull(s)) {
+                s = new XYChart.Series<>();
+                s.setName(entry.getKey());
+            }
+            updateData(s, entry.getValue());
+            updated.add(s);
+        }
+        displayed.removeAll(displayedByName.values());
+
+        for (int i = 0; i < updated.size(); i++) {
+            XYChart.Series<String, Number> s = updated.get(i);
+            if (i < displayed.size() && displayed.get(i) == s) {
+                continue;
+            }
+            // only new series and series that moved are (re)added
+            displayed.remove(s);
+            displayed.add(i, s);
+        }
+    }
+
+    // MODIFIES: displayed
+    // EFFECTS: makes displayed series of a chart, i.e., chart.getData(), that have names in series
+    //          show their values, i.e., {x value: y value}, other displayed series are left untouched,
+    //          e.g., when only a few series changed
+    static void updateSeries(ObservableList<XYChart.Series<String, Number>> displayed,
+                             Map<String, Map<String, Double>> series) {
+        for (XYChart.Series<String, Number> s : displayed) {
+            Map<String, Double> values = series.get(s.getName());
+            if (Objects.nonNull(values)) {
+                updateData(s, values);
+            }
+        }
+    }
+
+    // MODIFIES: series
+    // EFFECTS: makes series have points of values, i.e., {x value: y value}
+    private static void updateData(XYChart.Series<String, Number> series, Map<String, Double> values) {
+        Map<String, Double> missing = new LinkedHashMap<>(values);
+        List<XYChart.Data<String, Number>> removed = new ArrayList<>();
+        for (XYChart.Data<String, Number> data : series.getData()) {
+            Double value = missing.remove(data.getXValue());
+            if (Objects.isNull(value)) {
+                removed.add(data);
+            } else if (!value.equals(data.getYValue())) {
+                data.setYValue(value);
+            }
+        }
+        series.getData().removeAll(removed);
+        missing.forEach((x, y) -> series.getData().add(new XYChart.Data<>(x, y)));
+    }
+}
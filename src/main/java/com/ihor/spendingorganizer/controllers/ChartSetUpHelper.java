@@ -1,31 +1,78 @@
 package com.ihor.spendingorganizer.controllers;
 
-import javafx.collections.FXCollections;
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.util.StringConverter;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Objects;
 
 // Helper class that formats GUI components in the chart scene
 public class ChartSetUpHelper extends SetUpHelper {
 
     private final ChartController cl;
+    // Kept in a field, so it can be removed from months of a spending list once another one is opened
+    private final ListChangeListener<LocalDate> monthsListener = this::monthsChanged;
 
     public ChartSetUpHelper(ChartController cl) {
         this.cl = cl;
     }
 
     // MODIFIES: this
-    // EFFECTS: populates and formats UI for chart scene
+    // EFFECTS: populates and formats UI for chart scene that doesn't depend on spending list
     void setUpChartController() {
         populateCategoriesTable();
         populateDateComboBox();
         formatUI();
     }
 
+    // MODIFIES: this
+    // EFFECTS: fills categories table and dateComboBox from cl.spendingList,
+    //          and stops following months of oldSpendingList if it isn't null
+    void bindSpendingList(SpendingList oldSpendingList) {
+        if (Objects.nonNull(oldSpendingList)) {
+            oldSpendingList.getMonths().removeListener(monthsListener);
+        }
+        cl.categoriesTable.setItems(cl.spendingList.getCategories().getCategories());
+        super.colorDefaultCategoryInCategoriesTable(cl.categoriesTable, cl.spendingList.getCategories());
+
+        cl.dateComboBox.getItems().setAll(LocalDate.MIN);
+        cl.dateComboBox.getItems().addAll(cl.spendingList.getMonths());
+        cl.spendingList.getMonths().addListener(monthsListener);
+        cl.dateComboBox.getSelectionModel().selectFirst();
+        cl.dateComboBox.setVisibleRowCount(cl.dateComboBox.getItems().size());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: fills categories table with categories that have names, e.g., of all files of a workspace,
+    //          and dateComboBox with months
+    void bindStandalone(List<String> names, List<LocalDate> months) {
+        try {
+            Categories categories = new Categories();
+            for (String name : names) {
+                if (!categories.getCategoriesNames().contains(name)) {
+                    new Category(name, categories);
+                }
+            }
+            cl.categoriesTable.setItems(categories.getCategories());
+        } catch (NameException e) {
+            showErrorMessage("Couldn't show categories: " + e.getMessage());
+        }
+
+        cl.dateComboBox.getItems().setAll(LocalDate.MIN);
+        cl.dateComboBox.getItems().addAll(months);
+        cl.dateComboBox.getSelectionModel().selectFirst();
+        cl.dateComboBox.setVisibleRowCount(cl.dateComboBox.getItems().size());
+    }
+
     // MODIFIES: this
     // EFFECTS: formats UI for chart scene
     private void formatUI() {
@@ -82,36 +129,45 @@ public class ChartSetUpHelper extends SetUpHelper {
     }
 
     // MODIFIES: this
-    // EFFECTS: populates categories table and colors default category in categoriesTable
+    // EFFECTS: sets up columns of categories table
     private void populateCategoriesTable() {
         cl.categoriesColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
         cl.isShownColumn.setCellValueFactory(new PropertyValueFactory<>("isShown"));
         super.formatIsShownColumn(cl.isShownColumn);
-        cl.categoriesTable.setItems(cl.spendingList.getCategories().getCategories());
-        super.colorDefaultCategoryInCategoriesTable(cl.categoriesTable, cl.spendingList.getCategories());
-    }
-
-    // MODIFIES: this
-    // EFFECTS: repopulates dateComboBox
-    void repopulateDateComboBox() {
-        LocalDate localDate = cl.dateComboBox.getSelectionModel().getSelectedItem();
-        cl.dateComboBox.getItems().add(1, cl.spendingList.getDates().get(0));
-        cl.dateComboBox.getSelectionModel().select(localDate);
-        cl.dateComboBox.setVisibleRowCount(cl.dateComboBox.getItems().size());
     }
 
     // MODIFIES: this
-    // EFFECTS: populates dateComboBox and adds a LocalDate.MIN (used to display all months)
+    // EFFECTS: adds a LocalDate.MIN (used to display all months) to dateComboBox,
+    //          months of spending list are added by bindSpendingList,
+    //          and are kept in line with it as they appear or disappear
     // Implementation of listener is taken from: https://stackoverflow.com/a/25704438
     void populateDateComboBox() {
         cl.dateComboBox.getItems().add(LocalDate.MIN);
-        cl.dateComboBox.getItems().addAll(FXCollections.observableArrayList(cl.spendingList.getDates()));
         cl.dateComboBox.getSelectionModel().selectFirst();
-        cl.dateComboBox.setVisibleRowCount(cl.dateComboBox.getItems().size());
         cl.dateComboBox.showingProperty().addListener(((observable, oldValue, newValue) -> {
             if (!newValue) {
                 cl.plotChart();
             }
         }));
     }
+
+    // MODIFIES: this
+    // EFFECTS: applies change of months of spending list to dateComboBox, which has LocalDate.MIN at index 0,
+    //          selects LocalDate.MIN if selected month is gone
+    private void monthsChanged(ListChangeListener.Change<? extends LocalDate> change) {
+        ObservableList<LocalDate> items = cl.dateComboBox.getItems();
+        while (change.next()) {
+            if (change.wasRemoved()) {
+                items.remove(change.getFrom() + 1, change.getFrom() + 1 + change.getRemovedSize());
+            }
+            if (change.wasAdded()) {
+                items.addAll(change.getFrom() + 1, change.getAddedSubList());
+            }
+        }
+        LocalDate selected = cl.dateComboBox.getSelectionModel().getSelectedItem();
+        if (Objects.isNull(selected) || !items.contains(selected)) {
+            cl.dateComboBox.getSelectionModel().selectFirst();
+        }
+        cl.dateComboBox.setVisibleRowCount(items.size());
+    }
 }
@@ -2,38 +2,63 @@ package com.ihor.spendingorganizer.controllers;
 
 import com.ihor.spendingorganizer.SpendingApp;
 import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Event;
 import com.ihor.spendingorganizer.model.EventLog;
+import com.ihor.spendingorganizer.model.OffHeapRecordStore;
 import com.ihor.spendingorganizer.model.Record;
 import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.SpendingTotals;
 import com.ihor.spendingorganizer.model.exceptions.NameException;
 import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
-import com.ihor.spendingorganizer.persistence.JsonWriter;
+import com.ihor.spendingorganizer.persistence.CsvColumnMapping;
+import com.ihor.spendingorganizer.persistence.CsvExporter;
+import com.ihor.spendingorganizer.persistence.CsvImporter;
+import com.ihor.spendingorganizer.persistence.ExportOptions;
+import com.ihor.spendingorganizer.persistence.JsonLinesExporter;
+import com.ihor.spendingorganizer.persistence.JsonSpendingListStore;
+import com.ihor.spendingorganizer.persistence.PagedRecordList;
+import com.ihor.spendingorganizer.persistence.RecordDeduplicator;
+import com.ihor.spendingorganizer.persistence.RecordExporter;
+import com.ihor.spendingorganizer.persistence.SpendingListMerger;
+import com.ihor.spendingorganizer.persistence.SpendingListStores;
+import com.ihor.spendingorganizer.persistence.StorageSettings;
+import com.ihor.spendingorganizer.persistence.WorkspaceCatalog;
 import com.ihor.spendingorganizer.controllers.enums.SceneEnum;
 import com.ihor.spendingorganizer.controllers.holders.SceneHolder;
 import com.ihor.spendingorganizer.controllers.holders.SpendingListHolder;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.concurrent.Task;
+import javafx.concurrent.WorkerStateEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 // Class that handles events in the main window
 public class Controller implements Initializable {
 
     private final String fileError = "Choose a file";
+    private final String readOnlyError = "This file is too large to be edited, it is opened read-only";
     // File path to load from when user does File -> New,
     // file at this path is never modified
     private final String defaultFilePath = "src/main/resources/data/emptyFile.json";
@@ -67,7 +92,20 @@ public class Controller implements Initializable {
     @FXML MenuItem changeViewMenuItem;
     @FXML Label filenameLabel;
 
+    @FXML VBox sidePane;
+    @FXML HBox progressBox;
+    @FXML ProgressBar progressBar;
+    @FXML Label progressLabel;
+
     SpendingList spendingList;
+    // Records of a file that records table shows read-only, null if spendingList is shown instead
+    PagedRecordList pagedRecords;
+    // Copy of pagedRecords that is kept off the heap and its totals, which charts of the file are grouped from,
+    // null if no file is shown read-only
+    OffHeapRecordStore recordStore;
+    SpendingTotals recordTotals;
+    // Window with chart of the file that is shown read-only, null if it hasn't been shown
+    Stage readOnlyChart;
 
     // True if data has been changed (if it's been changed, save pop-up menu is displayed)
     SimpleBooleanProperty isChanged;
@@ -75,17 +113,61 @@ public class Controller implements Initializable {
     SimpleStringProperty currentFilePath;
 
     private SetUpHelper setUpHelper;
+    // Task that is opening or importing a file in the background, null if there's no such task
+    private Task<?> backgroundTask;
+    // Task that loads chart scene in the background, null once it has finished
+    private Task<Parent> chartLoadTask;
+    // true if user switched to chart view while chartLoadTask was still loading it
+    private boolean isChartRequested;
     final SceneHolder sceneHolder = SceneHolder.getInstance();
     final SpendingListHolder spendingListHolder = SpendingListHolder.getInstance();
 
     // MODIFIES: this
-    // EFFECTS: initializes application
+    // EFFECTS: initializes application, and deletes scratch files that a previous run left behind
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         currentFilePath = new SimpleStringProperty("src/main/resources/data/emptyFile.json");
         setUpHelper = new SetUpHelper(this);
         isChanged = new SimpleBooleanProperty(false);
+        setUpHelper.addPropertyListeners();
         setUpHelper.setUpUI();
+        preloadChartScene();
+        OpenReadOnlyFileTask.deleteScratchFiles();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads chart scene on a background thread and saves it to sceneHolder,
+    //          so switching to chart view for the first time doesn't wait for chart.fxml to load,
+    //          chart scene is loaded once and follows spending lists that are opened later,
+    //          if user switches to chart view before it's loaded, it's shown as soon as it is,
+    //          if loading fails, chart scene is loaded again once user switches to it
+    private void preloadChartScene() {
+        Task<Parent> task = new Task<>() {
+            @Override
+            protected Parent call() throws IOException {
+                return new FXMLLoader(SpendingApp.class.getResource("chart.fxml")).load();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            chartLoadTask = null;
+            Scene chartScene = new Scene(task.getValue());
+            sceneHolder.getSceneMap().put(SceneEnum.CHART, chartScene);
+            if (isChartRequested) {
+                isChartRequested = false;
+                ((Stage) recordTable.getScene().getWindow()).setScene(chartScene);
+            }
+        });
+        task.setOnFailed(e -> {
+            chartLoadTask = null;
+            if (isChartRequested) {
+                isChartRequested = false;
+                changeSceneToChart();
+            }
+        });
+        chartLoadTask = task;
+        Thread thread = new Thread(task, "chart-preload");
+        thread.setDaemon(true);
+        thread.start();
     }
 
     // MODIFIES: this
@@ -102,13 +184,13 @@ public class Controller implements Initializable {
     }
 
     // MODIFIES: this
-    // EFFECTS: opens an empty file, and
+    // EFFECTS: cancels background task if there's one, opens an empty file, and
     //          disables chart view
     private void newFile() {
+        cancelTaskClicked();
         currentFilePath.set(defaultFilePath);
         setUpHelper.setUpUI();
         isChanged.set(false);
-        sceneHolder.getSceneMap().remove(SceneEnum.CHART);
         changeViewMenuItem.setDisable(true);
     }
 
@@ -116,6 +198,9 @@ public class Controller implements Initializable {
     // EFFECTS: asks user if they want to save changes, and opens chosen file
     @FXML
     void openMenuItemClicked() {
+        if (Objects.nonNull(backgroundTask)) {
+            return;
+        }
         if (isChanged.get()) {
             if (showSavePopup()) {
                 openChosenFile();
@@ -125,43 +210,342 @@ public class Controller implements Initializable {
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: asks user if they want to save changes, and opens chosen files merged into one spending list
+    @FXML
+    void openMergedMenuItemClicked() {
+        if (Objects.nonNull(backgroundTask)) {
+            return;
+        }
+        if (!isChanged.get() || showSavePopup()) {
+            openChosenFilesMerged();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads chosen files on background threads and swaps their merged spending list into the UI,
+    //          merged spending list isn't saved to any of the files until user chooses where to save it,
+    //          shows error message if user didn't choose any file
+    private void openChosenFilesMerged() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Spending Organizer (*.json, *.jsonz)",
+                        "*" + JsonSpendingListStore.EXTENSION, "*" + JsonSpendingListStore.COMPRESSED_EXTENSION));
+        fileChooser.setInitialDirectory(new File("src/main/resources/data"));
+        List<File> selectedFiles = fileChooser.showOpenMultipleDialog(null);
+        if (Objects.isNull(selectedFiles) || selectedFiles.isEmpty()) {
+            setUpHelper.showErrorMessage(fileError);
+            return;
+        }
+
+        List<Path> paths = selectedFiles.stream().map(File::toPath).collect(Collectors.toList());
+        RecordDeduplicator deduplicator = new RecordDeduplicator();
+        Task<SpendingList> task = new Task<>() {
+            @Override
+            protected SpendingList call() throws Exception {
+                updateMessage(String.format("Opening %d files", paths.size()));
+                // records that other files of their workspaces have are dropped as well
+                WorkspaceCatalog.addWorkspaceHistoryTo(deduplicator, paths);
+                return SpendingListMerger.openMerged(paths, deduplicator);
+            }
+        };
+        task.setOnSucceeded(e -> {
+            hideProgress();
+            currentFilePath.set(defaultFilePath);
+            setUpHelper.setUpUI(task.getValue());
+            isChanged.set(true);
+            changeViewMenuItem.setDisable(spendingList.getRecords().isEmpty());
+            EventLog.getInstance().logEvent(new Event(String.format("Opened %d files merged into %,d records",
+                    paths.size(), spendingList.getRecords().size())));
+            if (deduplicator.getDuplicates() > 0) {
+                setUpHelper.showInfoMessage(String.format("Dropped %,d duplicate records",
+                        deduplicator.getDuplicates()));
+            }
+        });
+        task.setOnFailed(e -> {
+            hideProgress();
+            setUpHelper.showErrorMessage("Couldn't open the files: " + task.getException().getMessage());
+        });
+        runInBackground(task, "merged-open");
+    }
+
     // MODIFIES: this
     // EFFECTS: opens chosen file, and disables chart view if opened file has no records
     //          shows error message if used didn't choose a file
     // Implementation is based on: https://youtu.be/hNz8Xf4tMI4?t=345
     private void openChosenFile() {
         FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Spending Organizer (*.json, *.jsonz)",
+                        "*" + JsonSpendingListStore.EXTENSION, "*" + JsonSpendingListStore.COMPRESSED_EXTENSION),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
         fileChooser.setInitialDirectory(new File("src/main/resources/data"));
         File selectedFile = fileChooser.showOpenDialog(null);
 
         if (Objects.nonNull(selectedFile)) {
-            currentFilePath.set(selectedFile.getPath());
-            setUpHelper.setUpUI();
+            openInBackground(selectedFile.toPath());
+        } else {
+            setUpHelper.showErrorMessage(fileError);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads file at path on a background thread while showing reading progress,
+    //          once the file is fully read, swaps its spending list into the UI,
+    //          and disables chart view if opened file has no records,
+    //          user is asked if a large file is opened read-only, which is the default, or loaded fully,
+    //          if reading fails or is cancelled, currently opened file stays untouched
+    private void openInBackground(Path path) {
+        long largeFileBytes = getLargeFileBytes(path);
+        if (largeFileBytes > 0) {
+            Optional<Boolean> isReadOnly = setUpHelper.showLargeFileDialog(path.getFileName().toString(),
+                    largeFileBytes);
+            if (isReadOnly.isEmpty()) {
+                return;
+            } else if (isReadOnly.get()) {
+                openReadOnlyInBackground(path);
+                return;
+            }
+        }
+        OpenFileTask task = new OpenFileTask(path);
+        task.setOnSucceeded(e -> {
+            hideProgress();
+            currentFilePath.set(path.toString());
+            setUpHelper.setUpUI(task.getValue());
             isChanged.set(false);
-            sceneHolder.getSceneMap().remove(SceneEnum.CHART);
             changeViewMenuItem.setDisable(spendingList.getRecords().isEmpty());
-        } else {
+        });
+        task.setOnFailed(e -> {
+            hideProgress();
+            setUpHelper.showErrorMessage("Selected file is corrupted");
+        });
+        runInBackground(task, "open-file");
+    }
+
+    // EFFECTS: returns size of file at path if it's an uncompressed spending list file
+    //          of at least StorageSettings.getLargeFileMinBytes() bytes, otherwise returns 0
+    private long getLargeFileBytes(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        try {
+            long bytes = Files.size(path);
+            return name.endsWith(JsonSpendingListStore.EXTENSION) && bytes >= StorageSettings.getLargeFileMinBytes()
+                    ? bytes : 0;
+        } catch (IOException e) {
+            // file is opened as usual, which tells user it can't be read
+            return 0;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: asks user if they want to save changes, and opens chosen file read-only,
+    //          so that records table loads only the records it shows, e.g., to look through a file
+    //          that is too big to be opened, shows error message if user didn't choose a file
+    @FXML
+    void browseMenuItemClicked() {
+        if (Objects.nonNull(backgroundTask) || (isChanged.get() && !showSavePopup())) {
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Spending Organizer (*.json)", "*" + JsonSpendingListStore.EXTENSION));
+        fileChooser.setInitialDirectory(new File("src/main/resources/data"));
+        File selectedFile = fileChooser.showOpenDialog(null);
+        if (Objects.isNull(selectedFile)) {
             setUpHelper.showErrorMessage(fileError);
+            return;
         }
+        openReadOnlyInBackground(selectedFile.toPath());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes file at path on a background thread while showing indexing progress,
+    //          then shows its records read-only in records table, which loads only the records it shows,
+    //          records are copied off the heap meanwhile, so the file can still be charted,
+    //          and chart view is disabled if the file has no records,
+    //          if indexing fails or is cancelled, currently opened file stays untouched
+    private void openReadOnlyInBackground(Path path) {
+        OpenReadOnlyFileTask task = new OpenReadOnlyFileTask(path);
+        task.setOnSucceeded(e -> {
+            hideProgress();
+            currentFilePath.set(path.toString());
+            setUpHelper.setUpReadOnlyUI(task.getValue(), task.getRecordStore(), task.getTotals());
+            isChanged.set(false);
+            changeViewMenuItem.setDisable(task.getValue().isEmpty());
+        });
+        task.setOnFailed(e -> {
+            hideProgress();
+            setUpHelper.showErrorMessage("Couldn't open the file: " + task.getException().getMessage());
+        });
+        runInBackground(task, "open-read-only");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: imports records from a CSV bank statement that user chooses,
+    //          columns are found by their names in the header row,
+    //          shows number of imported and rejected rows once import is done,
+    //          shows error message if user didn't choose a file
+    @FXML
+    void importCsvMenuItemClicked() {
+        if (Objects.nonNull(backgroundTask)) {
+            return;
+        }
+        if (Objects.nonNull(pagedRecords)) {
+            setUpHelper.showErrorMessage(readOnlyError);
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV bank statement (*.csv)", "*.csv"));
+        fileChooser.setInitialDirectory(new File("src/main/resources/data"));
+        File selectedFile = fileChooser.showOpenDialog(null);
+        if (Objects.isNull(selectedFile)) {
+            setUpHelper.showErrorMessage(fileError);
+            return;
+        }
+
+        try {
+            CsvImporter importer = new CsvImporter(CsvColumnMapping.byHeader(), spendingList.getCategories());
+            importer.setDeduplicator(new RecordDeduplicator(spendingList.getRecords()));
+            SpendingList importedTo = spendingList;
+            Path openedFile = currentFilePath.get().equals(defaultFilePath) ? null : Paths.get(currentFilePath.get());
+            ImportCsvTask task = new ImportCsvTask(importer, selectedFile.toPath(), importedTo, openedFile);
+            task.setOnSucceeded(e -> {
+                hideProgress();
+                setUpHelper.showInfoMessage(task.getValue().toString());
+            });
+            task.setOnFailed(e -> {
+                hideProgress();
+                setUpHelper.showErrorMessage("Couldn't import the file: " + task.getException().getMessage());
+            });
+            // batches are appended to the end, so records are sorted however the import ends
+            runInBackground(task, "import-csv", importedTo::sortByTimeAdded);
+        } catch (NameException e) {
+            setUpHelper.showErrorMessage(e.getMessage());
+        }
+    }
+
+    // EFFECTS: exports records that match options user chooses to a CSV or JSON Lines file chosen by user,
+    //          records are exported in the background from a snapshot taken when export starts,
+    //          cancelling the export deletes the partly written file
+    @FXML
+    void exportMenuItemClicked() {
+        if (Objects.nonNull(backgroundTask)) {
+            return;
+        }
+        if (Objects.nonNull(pagedRecords)) {
+            setUpHelper.showErrorMessage(readOnlyError);
+            return;
+        }
+        Optional<ExportOptions> options = setUpHelper.showExportOptionsDialog(spendingList.getCategories());
+        if (options.isEmpty()) {
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("CSV (*.csv)", "*.csv"),
+                new FileChooser.ExtensionFilter("JSON Lines (*.jsonl)", "*.jsonl"));
+        fileChooser.setInitialDirectory(new File("src/main/resources/data"));
+        File selectedFile = fileChooser.showSaveDialog(null);
+        if (Objects.isNull(selectedFile)) {
+            setUpHelper.showErrorMessage(fileError);
+            return;
+        }
+
+        Path path = selectedFile.toPath();
+        RecordExporter exporter = path.toString().endsWith(".jsonl") ? new JsonLinesExporter() : new CsvExporter();
+        // records list may only be read on the FX thread, and can be edited once export is cancelled
+        List<Record> records = new ArrayList<>(spendingList.getRecords());
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws IOException {
+                updateMessage("Exporting to " + path.getFileName());
+                return exporter.export(records, path, options.get());
+            }
+        };
+        task.setOnSucceeded(e -> {
+            hideProgress();
+            setUpHelper.showInfoMessage(String.format("Exported %,d records", task.getValue()));
+        });
+        task.setOnFailed(e -> {
+            hideProgress();
+            setUpHelper.showErrorMessage("Couldn't export the file: " + task.getException().getMessage());
+        });
+        runInBackground(task, "export");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: cancels the running background task, file that was being opened is not opened,
+    //          records that were already imported are kept
+    @FXML
+    void cancelTaskClicked() {
+        if (Objects.nonNull(backgroundTask)) {
+            backgroundTask.cancel();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows progress of task and disables editing until task is done, then starts task on a new thread
+    private void runInBackground(Task<?> task, String threadName) {
+        runInBackground(task, threadName, () -> { });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as runInBackground(Task<?> task, String threadName),
+    //          and runs onDone on the FX thread once task succeeds, fails or is cancelled,
+    //          before handlers of task are called
+    private void runInBackground(Task<?> task, String threadName, Runnable onDone) {
+        task.addEventFilter(WorkerStateEvent.ANY, e -> {
+            if (e.getEventType() == WorkerStateEvent.WORKER_STATE_SUCCEEDED
+                    || e.getEventType() == WorkerStateEvent.WORKER_STATE_FAILED
+                    || e.getEventType() == WorkerStateEvent.WORKER_STATE_CANCELLED) {
+                onDone.run();
+            }
+        });
+        backgroundTask = task;
+        progressBar.progressProperty().bind(task.progressProperty());
+        progressLabel.textProperty().bind(task.messageProperty());
+        progressBox.setManaged(true);
+        progressBox.setVisible(true);
+        sidePane.setDisable(true);
+        recordTable.setDisable(true);
+        task.setOnCancelled(e -> hideProgress());
+
+        Thread thread = new Thread(task, threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hides progress of the background task, and enables editing unless a file is shown read-only
+    private void hideProgress() {
+        backgroundTask = null;
+        progressBar.progressProperty().unbind();
+        progressLabel.textProperty().unbind();
+        progressBox.setVisible(false);
+        progressBox.setManaged(false);
+        sidePane.setDisable(Objects.nonNull(pagedRecords));
+        recordTable.setDisable(false);
     }
 
     // MODIFIES: this
     // EFFECTS: saves app state to the file with currentFilePath path,
     //          shows error message if used didn't choose a file,
-    //          if user is in default empty file, treat as if they clicked SaveAs button
+    //          if user is in default empty file, treat as if they clicked SaveAs button,
+    //          a file that is shown read-only is never saved
     @FXML
     void saveMenuItemClicked() {
-        if (currentFilePath.get().equals(defaultFilePath)) {
+        if (Objects.nonNull(pagedRecords)) {
+            setUpHelper.showErrorMessage(readOnlyError);
+        } else if (currentFilePath.get().equals(defaultFilePath)) {
             saveAsMenuItemClicked();
             if (Objects.isNull(selectedFileDuringSaveAs)) {
                 focusOnRecordsOrCategories();
             }
         } else {
-            try (JsonWriter writer = new JsonWriter(currentFilePath.get())) {
-                writer.open();
-                writer.write(spendingList);
+            try {
+                Path path = Paths.get(currentFilePath.get());
+                SpendingListStores.forPath(path).save(spendingList, path);
                 isChanged.set(false);
-            } catch (FileNotFoundException e) {
+            } catch (IOException e) {
                 setUpHelper.showErrorMessage(e.getMessage());
             }
         }
@@ -175,21 +559,28 @@ public class Controller implements Initializable {
     @FXML
     void saveAsMenuItemClicked() {
         selectedFileDuringSaveAs = null;
+        if (Objects.nonNull(pagedRecords)) {
+            setUpHelper.showErrorMessage(readOnlyError);
+            return;
+        }
         FileChooser fileChooser = new FileChooser();
-        FileChooser.ExtensionFilter extensionFilter =
-                new FileChooser.ExtensionFilter("Spending Organizer (*.json)", "*.json");
-        fileChooser.getExtensionFilters().add(extensionFilter);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Spending Organizer (*.json)",
+                        "*" + JsonSpendingListStore.EXTENSION),
+                new FileChooser.ExtensionFilter("Compressed Spending Organizer (*.jsonz)",
+                        "*" + JsonSpendingListStore.COMPRESSED_EXTENSION));
         fileChooser.setInitialDirectory(new File("src/main/resources/data"));
 
         selectedFileDuringSaveAs = fileChooser.showSaveDialog(null);
 
         if (Objects.nonNull(selectedFileDuringSaveAs)) {
-            currentFilePath.set(selectedFileDuringSaveAs.getPath());
-            try (JsonWriter writer = new JsonWriter(currentFilePath.get())) {
-                writer.open();
-                writer.write(spendingList);
+            try {
+                Path path = selectedFileDuringSaveAs.toPath();
+                SpendingListStores.forPath(path).save(spendingList, path);
+                // current file is changed only once it's saved, so later saves don't go to a file that failed
+                currentFilePath.set(path.toString());
                 isChanged.set(false);
-            } catch (FileNotFoundException e) {
+            } catch (IOException e) {
                 setUpHelper.showErrorMessage(e.getMessage());
                 selectedFileDuringSaveAs = null;
             }
@@ -227,9 +618,13 @@ public class Controller implements Initializable {
 
     // MODIFIES: this
     // EFFECTS: removes record if removeGroup has record toggle selected,
-    //          removes category if removeGroup has category toggle selected
+    //          removes category if removeGroup has category toggle selected,
+    //          nothing is removed from a file that is shown read-only
     @FXML
     void removeSelected() {
+        if (Objects.nonNull(pagedRecords)) {
+            return;
+        }
         Toggle selectedToggle = removeGroup.getSelectedToggle();
         if (selectedToggle.equals(recordToggleRemove)) {
             List<Record> selectedRecords = new ArrayList<>(recordTable.getSelectionModel().getSelectedItems());
@@ -237,7 +632,6 @@ public class Controller implements Initializable {
         } else if (selectedToggle.equals(categoryToggleRemove)) {
             List<Category> selectedCategories = new ArrayList<>(categoriesTable.getSelectionModel().getSelectedItems());
             selectedCategories.forEach(c -> spendingList.getCategories().remove(c, spendingList));
-            recordTable.refresh();
         }
     }
 
@@ -252,7 +646,6 @@ public class Controller implements Initializable {
         } catch (NameException e) {
             setUpHelper.showErrorMessage(e.getMessage());
         } finally {
-            recordTable.refresh();
             recordTable.requestFocus();
         }
     }
@@ -268,7 +661,6 @@ public class Controller implements Initializable {
         } catch (NegativeAmountException | NumberFormatException e) {
             setUpHelper.showErrorMessage(e.getMessage());
         } finally {
-            recordTable.refresh();
             recordTable.requestFocus();
         }
     }
@@ -279,7 +671,6 @@ public class Controller implements Initializable {
     void changeCategoryInRecords(TableColumn.CellEditEvent<Record, Category> editedCell) {
         Record record = recordTable.getSelectionModel().getSelectedItem();
         record.setCategory(editedCell.getNewValue());
-        recordTable.refresh();
         recordTable.requestFocus();
         isChanged.set(true);
     }
@@ -295,10 +686,7 @@ public class Controller implements Initializable {
         } catch (NameException e) {
             setUpHelper.showErrorMessage(e.getMessage());
         } finally {
-            categoriesTable.refresh();
-            recordTable.refresh();
             categoriesTable.requestFocus();
-            setUpHelper.repopulateCategoriesComboBox();
         }
     }
 
@@ -362,28 +750,122 @@ public class Controller implements Initializable {
 
     // MODIFIES: this
     // EFFECTS: changes scene to bar chart scene
-    //          if sceneHolder already contains Chart scene, simply sets it,
-    //          otherwise, loads a new FXML file
+    //          if sceneHolder already contains Chart scene, e.g., it has been preloaded, simply sets it,
+    //          if it's still being preloaded, it's shown once it's loaded, so only one chart scene is ever bound,
+    //          otherwise, loads a new FXML file,
+    //          chart of a file that is shown read-only is shown in its own window instead
     // Implementation is based on https://dev.to/devtony101/javafx-3-ways-of-passing-information-between-scenes-1bm8
     @FXML
     public void changeSceneToChart() {
+        if (Objects.nonNull(pagedRecords)) {
+            showReadOnlyChart();
+            return;
+        }
         sceneHolder.getSceneMap().put(SceneEnum.MAIN, recordTable.getScene());
         Stage window = (Stage) recordTable.getScene().getWindow();
         if (sceneHolder.getSceneMap().containsKey(SceneEnum.CHART)) {
             window.setScene(sceneHolder.getSceneMap().get(SceneEnum.CHART));
+        } else if (Objects.nonNull(chartLoadTask)) {
+            isChartRequested = true;
         } else {
             try {
                 FXMLLoader loader = new FXMLLoader(SpendingApp.class.getResource("chart.fxml"));
-                spendingListHolder.setSpendingList(spendingList);
                 Parent chartViewParent = loader.load();
 
-                window.setScene(new Scene(chartViewParent));
+                Scene chartScene = new Scene(chartViewParent);
+                sceneHolder.getSceneMap().put(SceneEnum.CHART, chartScene);
+                window.setScene(chartScene);
                 window.show();
 
             } catch (IOException e) {
-                setUpHelper.showErrorMessage("Couldn't load the chart view");
-                e.printStackTrace();
+                setUpHelper.showErrorMessage("Couldn't load the chart view: " + e.getMessage());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows chart of totals of all spending list files in a workspace directory that user chooses
+    //          in a new window, catalog of the workspace is refreshed on a background thread first,
+    //          so only files that changed since the last time are read,
+    //          shows error message if user didn't choose a directory or it can't be cataloged
+    @FXML
+    void workspaceChartMenuItemClicked() {
+        if (Objects.nonNull(backgroundTask)) {
+            return;
+        }
+        DirectoryChooser directoryChooser = new DirectoryChooser();
+        directoryChooser.setInitialDirectory(new File("src/main/resources/data"));
+        File selectedDirectory = directoryChooser.showDialog(null);
+        if (Objects.isNull(selectedDirectory)) {
+            setUpHelper.showErrorMessage("Please, select a directory");
+            return;
+        }
+
+        Path directory = selectedDirectory.toPath();
+        Task<WorkspaceCatalog> task = new Task<>() {
+            @Override
+            protected WorkspaceCatalog call() throws IOException {
+                updateMessage("Cataloging " + directory.getFileName());
+                WorkspaceCatalog catalog = new WorkspaceCatalog(directory);
+                catalog.refresh();
+                return catalog;
             }
+        };
+        task.setOnSucceeded(e -> {
+            hideProgress();
+            WorkspaceCatalog catalog = task.getValue();
+            showWorkspaceChart(catalog, directory.getFileName().toString());
+            if (!catalog.getSkippedFiles().isEmpty()) {
+                setUpHelper.showInfoMessage("Couldn't read these files: "
+                        + String.join(", ", catalog.getSkippedFiles()));
+            }
+        });
+        task.setOnFailed(e -> {
+            hideProgress();
+            setUpHelper.showErrorMessage("Couldn't catalog the workspace: " + task.getException().getMessage());
+        });
+        runInBackground(task, "workspace-catalog");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows chart of totals of catalog in a new window titled with name of the workspace,
+    //          shows error message if chart view can't be loaded
+    private void showWorkspaceChart(WorkspaceCatalog catalog, String workspaceName) {
+        showChartWindow(String.format("%s - %,d files", workspaceName, catalog.getEntries().size()),
+                chartController -> chartController.showWorkspace(catalog));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows chart of the file that is shown read-only in its own window, grouped from recordStore,
+    //          the window is created once per file and brought to front after that,
+    //          shows error message if chart view can't be loaded
+    private void showReadOnlyChart() {
+        if (Objects.nonNull(readOnlyChart)) {
+            readOnlyChart.show();
+            readOnlyChart.toFront();
+            return;
+        }
+        String title = String.format("%s - %,d records (read-only)",
+                Paths.get(currentFilePath.get()).getFileName(), pagedRecords.size());
+        readOnlyChart = showChartWindow(title, chartController -> chartController.showRecordStore(recordStore,
+                recordTotals)).orElse(null);
+    }
+
+    // EFFECTS: loads chart scene in a new window titled with title, makes its controller show what show makes it,
+    //          and returns the window, shows error message and returns nothing if chart view can't be loaded
+    private Optional<Stage> showChartWindow(String title, Consumer<ChartController> show) {
+        try {
+            FXMLLoader loader = new FXMLLoader(SpendingApp.class.getResource("chart.fxml"));
+            Parent chartViewParent = loader.load();
+            Stage stage = new Stage();
+            stage.setTitle(title);
+            stage.setScene(new Scene(chartViewParent));
+            show.accept(loader.getController());
+            stage.show();
+            return Optional.of(stage);
+        } catch (IOException e) {
+            setUpHelper.showErrorMessage("Couldn't load the chart view: " + e.getMessage());
+            return Optional.empty();
         }
     }
 
@@ -0,0 +1,59 @@
+package com.ihor.spendingorganizer.controllers;
+
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.persistence.CsvImporter;
+import com.ihor.spendingorganizer.persistence.ImportReport;
+import com.ihor.spendingorganizer.persistence.ReadProgressListener;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+// Represents a background task that imports a CSV bank statement into SpendingList,
+// records are added to the spending list on the FX thread in batches,
+// records imported before the task is cancelled are kept
+public class ImportCsvTask extends Task<ImportReport> {
+
+    private final CsvImporter importer;
+    private final Path path;
+    private final SpendingList spendingList;
+    // File that spendingList was opened from, null if it wasn't opened from a file
+    private final Path openedFile;
+
+    public ImportCsvTask(CsvImporter importer, Path path, SpendingList spendingList, Path openedFile) {
+        this.importer = importer;
+        this.path = path;
+        this.spendingList = spendingList;
+        this.openedFile = openedFile;
+    }
+
+    // EFFECTS: imports records from path, reporting share of the file read and number of rows read,
+    //          rows that other files of the workspace of openedFile already have are dropped as duplicates
+    @Override
+    protected ImportReport call() throws Exception {
+        if (Objects.nonNull(openedFile)) {
+            updateMessage("Cataloging workspace of " + openedFile.getFileName());
+            importer.addWorkspaceHistory(openedFile);
+        }
+        updateMessage("Importing " + path.getFileName());
+        return importer.importFile(path, new ReadProgressListener() {
+            @Override
+            public void bytesRead(long bytesRead, long totalBytes) {
+                if (totalBytes > 0) {
+                    updateProgress(bytesRead, totalBytes);
+                }
+            }
+
+            @Override
+            public void recordsParsed(int recordsParsed, int totalRecords) {
+                updateMessage(String.format("Read %,d rows", recordsParsed));
+            }
+        }, batch -> Platform.runLater(() -> {
+            // batches that are read after the task is cancelled are dropped, so none are added after it's done
+            if (!isCancelled()) {
+                spendingList.addRecords(batch);
+            }
+        }));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ihor.spendingorganizer.controllers;
+
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.persistence.ReadProgressListener;
+import com.ihor.spendingorganizer.persistence.SnapshotCache;
+import com.ihor.spendingorganizer.persistence.SpendingListStores;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Represents a background task that opens SpendingList from a file, or from its cached snapshot,
+// reports bytes read and records parsed, and can be cancelled while reading
+public class OpenFileTask extends Task<SpendingList> {
+
+    private static final double BYTES_IN_MB = 1024 * 1024;
+    private final Path path;
+
+    public OpenFileTask(Path path) {
+        this.path = path;
+    }
+
+    // EFFECTS: returns SpendingList cached for the current state of file at path if there is one,
+    //          otherwise reads SpendingList from path, caches it, and returns it once it is fully built
+    @Override
+    protected SpendingList call() throws Exception {
+        updateMessage("Opening " + path.getFileName());
+        SnapshotCache cache = SnapshotCache.getDefault();
+        SnapshotCache.Key key = cache.keyOf(path);
+        Optional<SpendingList> cached = cache.get(key, new ReadProgressListener() {
+            @Override
+            public void bytesRead(long bytesRead, long totalBytes) {
+                updateProgress(bytesRead, totalBytes);
+                updateMessage(String.format("Checked %.1f of %.1f MB",
+                        bytesRead / BYTES_IN_MB, totalBytes / BYTES_IN_MB));
+            }
+        });
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        SpendingList spendingList = read();
+        try {
+            cache.put(key, spendingList);
+        } catch (IOException e) {
+            // the file is opened anyway, it just will be parsed again next time
+        }
+        return spendingList;
+    }
+
+    // EFFECTS: reads SpendingList from path,
+    //          progress is half of file read and half of records parsed
+    private SpendingList read() throws Exception {
+        return SpendingListStores.forPath(path).open(path, new ReadProgressListener() {
+            @Override
+            public void bytesRead(long bytesRead, long totalBytes) {
+                if (totalBytes > 0) {
+                    updateProgress(bytesRead, 2 * totalBytes);
+                    updateMessage(String.format("Read %.1f of %.1f MB",
+                            bytesRead / BYTES_IN_MB, totalBytes / BYTES_IN_MB));
+                }
+            }
+
+            @Override
+            public void recordsParsed(int recordsParsed, int totalRecords) {
+                if (totalRecords > 0) {
+                    updateProgress(totalRecords + recordsParsed, 2L * totalRecords);
+                    updateMessage(String.format("Parsed %,d of %,d records", recordsParsed, totalRecords));
+                }
+            }
+        });
+    }
+
+    public Path getPath() {
+        return path;
+    }
+}
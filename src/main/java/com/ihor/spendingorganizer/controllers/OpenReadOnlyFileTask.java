@@ -0,0 +1,158 @@
+package com.ihor.spendingorganizer.controllers;
+
+import com.ihor.spendingorganizer.model.OffHeapRecordStore;
+import com.ihor.spendingorganizer.model.SpendingTotals;
+import com.ihor.spendingorganizer.persistence.PagedRecordList;
+import com.ihor.spendingorganizer.persistence.ReadProgressListener;
+import com.ihor.spendingorganizer.persistence.StorageSettings;
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+// Represents a background task that opens records of a file read-only as a PagedRecordList,
+// and copies them page by page to an OffHeapRecordStore that charts of the file are grouped from,
+// reports bytes scanned while the file is indexed and records copied, and can be cancelled meanwhile,
+// records and their copy are closed however late the task is cancelled, so no scratch file is left behind
+public class OpenReadOnlyFileTask extends Task<PagedRecordList> {
+
+    private static final int PROGRESS_STEP = 64 * 1024;
+    private static final String SCRATCH_PREFIX = "records";
+    private static final String SCRATCH_SUFFIX = ".scratch";
+    private final Path path;
+    // Records and their copy once call has finished with them, null until then or once they're closed
+    private PagedRecordList records;
+    private OffHeapRecordStore recordStore;
+    private SpendingTotals totals;
+
+    public OpenReadOnlyFileTask(Path path) {
+        this.path = path;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns records of file at path that are loaded a page at a time,
+    //          with memory limit set by StorageSettings, once they are copied to recordStore and totaled,
+    //          progress is half of file indexed and half of records copied,
+    //          throws InterruptedIOException and closes both if task has been cancelled meanwhile
+    @Override
+    protected PagedRecordList call() throws IOException {
+        updateMessage("Indexing " + path.getFileName());
+        PagedRecordList records = PagedRecordList.open(path, StorageSettings.getPageCacheMaxBytes(),
+                new ReadProgressListener() {
+                    @Override
+                    public void bytesRead(long bytesRead, long totalBytes) {
+                        updateProgress(bytesRead, 2 * totalBytes);
+                    }
+                });
+        OffHeapRecordStore store;
+        try {
+            store = copyOffHeap(records);
+            totals = store.getTotals();
+        } catch (IOException | RuntimeException e) {
+            records.close();
+            throw e;
+        }
+        synchronized (this) {
+            if (isCancelled()) {
+                close(records, store);
+                throw new InterruptedIOException("Opening " + path.getFileName() + " was cancelled");
+            }
+            this.records = records;
+            this.recordStore = store;
+        }
+        return records;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes records and their copy if task is cancelled after call has finished with them,
+    //          in which case the task never succeeds, so nobody else would close them
+    @Override
+    protected synchronized void cancelled() {
+        super.cancelled();
+        if (Objects.nonNull(records)) {
+            close(records, recordStore);
+            records = null;
+            recordStore = null;
+        }
+    }
+
+    // EFFECTS: closes records and store, each of them even if the other one can't be closed
+    private static void close(PagedRecordList records, OffHeapRecordStore store) {
+        try {
+            records.close();
+        } catch (IOException e) {
+            // nothing is written to the file, so there's nothing to lose
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            // scratch file is deleted by deleteScratchFiles next time the app starts
+        }
+    }
+
+    // EFFECTS: deletes scratch files that were left in the cache directory, e.g., by a run of the app that crashed,
+    //          files that can't be deleted, e.g., because another running app still maps them, are left as they are
+    public static void deleteScratchFiles() {
+        Path directory = StorageSettings.getCacheDirectory();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> scratchFiles = Files.newDirectoryStream(directory,
+                SCRATCH_PREFIX + "*" + SCRATCH_SUFFIX)) {
+            for (Path scratchFile : scratchFiles) {
+                try {
+                    Files.deleteIfExists(scratchFile);
+                } catch (IOException e) {
+                    // it's tried again next time the app starts
+                }
+            }
+        } catch (IOException e) {
+            // cache directory can't be listed, scratch files are deleted next time
+        }
+    }
+
+    // EFFECTS: copies records to a new store in a scratch file of the cache directory,
+    //          records are read a page at a time, so only the few last pages are on the heap,
+    //          throws InterruptedIOException if task is cancelled meanwhile
+    private OffHeapRecordStore copyOffHeap(PagedRecordList records) throws IOException {
+        Path directory = StorageSettings.getCacheDirectory();
+        Files.createDirectories(directory);
+        OffHeapRecordStore store = new OffHeapRecordStore(
+                Files.createTempFile(directory, SCRATCH_PREFIX, SCRATCH_SUFFIX));
+        try {
+            for (int i = 0; i < records.size(); i++) {
+                if (i % PROGRESS_STEP == 0) {
+                    if (isCancelled()) {
+                        throw new InterruptedIOException("Opening " + path.getFileName() + " was cancelled");
+                    }
+                    updateProgress(records.size() + i, 2L * records.size());
+                    updateMessage(String.format("Copied %,d of %,d records", i, records.size()));
+                }
+                store.add(records.get(i));
+            }
+            return store;
+        } catch (IOException | RuntimeException e) {
+            store.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // REQUIRES: task has succeeded
+    public OffHeapRecordStore getRecordStore() {
+        return recordStore;
+    }
+
+    // REQUIRES: task has succeeded
+    // EFFECTS: returns totals of records of recordStore
+    public SpendingTotals getTotals() {
+        return totals;
+    }
+}
@@ -0,0 +1,27 @@
+package com.ihor.spendingorganizer.controllers;
+
+import javafx.animation.AnimationTimer;
+
+// Represents an action that can be requested many times, but is run at most once per animation pulse,
+// e.g., to apply a burst of model changes to the UI in one go instead of once per change
+class PulseCoalescer {
+
+    private final Runnable action;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            action.run();
+        }
+    };
+
+    PulseCoalescer(Runnable action) {
+        this.action = action;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs action on the next pulse, requests made before it runs are merged into this one
+    void request() {
+        timer.start();
+    }
+}
@@ -0,0 +1,44 @@
+package com.ihor.spendingorganizer.controllers;
+
+import com.ihor.spendingorganizer.model.OffHeapRecordStore;
+import com.ihor.spendingorganizer.model.SpendingTotals;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Represents the groupings of a chart of a file that is opened read-only, whose records are copied to store,
+// so they are grouped without being loaded to the heap; records of the file never change,
+// so whole months are taken from totals that are computed once, and custom periods are grouped from store
+// INVARIANT: totals are those of store
+class RecordStoreChartQueries implements ChartQueries {
+
+    private final OffHeapRecordStore store;
+    private final SpendingTotals totals;
+
+    RecordStoreChartQueries(OffHeapRecordStore store, SpendingTotals totals) {
+        this.store = store;
+        this.totals = totals;
+    }
+
+    @Override
+    public Supplier<Map<String, Double>> groupByCategory(LocalDate month) {
+        return () -> Collections.unmodifiableMap(totals.groupByCategory(month));
+    }
+
+    @Override
+    public Supplier<Map<String, Double>> groupByCategory(LocalDate from, LocalDate to) {
+        return () -> Collections.unmodifiableMap(store.groupByCategory(from, to));
+    }
+
+    @Override
+    public Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate month) {
+        return () -> Collections.unmodifiableMap(totals.groupByCategoryAndDate(month));
+    }
+
+    @Override
+    public Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate from, LocalDate to) {
+        return () -> Collections.unmodifiableMap(store.groupByCategoryAndDate(from, to));
+    }
+}
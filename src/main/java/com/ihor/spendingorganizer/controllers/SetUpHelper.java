@@ -1,27 +1,49 @@
 package com.ihor.spendingorganizer.controllers;
 
 import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.ComboBoxTableCell;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.util.Callback;
 import javafx.util.StringConverter;
+import javafx.util.converter.DefaultStringConverter;
 import javafx.util.converter.DoubleStringConverter;
 import com.ihor.spendingorganizer.model.Categories;
 import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.OffHeapRecordStore;
 import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.SpendingTotals;
 import com.ihor.spendingorganizer.model.exceptions.NameException;
 import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
-import com.ihor.spendingorganizer.persistence.JsonReader;
-import com.ihor.spendingorganizer.controllers.enums.SceneEnum;
-
+import com.ihor.spendingorganizer.persistence.ExportColumn;
+import com.ihor.spendingorganizer.persistence.ExportOptions;
+import com.ihor.spendingorganizer.persistence.PagedRecordList;
+import com.ihor.spendingorganizer.persistence.SpendingListStores;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 // Helper class that loads data to the GUI and formats GUI components in the main scene
 public class SetUpHelper {
@@ -32,6 +54,15 @@ public class SetUpHelper {
     protected final String monthFormat = "MMMM yyyy";
     protected final String prettyDateFormat = "MMM. dd, yyyy";
     protected final String standardDateFormat = "MM/dd/yyyy";
+    // Applies changes of spending list to the UI at most once per animation pulse
+    private final PulseCoalescer modelChangesUpdate = new PulseCoalescer(this::applyModelChanges);
+    private final InvalidationListener spendingListListener = o -> modelChanged();
+    // Sorting records table reorders records, which doesn't modify spending list but changes the saved file
+    private final ListChangeListener<Record> recordsListener = c -> modelChanged();
+    // Spending list that listeners were added to, null if there's none yet
+    private SpendingList boundSpendingList;
+    // true if spending list has changed since changes were last applied to the UI
+    private boolean isModelChanged;
 
     // Is used for all controllers apart from ui.controllers.Controller
     public SetUpHelper() {
@@ -47,62 +78,137 @@ public class SetUpHelper {
     void setUpUI() {
         try {
             readSpendingList();
-            addListeners();
-            bindDataWithComponents();
-            setUpUIComponents();
+            setUpSpendingList();
         } catch (NegativeAmountException | NameException e) {
             showErrorMessage("Couldn't initialize data: " + e.getMessage());
         }
     }
 
     // MODIFIES: cl
-    // EFFECTS: reads spending list from cl.currentFilePath
-    //          throws Exception if file is corrupted
-    private void readSpendingList() throws NegativeAmountException, NameException {
+    // EFFECTS: sets up ui with an already read spendingList and binds it with application data
+    void setUpUI(SpendingList spendingList) {
+        cl.spendingList = spendingList;
+        setUpSpendingList();
+    }
+
+    // MODIFIES: cl
+    // EFFECTS: sets up ui to show records of a file read-only, e.g., a file that is too large to be opened,
+    //          records table loads only the records it shows, and can't be edited or sorted,
+    //          categories of the file are shown in an empty spending list, so nothing can be added to the file,
+    //          charts of the file are grouped from recordStore, a copy of records that is kept off the heap
+    // REQUIRES: recordStore has records in the same order as records, totals are those of recordStore
+    void setUpReadOnlyUI(PagedRecordList records, OffHeapRecordStore recordStore, SpendingTotals totals) {
+        setUpUI(new SpendingList(records.getCategories()));
+        cl.pagedRecords = records;
+        cl.recordStore = recordStore;
+        cl.recordTotals = totals;
+        setEditable(false);
+        cl.recordTable.getSortOrder().clear();
+        cl.recordTable.setItems(records);
+        cl.filenameLabel.setText(parseFileName(cl.currentFilePath.get()) + " (read-only)");
+    }
+
+    // MODIFIES: cl
+    // EFFECTS: closes records of the file that is shown read-only and their copy if there is one,
+    //          closes window of their chart, and makes ui editable again
+    private void closePagedRecords() {
+        if (Objects.isNull(cl.pagedRecords)) {
+            return;
+        }
+        if (Objects.nonNull(cl.readOnlyChart)) {
+            cl.readOnlyChart.hide();
+        }
         try {
-            JsonReader reader = new JsonReader(cl.currentFilePath.get());
-            cl.spendingList = reader.read();
-        } catch (Exception e) {
-            showErrorMessage("Selected file is corrupted");
+            cl.pagedRecords.close();
+        } catch (IOException e) {
+            // nothing is written to the file, so there's nothing to lose
+        }
+        // closed even if the file couldn't be, so its scratch file is deleted
+        try {
+            cl.recordStore.close();
+        } catch (IOException e) {
+            // scratch file is deleted by OpenReadOnlyFileTask.deleteScratchFiles next time the app starts
         }
+        cl.pagedRecords = null;
+        cl.recordStore = null;
+        cl.recordTotals = null;
+        cl.readOnlyChart = null;
+        setEditable(true);
+    }
+
+    // MODIFIES: cl
+    // EFFECTS: enables or disables editing and sorting of records and categories, and the side pane
+    private void setEditable(boolean isEditable) {
+        cl.recordTable.setEditable(isEditable);
+        cl.categoriesTable.setEditable(isEditable);
+        cl.recordTable.getColumns().forEach(column -> column.setSortable(isEditable));
+        cl.sidePane.setDisable(!isEditable);
+    }
+
+    // MODIFIES: cl
+    // EFFECTS: binds cl.spendingList with the ui, and hands it over to the chart scene,
+    //          records of a file that was shown read-only are closed
+    private void setUpSpendingList() {
+        closePagedRecords();
+        cl.spendingListHolder.setSpendingList(cl.spendingList);
+        addSpendingListListeners();
+        bindDataWithComponents();
+        setUpUIComponents();
     }
 
     // MODIFIES: cl
-    // EFFECTS: adds listeners for categories, spending list, isChanged, and currentFilePath
-    //          to perform operations when they're changed
-    private void addListeners() {
-        addCategoriesListener();
-        addSpendingListListener();
+    // EFFECTS: adds listeners for isChanged and currentFilePath to perform operations when they're changed,
+    //          is called once, since these properties stay the same for all opened files
+    void addPropertyListeners() {
         addIsChangedListener();
         addFilePathListener();
+    }
 
+    // MODIFIES: cl
+    // EFFECTS: reads spending list from cl.currentFilePath
+    //          throws Exception if file is corrupted
+    private void readSpendingList() throws NegativeAmountException, NameException {
+        try {
+            Path path = Paths.get(cl.currentFilePath.get());
+            cl.spendingList = SpendingListStores.forPath(path).open(path);
+        } catch (Exception e) {
+            showErrorMessage("Selected file is corrupted");
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: Changes isChanged property when categories are added or removed
-    private void addCategoriesListener() {
-        cl.spendingList.getCategories().getCategories()
-                .addListener((ListChangeListener<Category>) c -> {
-                    repopulateCategoriesComboBox();
-                    cl.isChanged.set(true);
-                });
+    // EFFECTS: listens to changes of records and categories of cl.spendingList,
+    //          and stops listening to the spending list that was bound before
+    private void addSpendingListListeners() {
+        if (Objects.nonNull(boundSpendingList)) {
+            boundSpendingList.removeListener(spendingListListener);
+            boundSpendingList.getRecords().removeListener(recordsListener);
+        }
+        boundSpendingList = cl.spendingList;
+        boundSpendingList.addListener(spendingListListener);
+        boundSpendingList.getRecords().addListener(recordsListener);
+        isModelChanged = false;
     }
 
     // MODIFIES: this
-    // EFFECTS: changes isChanged property when records are added or removed,
-    //          if spendingList doesn't have records, disables possibility of switching to chart menu
-    //          and removes chart scene from sceneHolder
-    private void addSpendingListListener() {
-        cl.spendingList.getRecords()
-                .addListener((ListChangeListener<Record>) c -> {
-                    cl.isChanged.set(true);
-                    if (cl.spendingList.getRecords().isEmpty()) {
-                        cl.changeViewMenuItem.setDisable(true);
-                        cl.sceneHolder.getSceneMap().remove(SceneEnum.CHART);
-                    } else {
-                        cl.changeViewMenuItem.setDisable(false);
-                    }
-                });
+    // EFFECTS: schedules changes of spending list to be applied to the UI on the next pulse
+    private void modelChanged() {
+        isModelChanged = true;
+        modelChangesUpdate.request();
+    }
+
+    // MODIFIES: cl
+    // EFFECTS: applies all changes of spending list made since the last pulse to the UI:
+    //          changes isChanged property, updates categories combo box,
+    //          and if spendingList doesn't have records, disables possibility of switching to chart menu
+    private void applyModelChanges() {
+        if (!isModelChanged) {
+            return;
+        }
+        isModelChanged = false;
+        cl.isChanged.set(true);
+        cl.changeViewMenuItem.setDisable(cl.spendingList.getRecords().isEmpty());
+        updateCategoriesComboBox();
     }
 
     // MODIFIES: this
@@ -130,17 +236,41 @@ public class SetUpHelper {
     private void bindDataWithComponents() {
         populateRecordsTable();
         populateCategoriesTable();
-        repopulateCategoriesComboBox();
+        updateCategoriesComboBox();
     }
 
     // MODIFIES: cl
-    // EFFECTS: populates combobox with categories names,
-    //          sets first element of the combo box to the first element of categories
-    void repopulateCategoriesComboBox() {
-        cl.categoriesBoxAdd.getItems().clear();
-        cl.categoriesBoxAdd
-                .setItems(FXCollections.observableArrayList(cl.spendingList.getCategories().getCategoriesNames()));
-        cl.categoriesBoxAdd.getSelectionModel().selectFirst();
+    // EFFECTS: makes combobox show categories names by adding, removing or renaming only names that differ,
+    //          sets selection to the first category if selected category is gone
+    void updateCategoriesComboBox() {
+        List<String> names = cl.spendingList.getCategories().getCategoriesNames();
+        ObservableList<String> items = cl.categoriesBoxAdd.getItems();
+        if (!items.equals(names)) {
+            if (items.size() == names.size()) {
+                // categories were renamed
+                for (int i = 0; i < names.size(); i++) {
+                    if (!items.get(i).equals(names.get(i))) {
+                        items.set(i, names.get(i));
+                    }
+                }
+            } else {
+                Set<String> nameSet = new HashSet<>(names);
+                items.removeIf(n -> !nameSet.contains(n));
+                for (int i = 0; i < names.size(); i++) {
+                    if (i >= items.size() || !items.get(i).equals(names.get(i))) {
+                        items.add(i, names.get(i));
+                    }
+                }
+                if (!items.equals(names)) {
+                    // categories were reordered
+                    items.setAll(names);
+                }
+            }
+        }
+        String selected = cl.categoriesBoxAdd.getValue();
+        if (Objects.isNull(selected) || !items.contains(selected)) {
+            cl.categoriesBoxAdd.getSelectionModel().selectFirst();
+        }
     }
 
     // MODIFIES: cl
@@ -225,21 +355,39 @@ public class SetUpHelper {
     }
 
     // MODIFIES: cl
-    // EFFECTS: colors records in records table that have default category
+    // EFFECTS: colors records in records table that have default category,
+    //          each row follows category of its record, so it's recolored as soon as the category changes
     private void colorRecordsWithDefaultCategory() {
         cl.recordTable.setRowFactory(callable -> new TableRow<Record>() {
+            private final ChangeListener<Category> categoryListener = (o, oldCategory, category) -> colorRow();
+            // record whose category this row listens to
+            private Record observed;
+
             @Override
             protected void updateItem(Record record, boolean empty) {
                 super.updateItem(record, empty);
-                if (Objects.nonNull(record)
-                        && record.getCategory().equals(cl.spendingList.getCategories().getDefaultCategory())) {
+                Record item = empty ? null : record;
+                if (observed != item) {
+                    if (Objects.nonNull(observed)) {
+                        observed.categoryProperty().removeListener(categoryListener);
+                    }
+                    observed = item;
+                    if (Objects.nonNull(observed)) {
+                        observed.categoryProperty().addListener(categoryListener);
+                    }
+                }
+                colorRow();
+            }
+
+            private void colorRow() {
+                if (Objects.nonNull(observed)
+                        && observed.getCategory().equals(cl.spendingList.getCategories().getDefaultCategory())) {
                     setStyle(defaultCellStyle);
                 } else {
                     setStyle("");
                 }
             }
         });
-        cl.categoriesTable.refresh();
     }
 
     // MODIFIES: cl
@@ -280,9 +428,9 @@ public class SetUpHelper {
     // MODIFIES: cl
     // EFFECTS: makes cells in records and categories tables editable
     private void makeCellsEditable() {
-        cl.titleColumn.setCellFactory(TextFieldTableCell.forTableColumn());
-        cl.amountColumn.setCellFactory(TextFieldTableCell.forTableColumn(new DoubleStringConverter()));
-        cl.categoryColumn.setCellFactory(ComboBoxTableCell.forTableColumn(new StringConverter<Category>() {
+        cl.titleColumn.setCellFactory(textFieldCells(new DefaultStringConverter()));
+        cl.amountColumn.setCellFactory(textFieldCells(new DoubleStringConverter()));
+        cl.categoryColumn.setCellFactory(categoryCells(new StringConverter<Category>() {
             @Override
             public String toString(Category object) {
                 return object.getName();
@@ -301,7 +449,100 @@ public class SetUpHelper {
             }
         }, cl.spendingList.getCategories().getCategories()));
 
-        cl.categoriesColumn.setCellFactory(TextFieldTableCell.forTableColumn());
+        cl.categoriesColumn.setCellFactory(textFieldCells(new DefaultStringConverter()));
+    }
+
+    // EFFECTS: returns factory of editable text cells that, once an edit is committed,
+    //          show the value their row really has, so an edit that was rejected is undone in that cell only
+    private <S, T> Callback<TableColumn<S, T>, TableCell<S, T>> textFieldCells(StringConverter<T> converter) {
+        return column -> new TextFieldTableCell<>(converter) {
+            @Override
+            public void commitEdit(T newValue) {
+                super.commitEdit(newValue);
+                T value = getTableColumn().getCellData(getIndex());
+                if (!Objects.equals(value, getItem())) {
+                    updateItem(value, false);
+                }
+            }
+        };
+    }
+
+    // EFFECTS: returns factory of editable category cells that follow name of their category,
+    //          so renaming a category updates only cells that show it
+    private Callback<TableColumn<Record, Category>, TableCell<Record, Category>> categoryCells(
+            StringConverter<Category> converter, ObservableList<Category> categories) {
+        return column -> new ComboBoxTableCell<>(converter, categories) {
+            private final ChangeListener<String> nameListener = (o, oldName, name) -> updateItem(getItem(), isEmpty());
+            // category whose name this cell listens to
+            private Category observed;
+
+            @Override
+            public void updateItem(Category category, boolean empty) {
+                super.updateItem(category, empty);
+                Category item = empty ? null : category;
+                if (observed != item) {
+                    if (Objects.nonNull(observed)) {
+                        observed.nameProperty().removeListener(nameListener);
+                    }
+                    observed = item;
+                    if (Objects.nonNull(observed)) {
+                        observed.nameProperty().addListener(nameListener);
+                    }
+                }
+            }
+        };
+    }
+
+    // EFFECTS: shows a dialog where user chooses date range, categories and columns of an export,
+    //          returns chosen options, or nothing if user cancelled the dialog;
+    //          no chosen categories means all categories, and at least one column has to be chosen
+    Optional<ExportOptions> showExportOptionsDialog(Categories categories) {
+        DatePicker from = new DatePicker();
+        DatePicker to = new DatePicker();
+        ListView<String> categoryNames = new ListView<>(
+                FXCollections.observableArrayList(categories.getCategoriesNames()));
+        categoryNames.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        categoryNames.setPrefHeight(150);
+        Map<ExportColumn, CheckBox> columns = new EnumMap<>(ExportColumn.class);
+        HBox columnsBox = new HBox(10);
+        for (ExportColumn column : ExportColumn.values()) {
+            CheckBox checkBox = new CheckBox(column.getName());
+            checkBox.setSelected(true);
+            columns.put(column, checkBox);
+            columnsBox.getChildren().add(checkBox);
+        }
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.addRow(0, new Label("From"), from);
+        grid.addRow(1, new Label("To"), to);
+        grid.addRow(2, new Label("Categories"), categoryNames);
+        grid.addRow(3, new Label("Columns"), columnsBox);
+
+        Dialog<ExportOptions> dialog = new Dialog<>();
+        dialog.setTitle("Export");
+        dialog.setHeaderText("Leave dates empty to export all dates, and select no categories to export all of them");
+        dialog.getDialogPane().setContent(grid);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        Node okButton = dialog.getDialogPane().lookupButton(ButtonType.OK);
+        InvalidationListener noColumnsListener = o -> okButton.setDisable(
+                columns.values().stream().noneMatch(CheckBox::isSelected));
+        columns.values().forEach(c -> c.selectedProperty().addListener(noColumnsListener));
+        dialog.setResultConverter(button -> {
+            if (button != ButtonType.OK) {
+                return null;
+            }
+            ExportOptions options = new ExportOptions();
+            options.setDateRange(from.getValue(), to.getValue());
+            options.setCategoryNames(categoryNames.getSelectionModel().getSelectedItems());
+            options.setColumns(columns.entrySet().stream()
+                    .filter(e -> e.getValue().isSelected())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList()));
+            return options;
+        });
+        return dialog.showAndWait();
     }
 
     // EFFECTS: returns a filename from given filepath
@@ -323,4 +564,27 @@ public class SetUpHelper {
         alert.setHeaderText(message);
         alert.showAndWait();
     }
-}
\ No newline at end of file
+
+    // EFFECTS: asks user how to open a large file named fileName that has bytes,
+    //          returns true if they choose to open it read-only, which is the default button,
+    //          false if they choose to load it fully, so it can be edited, or nothing if they cancel
+    Optional<Boolean> showLargeFileDialog(String fileName, long bytes) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Large file");
+        alert.setHeaderText(String.format("%s is %,d MB", fileName, bytes / (1024 * 1024)));
+        alert.setContentText("Open it read-only to load only the records being looked at, "
+                + "or load it fully to edit it");
+        ButtonType readOnly = new ButtonType("Open Read-Only", ButtonBar.ButtonData.OK_DONE);
+        ButtonType loadFully = new ButtonType("Load Fully", ButtonBar.ButtonData.OTHER);
+        ButtonType cancel = new ButtonType("Cancel", ButtonBar.ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(readOnly, loadFully, cancel);
+        return alert.showAndWait().filter(button -> button != cancel).map(button -> button == readOnly);
+    }
+
+    // EFFECTS: shows a pop-up information window with a given message
+    void showInfoMessage(String message) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setHeaderText(message);
+        alert.showAndWait();
+    }
+}
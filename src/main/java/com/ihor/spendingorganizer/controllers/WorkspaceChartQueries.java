@@ -0,0 +1,53 @@
+package com.ihor.spendingorganizer.controllers;
+
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.persistence.WorkspaceCatalog;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Represents the groupings of a workspace chart, which are summed up from totals of all files of catalog,
+// so none of the files is opened; catalog only has totals of whole months,
+// so a custom period covers every month that overlaps it
+// INVARIANT: catalog isn't refreshed while it is queried
+class WorkspaceChartQueries implements ChartQueries {
+
+    private final WorkspaceCatalog catalog;
+
+    WorkspaceChartQueries(WorkspaceCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public Supplier<Map<String, Double>> groupByCategory(LocalDate month) {
+        return groupByCategory(from(month), to(month));
+    }
+
+    @Override
+    public Supplier<Map<String, Double>> groupByCategory(LocalDate from, LocalDate to) {
+        return () -> Collections.unmodifiableMap(
+                SpendingList.sortMapByValue(catalog.groupByCategory(from.withDayOfMonth(1), to)));
+    }
+
+    @Override
+    public Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate month) {
+        return groupByCategoryAndDate(from(month), to(month));
+    }
+
+    @Override
+    public Supplier<Map<String, Map<LocalDate, Double>>> groupByCategoryAndDate(LocalDate from, LocalDate to) {
+        return () -> Collections.unmodifiableMap(catalog.groupByCategoryAndDate(from.withDayOfMonth(1), to));
+    }
+
+    // EFFECTS: returns first day of month, or LocalDate.MIN if month is LocalDate.MIN, i.e., all months
+    private LocalDate from(LocalDate month) {
+        return month.equals(LocalDate.MIN) ? LocalDate.MIN : month.withDayOfMonth(1);
+    }
+
+    // EFFECTS: returns first day of month, or LocalDate.MAX if month is LocalDate.MIN, i.e., all months
+    private LocalDate to(LocalDate month) {
+        return month.equals(LocalDate.MIN) ? LocalDate.MAX : month.withDayOfMonth(1);
+    }
+}
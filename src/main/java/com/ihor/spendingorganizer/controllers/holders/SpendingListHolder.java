@@ -1,11 +1,14 @@
 package com.ihor.spendingorganizer.controllers.holders;
 
 import com.ihor.spendingorganizer.model.SpendingList;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
 
-// Represents a Singleton holder of SpendingList
+// Represents a Singleton holder of SpendingList,
+// scenes that show the spending list listen to spendingListProperty to follow the currently opened one
 public final class SpendingListHolder {
 
-    private SpendingList spendingList;
+    private final ObjectProperty<SpendingList> spendingList = new SimpleObjectProperty<>();
     private static final SpendingListHolder INSTANCE = new SpendingListHolder();
 
     private SpendingListHolder() {
@@ -17,10 +20,14 @@ public final class SpendingListHolder {
     }
 
     public SpendingList getSpendingList() {
-        return spendingList;
+        return spendingList.get();
     }
 
     public void setSpendingList(SpendingList spendingList) {
-        this.spendingList = spendingList;
+        this.spendingList.set(spendingList);
+    }
+
+    public ObjectProperty<SpendingList> spendingListProperty() {
+        return spendingList;
     }
 }
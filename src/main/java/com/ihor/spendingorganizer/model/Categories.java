@@ -8,6 +8,7 @@ import org.json.JSONArray;
 
 import java.util.List;
 import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 // Represents categories user can choose from
@@ -15,16 +16,38 @@ import java.util.stream.Collectors;
 //            there's only 1 default category
 public class Categories implements WritableArray {
 
+    // Id of the next category that is created in these categories, or in categories that share ids with them,
+    // so ids are unique among categories that records of one spending list can refer to
+    private final AtomicInteger nextId;
+
     private Category defaultCategory;
     private final ObservableList<Category> categories;
     private final EventLog log = EventLog.getInstance();
 
     public Categories() throws NameException {
+        this(new AtomicInteger());
+    }
+
+    // EFFECTS: creates categories whose ids continue ids of idSource, e.g., for categories that are created
+    //          on another thread and are added to idSource later, so they never get an id of a category of idSource
+    public Categories(Categories idSource) throws NameException {
+        this(idSource.nextId);
+    }
+
+    private Categories(AtomicInteger nextId) throws NameException {
+        this.nextId = nextId;
         this.categories = FXCollections.observableArrayList();
         defaultCategory = new Category("default", this, true, true);
         log.logEvent(new Event("New categories list created: " + this));
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns a new id for a category that is being created in these categories,
+    //          ids start from 0 and grow by 1, so they can index arrays
+    int nextId() {
+        return nextId.getAndIncrement();
+    }
+
     // MODIFIES: this
     // EFFECTS: adds category to the categories if category isn't already there
     public void add(Category category) {
@@ -14,6 +14,9 @@ public class Category implements WritableObject {
     private final SimpleStringProperty name;
     private final SimpleBooleanProperty isShown;
     private final boolean isDefault;
+    // Never changes, so it can key aggregations while the name is being edited,
+    // it's unique only among categories that share ids with categories this category is created in
+    private final int id;
     private final EventLog log = EventLog.getInstance();
 
     public Category(String name, Categories categories) throws NameException {
@@ -23,6 +26,7 @@ public class Category implements WritableObject {
         this.name = new SimpleStringProperty(name.trim());
         this.isShown = new SimpleBooleanProperty(true);
         this.isDefault = false;
+        this.id = categories.nextId();
         categories.add(this);
     }
 
@@ -35,9 +39,14 @@ public class Category implements WritableObject {
         this.name = new SimpleStringProperty(name.trim());
         this.isShown = new SimpleBooleanProperty(isShown);
         this.isDefault = isDefault;
+        this.id = categories.nextId();
         categories.add(this);
     }
 
+    public int getId() {
+        return id;
+    }
+
     public String getName() {
         return name.get();
     }
@@ -111,6 +120,8 @@ public class Category implements WritableObject {
         return name.get().equals(category.name.get());
     }
 
+    // name can be changed, which changes hash code, so collections that are keyed by categories
+    // compare them by identity or by id instead
     @Override
     public int hashCode() {
         return name.get().hashCode();
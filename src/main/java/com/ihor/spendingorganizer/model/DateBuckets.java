@@ -0,0 +1,102 @@
+package com.ihor.spendingorganizer.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+// Represents buckets of consecutive months that monthly totals are summed up into before they are plotted,
+// so a chart has at most as many bars as fit into its width no matter how many months there are;
+// buckets are months, quarters, years, or spans of several years, aligned to the calendar,
+// and sums of buckets are exact sums of their months
+public class DateBuckets {
+    // Spans of buckets in months, from the finest to the coarsest, spans of years continue as 20, 50, 100, ...
+    private static final int[] SPANS = {1, 3, 12, 24, 60, 120};
+
+    private final int monthsPerBucket;
+
+    private DateBuckets(int monthsPerBucket) {
+        this.monthsPerBucket = monthsPerBucket;
+    }
+
+    // REQUIRES: minBucketWidth > 0
+    // EFFECTS: returns the finest buckets that let months from first to last fit into width,
+    //          given that each bucket takes at least minBucketWidth
+    public static DateBuckets forWidth(LocalDate first, LocalDate last, double width, double minBucketWidth) {
+        long maxBuckets = Math.max(1, (long) (width / minBucketWidth));
+        int span = 1;
+        while (bucketCount(first, last, span) > maxBuckets) {
+            span = nextSpan(span);
+        }
+        return new DateBuckets(span);
+    }
+
+    // EFFECTS: returns span of buckets that are the next coarser after buckets of span months
+    private static int nextSpan(int span) {
+        for (int s : SPANS) {
+            if (s > span) {
+                return s;
+            }
+        }
+        int years = span / 12;
+        return 12 * (String.valueOf(years).startsWith("2") ? years * 5 / 2 : years * 2);
+    }
+
+    // EFFECTS: returns buckets of monthsPerBucket months
+    // REQUIRES: monthsPerBucket is 1, 3, or a multiple of 12
+    public static DateBuckets of(int monthsPerBucket) {
+        return new DateBuckets(monthsPerBucket);
+    }
+
+    // EFFECTS: returns number of buckets of span months that months from first to last fall into
+    private static long bucketCount(LocalDate first, LocalDate last, int span) {
+        return Math.floorDiv(monthIndex(last), span) - Math.floorDiv(monthIndex(first), span) + 1;
+    }
+
+    private static long monthIndex(LocalDate date) {
+        return date.getYear() * 12L + date.getMonthValue() - 1;
+    }
+
+    public int getMonthsPerBucket() {
+        return monthsPerBucket;
+    }
+
+    // EFFECTS: returns first day of the bucket that date falls into
+    public LocalDate bucketOf(LocalDate date) {
+        long index = Math.floorDiv(monthIndex(date), monthsPerBucket) * monthsPerBucket;
+        return LocalDate.of((int) Math.floorDiv(index, 12), Math.floorMod(index, 12) + 1, 1);
+    }
+
+    // EFFECTS: returns buckets that dates fall into, sorted by date (from older to newer)
+    public List<LocalDate> bucketsOf(Collection<LocalDate> dates) {
+        SortedSet<LocalDate> buckets = new TreeSet<>();
+        dates.forEach(d -> buckets.add(bucketOf(d)));
+        return new ArrayList<>(buckets);
+    }
+
+    // EFFECTS: returns map with months of each category summed up into buckets, i.e.,
+    //          {category: {first day of bucket: sum of amounts of its months}},
+    //          categories keep their order, and buckets are sorted by date (from older to newer)
+    public Map<String, Map<LocalDate, Double>> sum(Map<String, Map<LocalDate, Double>> map) {
+        Map<String, Map<LocalDate, Double>> result = new LinkedHashMap<>();
+        map.forEach((category, byMonth) -> {
+            Map<LocalDate, Double> byBucket = new TreeMap<>();
+            byMonth.forEach((month, amount) -> byBucket.merge(bucketOf(month), amount, Double::sum));
+            result.put(category, byBucket);
+        });
+        return result;
+    }
+
+    // EFFECTS: returns label of bucket, months are formatted with monthFormatter,
+    //          quarters as "Q1 2021", years as "2021" and spans of years as "2020-2024"
+    public String label(LocalDate bucket, DateTimeFormatter monthFormatter) {
+        if (monthsPerBucket == 1) {
+            return monthFormatter.format(bucket);
+        } else if (monthsPerBucket == 3) {
+            return "Q" + ((bucket.getMonthValue() - 1) / 3 + 1) + " " + bucket.getYear();
+        } else if (monthsPerBucket == 12) {
+            return String.valueOf(bucket.getYear());
+        } else {
+            return bucket.getYear() + "-" + (bucket.getYear() + monthsPerBucket / 12 - 1);
+        }
+    }
+}
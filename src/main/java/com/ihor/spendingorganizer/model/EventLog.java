@@ -10,13 +10,16 @@ import java.util.Iterator;
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
  *
+ * Events can be logged from several threads at once, e.g., by files
+ * that are read in the background, so the log is synchronized.
+ *
  * Taken from UBC CPSC 210 Logging Implementation
  */
 public class EventLog implements Iterable<Event> {
     /**
      * the only EventLog in the system (Singleton Design Pattern)
      */
-    private static EventLog theLog;
+    private static final EventLog theLog = new EventLog();
     private final Collection<Event> events;
 
     /**
@@ -28,16 +31,13 @@ public class EventLog implements Iterable<Event> {
     }
 
     /**
-     * Gets instance of EventLog - creates it
-     * if it doesn't already exist.
+     * Gets instance of EventLog, which is created eagerly,
+     * so threads that ask for it at once get the same instance.
      * (Singleton Design Pattern)
      *
      * @return instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
-        }
         return theLog;
     }
 
@@ -46,20 +46,23 @@ public class EventLog implements Iterable<Event> {
      *
      * @param e the event to be added
      */
-    public void logEvent(Event e) {
+    public synchronized void logEvent(Event e) {
         events.add(e);
     }
 
     /**
      * Clears the event log and logs the event.
      */
-    public void clear() {
+    public synchronized void clear() {
         events.clear();
         logEvent(new Event("Event log cleared."));
     }
 
+    /**
+     * Iterates over a copy of the events, so events can be logged meanwhile.
+     */
     @Override
-    public Iterator<Event> iterator() {
-        return events.iterator();
+    public synchronized Iterator<Event> iterator() {
+        return new ArrayList<>(events).iterator();
     }
 }
@@ -0,0 +1,302 @@
+package com.ihor.spendingorganizer.model;
+
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+// Represents records kept outside of the Java heap, e.g., to analyze an archive of tens of millions of records
+// without long GC pauses, each record is a fixed-width slot with its amount, time, category id and title code,
+// slots are in direct buffers, or in a memory-mapped scratch file that is deleted once the store is closed,
+// categories and distinct titles stay on the heap, and records are materialized only when they are asked for;
+// records of a file can be added from a PagedRecordList, so they are never all on the heap at once;
+// records are added by one thread before the store is queried, queries and close are synchronized,
+// so the store can be closed while another thread is still querying it
+public class OffHeapRecordStore implements AutoCloseable {
+    private static final int AMOUNT = 0;
+    private static final int EPOCH_SECOND = 8;
+    private static final int NANO = 16;
+    private static final int CATEGORY_ID = 20;
+    private static final int TITLE_CODE = 24;
+    static final int SLOT_BYTES = 28;
+    static final int CHUNK_SLOTS = 64 * 1024;
+    private static final int CHUNK_BYTES = CHUNK_SLOTS * SLOT_BYTES;
+    private static final int SECONDS_IN_DAY = 24 * 60 * 60;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final List<Category> categories = new ArrayList<>();
+    private final Map<Category, Integer> categoryIds = new IdentityHashMap<>();
+    private final TitleDictionary titles = new TitleDictionary();
+    // null if slots are in direct buffers
+    private final FileChannel scratch;
+    private final Path scratchFile;
+    private int size;
+
+    // EFFECTS: creates an empty store that keeps records in direct buffers
+    public OffHeapRecordStore() {
+        this.scratch = null;
+        this.scratchFile = null;
+    }
+
+    // EFFECTS: creates an empty store that keeps records in scratchFile mapped to memory,
+    //          so they don't count against the limit of direct buffers, scratchFile is overwritten,
+    //          throws IOException if scratchFile can't be created
+    public OffHeapRecordStore(Path scratchFile) throws IOException {
+        this.scratchFile = scratchFile;
+        this.scratch = FileChannel.open(scratchFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies record into a new slot at the end of this store
+    // INVARIANT: record is valid
+    public void add(Record record) {
+        if (size == chunks.size() * CHUNK_SLOTS) {
+            chunks.add(allocateChunk());
+        }
+        ByteBuffer chunk = chunks.get(size / CHUNK_SLOTS);
+        int slot = (size % CHUNK_SLOTS) * SLOT_BYTES;
+        LocalDateTime timeAdded = record.getTimeAdded();
+        chunk.putDouble(slot + AMOUNT, record.getAmount());
+        chunk.putLong(slot + EPOCH_SECOND, timeAdded.toEpochSecond(ZoneOffset.UTC));
+        chunk.putInt(slot + NANO, timeAdded.getNano());
+        chunk.putInt(slot + CATEGORY_ID, categoryId(record.getCategory()));
+        chunk.putInt(slot + TITLE_CODE, titles.intern(record.getTitle()));
+        size++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: copies records into new slots at the end of this store, keeping their order
+    public void addAll(Iterable<Record> records) {
+        for (Record r : records) {
+            add(r);
+        }
+    }
+
+    // EFFECTS: returns a new record with values of slot at index
+    public Record get(int index) {
+        Objects.checkIndex(index, size);
+        try {
+            return new Record(titles.getTitle(getInt(index, TITLE_CODE)), getAmount(index), getCategory(index),
+                    LocalDateTime.ofEpochSecond(getLong(index, EPOCH_SECOND), getInt(index, NANO), ZoneOffset.UTC));
+        } catch (NameException | NegativeAmountException e) {
+            // slots are copied from valid records
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // REQUIRES: 0 <= index < size()
+    public double getAmount(int index) {
+        return chunks.get(index / CHUNK_SLOTS).getDouble((index % CHUNK_SLOTS) * SLOT_BYTES + AMOUNT);
+    }
+
+    // REQUIRES: 0 <= index < size()
+    public Category getCategory(int index) {
+        return categories.get(getInt(index, CATEGORY_ID));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns distinct categories of records in order of their ids
+    public List<Category> getCategories() {
+        return new ArrayList<>(categories);
+    }
+
+    // EFFECTS: returns totals of records per category and month, same as SpendingTotals.of,
+    //          records are summed up in primitive arrays, so no objects are created per record
+    public synchronized SpendingTotals getTotals() {
+        int firstMonth = Integer.MAX_VALUE;
+        int lastMonth = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int month = monthIndex(getLong(i, EPOCH_SECOND));
+            firstMonth = Math.min(firstMonth, month);
+            lastMonth = Math.max(lastMonth, month);
+        }
+        SpendingTotals totals = new SpendingTotals();
+        if (size == 0) {
+            return totals;
+        }
+        int months = lastMonth - firstMonth + 1;
+        double[] sums = new double[categories.size() * months];
+        int[] counts = new int[sums.length];
+        for (int i = 0; i < size; i++) {
+            int cell = getInt(i, CATEGORY_ID) * months + monthIndex(getLong(i, EPOCH_SECOND)) - firstMonth;
+            sums[cell] += getAmount(i);
+            counts[cell]++;
+        }
+        for (int cell = 0; cell < sums.length; cell++) {
+            if (counts[cell] > 0) {
+                totals.add(categories.get(cell / months), monthOf(firstMonth + cell % months),
+                        sums[cell], counts[cell]);
+            }
+        }
+        return totals;
+    }
+
+    // EFFECTS: same as SpendingList.groupByCategory(LocalDate from, LocalDate to) for records of this store,
+    //          records are summed up in a primitive array, so no objects are created per record
+    public synchronized Map<String, Double> groupByCategory(LocalDate from, LocalDate to) {
+        long fromSecond = from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.atTime(LocalTime.MAX).toEpochSecond(ZoneOffset.UTC);
+        double[] sums = new double[categories.size()];
+        boolean[] isPresent = new boolean[sums.length];
+        for (int i = 0; i < size; i++) {
+            if (isInRange(i, fromSecond, toSecond)) {
+                int id = getInt(i, CATEGORY_ID);
+                sums[id] += getAmount(i);
+                isPresent[id] = true;
+            }
+        }
+        Map<String, Double> map = new HashMap<>();
+        for (int id = 0; id < sums.length; id++) {
+            if (isPresent[id]) {
+                map.merge(categories.get(id).getName(), sums[id], Double::sum);
+            }
+        }
+        return map.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+    }
+
+    // EFFECTS: same as SpendingList.groupByCategoryAndDate(LocalDate from, LocalDate to) for records of this store,
+    //          records are summed up in primitive arrays, so no objects are created per record
+    public synchronized Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(LocalDate from, LocalDate to) {
+        long fromSecond = from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.atTime(LocalTime.MAX).toEpochSecond(ZoneOffset.UTC);
+        int firstMonth = Integer.MAX_VALUE;
+        int lastMonth = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (isInRange(i, fromSecond, toSecond)) {
+                int month = monthIndex(getLong(i, EPOCH_SECOND));
+                firstMonth = Math.min(firstMonth, month);
+                lastMonth = Math.max(lastMonth, month);
+            }
+        }
+        Map<String, Map<LocalDate, Double>> result = new LinkedHashMap<>();
+        if (firstMonth > lastMonth) {
+            return result;
+        }
+        int months = lastMonth - firstMonth + 1;
+        double[] sums = new double[categories.size() * months];
+        boolean[] isPresent = new boolean[sums.length];
+        for (int i = 0; i < size; i++) {
+            if (isInRange(i, fromSecond, toSecond)) {
+                int cell = getInt(i, CATEGORY_ID) * months + monthIndex(getLong(i, EPOCH_SECOND)) - firstMonth;
+                sums[cell] += getAmount(i);
+                isPresent[cell] = true;
+            }
+        }
+        for (int cell = 0; cell < sums.length; cell++) {
+            if (isPresent[cell]) {
+                result.computeIfAbsent(categories.get(cell / months).getName(), n -> new HashMap<>())
+                        .merge(monthOf(firstMonth + cell % months), sums[cell], Double::sum);
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns true if record at index was added in the range SpendingList groups records of,
+    //          i.e., strictly after fromSecond and strictly before the last nanosecond of toSecond
+    private boolean isInRange(int index, long fromSecond, long toSecond) {
+        long second = getLong(index, EPOCH_SECOND);
+        int nano = getInt(index, NANO);
+        boolean isAfterFrom = second > fromSecond || (second == fromSecond && nano > 0);
+        boolean isBeforeTo = second < toSecond || (second == toSecond && nano < LocalTime.MAX.getNano());
+        return isAfterFrom && isBeforeTo;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns id of category, giving it the next id if it doesn't have one yet
+    private int categoryId(Category category) {
+        Integer id = categoryIds.get(category);
+        if (Objects.isNull(id)) {
+            id = categories.size();
+            categories.add(category);
+            categoryIds.put(category, id);
+        }
+        return id;
+    }
+
+    // EFFECTS: returns a new chunk of CHUNK_SLOTS slots
+    private ByteBuffer allocateChunk() {
+        if (Objects.isNull(scratch)) {
+            return ByteBuffer.allocateDirect(CHUNK_BYTES);
+        }
+        try {
+            return scratch.map(FileChannel.MapMode.READ_WRITE, (long) chunks.size() * CHUNK_BYTES, CHUNK_BYTES);
+        } catch (IOException e) {
+            throw new IllegalStateException("Couldn't extend scratch file " + scratchFile, e);
+        }
+    }
+
+    private int getInt(int index, int field) {
+        return chunks.get(index / CHUNK_SLOTS).getInt((index % CHUNK_SLOTS) * SLOT_BYTES + field);
+    }
+
+    private long getLong(int index, int field) {
+        return chunks.get(index / CHUNK_SLOTS).getLong((index % CHUNK_SLOTS) * SLOT_BYTES + field);
+    }
+
+    // EFFECTS: returns year * 12 + month - 1 of UTC epochSecond, computed without creating date objects
+    // Implementation is based on days_from_civil/civil_from_days by Howard Hinnant
+    static int monthIndex(long epochSecond) {
+        long z = Math.floorDiv(epochSecond, SECONDS_IN_DAY) + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 12 + month - 1);
+    }
+
+    // EFFECTS: returns first day of month with monthIndex, i.e., year * 12 + month - 1
+    private static LocalDate monthOf(int monthIndex) {
+        return LocalDate.of(Math.floorDiv(monthIndex, 12), Math.floorMod(monthIndex, 12) + 1, 1);
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: drops all records and deletes the scratch file if there is one,
+    //          mapped memory is released once the chunks are garbage collected,
+    //          scratch file that can't be deleted yet, e.g., on Windows, where a file can't be deleted
+    //          while it is mapped, is deleted when the JVM exits instead,
+    //          throws IOException if scratch file can't be closed, it is still deleted then
+    public synchronized void close() throws IOException {
+        chunks.clear();
+        size = 0;
+        if (Objects.isNull(scratch)) {
+            return;
+        }
+        try {
+            scratch.close();
+        } finally {
+            try {
+                Files.deleteIfExists(scratchFile);
+            } catch (IOException e) {
+                scratchFile.toFile().deleteOnExit();
+            }
+        }
+    }
+}
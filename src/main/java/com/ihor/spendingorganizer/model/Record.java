@@ -9,25 +9,38 @@ import javafx.beans.property.SimpleStringProperty;
 import org.json.JSONObject;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
 import java.util.StringJoiner;
 
 // Represents a financial record where user stores their spending
 public class Record implements WritableObject {
 
-    private final SimpleStringProperty title;
-    private final SimpleDoubleProperty amount;
-    private final SimpleObjectProperty<Category> category;
-    private final SimpleObjectProperty<LocalDateTime> timeAdded;
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private String title;
+    private double amount;
+    private Category category;
+    private LocalDateTime timeAdded;
+    // Properties are created only once they are asked for, e.g., by a table row that shows this record,
+    // while a property exists, it holds the value of its field
+    private SimpleStringProperty titleProperty;
+    private SimpleDoubleProperty amountProperty;
+    private SimpleObjectProperty<Category> categoryProperty;
+    private SimpleObjectProperty<LocalDateTime> timeAddedProperty;
     private final EventLog log = EventLog.getInstance();
+    // SpendingList this record was last added to, it is notified when this record changes
+    private SpendingList owner;
+    // Code of title in the TitleDictionary of owner
+    private int titleCode = -1;
 
     // REQUIRED: used only while reading from Json file and testing,
     // EFFECTS: creates a new record with timeAdded set to now
     // INVARIANT: all the fields are set immediately after using this constructor
     public Record() {
-        this.timeAdded = new SimpleObjectProperty<>(LocalDateTime.now());
-        this.title = new SimpleStringProperty("");
-        this.amount = new SimpleDoubleProperty(0);
-        this.category = new SimpleObjectProperty<>(null);
+        this.timeAdded = LocalDateTime.now();
+        this.title = "";
     }
 
     // EFFECTS: creates a new record with trimmed title, amount, category,
@@ -36,6 +49,15 @@ public class Record implements WritableObject {
     //          throws NegativeAmountException if amount < 0
     public Record(String title, double amount, Category category) throws NameException,
             NegativeAmountException {
+        this(title, amount, category, LocalDateTime.now());
+    }
+
+    // EFFECTS: creates a new record with trimmed title, amount, category and timeAdded,
+    //          nothing is logged, so it can be used to materialize many records from a file,
+    //          throws NameException if title is blank
+    //          throws NegativeAmountException if amount < 0
+    public Record(String title, double amount, Category category, LocalDateTime timeAdded) throws NameException,
+            NegativeAmountException {
         String t = title.trim();
         if (t.isBlank()) {
             throw new NameException("title");
@@ -43,10 +65,10 @@ public class Record implements WritableObject {
         if (amount < 0) {
             throw new NegativeAmountException();
         }
-        this.title = new SimpleStringProperty(t);
-        this.amount = new SimpleDoubleProperty(amount);
-        this.category = new SimpleObjectProperty<>(category);
-        this.timeAdded = new SimpleObjectProperty<>(LocalDateTime.now());
+        this.title = t;
+        this.amount = amount;
+        this.category = category;
+        this.timeAdded = timeAdded;
     }
 
     // MODIFIES: this
@@ -58,7 +80,13 @@ public class Record implements WritableObject {
             log.logEvent(new Event("NameException thrown because new Record's name is blank"));
             throw new NameException("title");
         }
-        this.title.set(t);
+        notifyOwnerChanging();
+        if (Objects.isNull(titleProperty)) {
+            this.title = t;
+        } else {
+            titleProperty.set(t);
+        }
+        notifyOwner();
         log.logEvent(new Event("Record's title set to: " + getTitle()));
     }
 
@@ -70,60 +98,166 @@ public class Record implements WritableObject {
             log.logEvent(new Event("NegativeAmountException thrown because new Record's amount is < 0"));
             throw new NegativeAmountException();
         }
-        this.amount.set(amount);
+        notifyOwnerChanging();
+        if (Objects.isNull(amountProperty)) {
+            this.amount = amount;
+        } else {
+            amountProperty.set(amount);
+        }
+        notifyOwner();
         log.logEvent(new Event("Record's amount set to: " + getAmount()));
     }
 
     public void setCategory(Category category) {
-        this.category.set(category);
+        notifyOwnerChanging();
+        if (Objects.isNull(categoryProperty)) {
+            this.category = category;
+        } else {
+            categoryProperty.set(category);
+        }
+        notifyOwner();
         log.logEvent(new Event("Record's category set to: " + getCategory()));
     }
 
     // INVARIANT: is used only when reading record from a file
     public void setTimeAdded(String timeStamp) {
-        this.timeAdded.set(LocalDateTime.parse(timeStamp));
+        setTimeAdded(LocalDateTime.parse(timeStamp));
+    }
+
+    // INVARIANT: is used only when reading record from a file
+    public void setTimeAdded(LocalDateTime timeAdded) {
+        notifyOwnerChanging();
+        if (Objects.isNull(timeAddedProperty)) {
+            this.timeAdded = timeAdded;
+        } else {
+            timeAddedProperty.set(timeAdded);
+        }
+        notifyOwner();
         log.logEvent(new Event("Record's timeAdded set to: " + getTimeAdded()));
     }
 
+    // EFFECTS: lets owner know that this record is about to change
+    private void notifyOwnerChanging() {
+        if (Objects.nonNull(owner)) {
+            owner.recordChanging(this);
+        }
+    }
+
+    // EFFECTS: lets owner know that this record has changed
+    private void notifyOwner() {
+        if (Objects.nonNull(owner)) {
+            owner.recordChanged(this);
+        }
+    }
+
+    SpendingList getOwner() {
+        return owner;
+    }
+
+    void setOwner(SpendingList owner) {
+        this.owner = owner;
+    }
+
+    int getTitleCode() {
+        return titleCode;
+    }
+
+    void setTitleCode(int titleCode) {
+        this.titleCode = titleCode;
+    }
+
     public String getTitle() {
-        return title.get();
+        return Objects.isNull(titleProperty) ? title : titleProperty.get();
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns title property, creating it on the first call
     public SimpleStringProperty titleProperty() {
-        return title;
+        if (Objects.isNull(titleProperty)) {
+            titleProperty = new SimpleStringProperty(this, "title", title);
+            title = null;
+        }
+        return titleProperty;
     }
 
     public double getAmount() {
-        return amount.get();
+        return Objects.isNull(amountProperty) ? amount : amountProperty.get();
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns amount property, creating it on the first call
     public SimpleDoubleProperty amountProperty() {
-        return amount;
+        if (Objects.isNull(amountProperty)) {
+            amountProperty = new SimpleDoubleProperty(this, "amount", amount);
+        }
+        return amountProperty;
     }
 
     public Category getCategory() {
-        return category.get();
+        return Objects.isNull(categoryProperty) ? category : categoryProperty.get();
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns category property, creating it on the first call
     public SimpleObjectProperty<Category> categoryProperty() {
-        return category;
+        if (Objects.isNull(categoryProperty)) {
+            categoryProperty = new SimpleObjectProperty<>(this, "category", category);
+            category = null;
+        }
+        return categoryProperty;
     }
 
     public LocalDateTime getTimeAdded() {
-        return timeAdded.get();
+        return Objects.isNull(timeAddedProperty) ? timeAdded : timeAddedProperty.get();
     }
 
+    // MODIFIES: this
+    // EFFECTS: returns timeAdded property, creating it on the first call
     public SimpleObjectProperty<LocalDateTime> timeAddedProperty() {
-        return timeAdded;
+        if (Objects.isNull(timeAddedProperty)) {
+            timeAddedProperty = new SimpleObjectProperty<>(this, "timeAdded", timeAdded);
+            timeAdded = null;
+        }
+        return timeAddedProperty;
+    }
+
+    // EFFECTS: returns 64-bit fingerprint of title, amount, category name and timeAdded,
+    //          records that are equal have equal fingerprints,
+    //          different records have equal fingerprints with probability of about 2^-64
+    public long fingerprint() {
+        long hash = FNV_OFFSET;
+        hash = hashChars(hash, getTitle());
+        hash = hashChars(hash, getCategory().getName());
+        hash = mix(hash ^ Double.doubleToLongBits(getAmount()));
+        hash = mix(hash ^ getTimeAdded().toEpochSecond(ZoneOffset.UTC));
+        return mix(hash ^ getTimeAdded().getNano());
+    }
+
+    // EFFECTS: returns hash updated with chars of text and a separator, using FNV-1a
+    private static long hashChars(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+        }
+        // separator keeps ("ab", "c") and ("a", "bc") apart
+        return (hash ^ 0xFFFF) * FNV_PRIME;
+    }
+
+    // EFFECTS: returns hash with its bits mixed (finalizer of MurmurHash3)
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
     }
 
     @Override
     public String toString() {
         return new StringJoiner(", ", Record.class.getSimpleName() + "[", "]")
-                .add("title=" + title.get())
-                .add("amount=" + amount.get())
-                .add("category=" + category.get())
-                .add("timeAdded=" + timeAdded.get())
+                .add("title=" + getTitle())
+                .add("amount=" + getAmount())
+                .add("category=" + getCategory())
+                .add("timeAdded=" + getTimeAdded())
                 .toString();
     }
 
@@ -132,10 +266,10 @@ public class Record implements WritableObject {
     // Implementation is based on the Thingy class from JsonSerializationDemo
     public JSONObject toJsonObject() {
         JSONObject jsonObject = new JSONObject();
-        jsonObject.put("title", title.get());
-        jsonObject.put("amount", amount.get());
-        jsonObject.put("category", category.get().toJsonObject());
-        jsonObject.put("timeAdded", timeAdded.get());
+        jsonObject.put("title", getTitle());
+        jsonObject.put("amount", getAmount());
+        jsonObject.put("category", getCategory().toJsonObject());
+        jsonObject.put("timeAdded", getTimeAdded());
         return jsonObject;
     }
 
@@ -150,24 +284,24 @@ public class Record implements WritableObject {
 
         Record record = (Record) o;
 
-        if (!title.get().equals(record.title.get())) {
+        if (!getTitle().equals(record.getTitle())) {
             return false;
         }
-        if (!amount.getValue().equals(record.amount.getValue())) {
+        if (Double.doubleToLongBits(getAmount()) != Double.doubleToLongBits(record.getAmount())) {
             return false;
         }
-        if (!category.get().equals(record.category.get())) {
+        if (!getCategory().equals(record.getCategory())) {
             return false;
         }
-        return timeAdded.get().equals(record.timeAdded.get());
+        return getTimeAdded().equals(record.getTimeAdded());
     }
 
     @Override
     public int hashCode() {
-        int result = title.get().hashCode();
-        result = 31 * result + amount.getValue().hashCode();
-        result = 31 * result + category.get().hashCode();
-        result = 31 * result + timeAdded.get().hashCode();
+        int result = getTitle().hashCode();
+        result = 31 * result + Double.hashCode(getAmount());
+        result = 31 * result + getCategory().hashCode();
+        result = 31 * result + getTimeAdded().hashCode();
         return result;
     }
 }
\ No newline at end of file
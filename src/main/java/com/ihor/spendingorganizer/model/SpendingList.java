@@ -1,7 +1,11 @@
 package com.ihor.spendingorganizer.model;
 
 import com.ihor.spendingorganizer.persistence.WritableObject;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -17,18 +21,237 @@ import java.util.stream.Collectors;
 // INVARIANT: Categories is constructed first,
 //            categories of records is a subset of categories in Categories,
 //            filteredRecords is a subset of records
-public class SpendingList implements WritableObject {
+public class SpendingList implements WritableObject, Observable {
 
     private final ObservableList<Record> records;
     private final Categories categories;
+    // Distinct titles of records, each record refers to its title by code
+    private final TitleDictionary titles = new TitleDictionary();
     private final EventLog log = EventLog.getInstance();
+    // null until totals are first needed, then kept up to date as records are added, removed and changed,
+    // only used on the thread that modifies this list, so it is never written by chart queries
+    private SpendingTotals totals;
+    // Number of modifications of records and categories, so that results computed from them can be reused
+    private volatile long modCount;
+    // Number of modifications of categories, i.e., adding, removing or renaming a category
+    private long categoriesModCount;
+    private final ChangeListener<String> categoryNameListener = (o, oldName, newName) -> categoriesModified();
+    // Listeners that are notified of every modification that changes modCount
+    private final List<InvalidationListener> listeners = new ArrayList<>();
+    // {first day of month: number of records added in this month}
+    private final TreeMap<LocalDate, Integer> monthCounts = new TreeMap<>();
+    // Keys of monthCounts sorted by date (from more recent to less recent)
+    private final ObservableList<LocalDate> months = FXCollections.observableArrayList();
+    // Kept in a field, so listeners added to it stay registered
+    private final ObservableList<LocalDate> unmodifiableMonths = FXCollections.unmodifiableObservableList(months);
 
     public SpendingList(Categories categories) {
         this.categories = categories;
         this.records = FXCollections.observableArrayList();
+        this.records.addListener(this::recordsChanged);
+        categories.getCategories().forEach(c -> c.nameProperty().addListener(categoryNameListener));
+        categories.getCategories().addListener(this::categoriesChanged);
         log.logEvent(new Event("New SpendingList created: " + this));
     }
 
+    // MODIFIES: this
+    // EFFECTS: makes this owner of added records and encodes their titles,
+    //          counts their months, and adds them to totals, removed records are taken out of them
+    private void recordsChanged(ListChangeListener.Change<? extends Record> change) {
+        boolean isModified = false;
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            isModified = true;
+            for (Record r : change.getRemoved()) {
+                if (r.getOwner() == this) {
+                    r.setOwner(null);
+                }
+                releaseMonth(r.getTimeAdded());
+                removeFromTotals(r);
+            }
+            for (Record r : change.getAddedSubList()) {
+                r.setOwner(this);
+                r.setTitleCode(titles.intern(r.getTitle()));
+                retainMonth(r.getTimeAdded());
+                addToTotals(r);
+            }
+        }
+        if (isModified) {
+            modified();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts a modification, and keeps track of names of added categories
+    private void categoriesChanged(ListChangeListener.Change<? extends Category> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(c -> c.nameProperty().removeListener(categoryNameListener));
+            change.getAddedSubList().forEach(c -> c.nameProperty().addListener(categoryNameListener));
+        }
+        categoriesModified();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts a modification of categories
+    private void categoriesModified() {
+        categoriesModCount++;
+        modified();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes record out of its month and totals,
+    //          is called by records of this list before they are changed, and is followed by recordChanged
+    void recordChanging(Record record) {
+        releaseMonth(record.getTimeAdded());
+        removeFromTotals(record);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts record back into its month and totals, and encodes its title again,
+    //          is called by records of this list when they are changed
+    void recordChanged(Record record) {
+        retainMonth(record.getTimeAdded());
+        addToTotals(record);
+        record.setTitleCode(titles.intern(record.getTitle()));
+        modified();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds record to totals if they have been computed
+    private void addToTotals(Record record) {
+        if (Objects.nonNull(totals)) {
+            totals.add(record.getCategory(), record.getTimeAdded().toLocalDate(), record.getAmount());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes record from totals if they have been computed
+    private void removeFromTotals(Record record) {
+        if (Objects.nonNull(totals)) {
+            totals.remove(record.getCategory(), record.getTimeAdded().toLocalDate(), record.getAmount());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts one more record in month of timeAdded, and adds this month to months if it's new
+    private void retainMonth(LocalDateTime timeAdded) {
+        if (Objects.isNull(timeAdded)) {
+            return;
+        }
+        LocalDate month = timeAdded.toLocalDate().withDayOfMonth(1);
+        if (monthCounts.merge(month, 1, Integer::sum) == 1) {
+            // months after this one come before it in months
+            months.add(monthCounts.tailMap(month, false).size(), month);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts one less record in month of timeAdded, and removes this month from months if it has no records
+    private void releaseMonth(LocalDateTime timeAdded) {
+        if (Objects.isNull(timeAdded)) {
+            return;
+        }
+        LocalDate month = timeAdded.toLocalDate().withDayOfMonth(1);
+        Integer count = monthCounts.get(month);
+        if (Objects.isNull(count)) {
+            return;
+        }
+        if (count == 1) {
+            monthCounts.remove(month);
+            months.remove(month);
+        } else {
+            monthCounts.put(month, count - 1);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: counts a modification and notifies listeners of it
+    private void modified() {
+        modCount++;
+        for (InvalidationListener listener : new ArrayList<>(listeners)) {
+            listener.invalidated(this);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener that is notified every time getModCount changes,
+    //          listeners are notified on the thread that modifies this list
+    @Override
+    public void addListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes listener if it was added
+    @Override
+    public void removeListener(InvalidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    // EFFECTS: returns number of modifications of records and categories of this list so far,
+    //          i.e., adding, removing or changing a record, and adding, removing or renaming a category;
+    //          results computed from this list stay valid while it returns the same value
+    public long getModCount() {
+        return modCount;
+    }
+
+    // EFFECTS: returns number of modifications of categories of this list so far,
+    //          i.e., adding, removing or renaming a category
+    public long getCategoriesModCount() {
+        return categoriesModCount;
+    }
+
+    // EFFECTS: returns dictionary of titles of records of this list
+    public TitleDictionary getTitles() {
+        return titles;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns code of title of record in getTitles(),
+    //          record that isn't owned by this list, e.g., because it was added to another list later,
+    //          has its title looked up or added to getTitles()
+    public int getTitleCode(Record record) {
+        if (record.getOwner() == this) {
+            return record.getTitleCode();
+        }
+        return titles.intern(record.getTitle());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns sums of amounts of records per category and month,
+    //          computes them the first time they are needed, they are kept up to date after that;
+    //          like the rest of this list, totals must only be used on the thread that modifies it,
+    //          other threads work on getTotals().copy() or compute their own totals
+    public SpendingTotals getTotals() {
+        if (Objects.isNull(totals)) {
+            totals = SpendingTotals.of(records);
+        }
+        return totals;
+    }
+
+    // EFFECTS: returns true if totals don't have to be rebuilt by getTotals()
+    public boolean hasTotals() {
+        return Objects.nonNull(totals);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets totals, e.g., to the ones that were stored together with records
+    // REQUIRES: totals are totals of records of this list
+    public void setTotals(SpendingTotals totals) {
+        this.totals = totals;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets totals that were computed from records when getModCount() returned modCount,
+    //          e.g., on another thread, unless this list was modified since then or has totals already
+    public void setTotals(SpendingTotals totals, long modCount) {
+        if (this.modCount == modCount && !hasTotals()) {
+            this.totals = totals;
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: adds a new record to the front of the records list
     // INVARIANT: record is valid
@@ -37,6 +260,26 @@ public class SpendingList implements WritableObject {
         log.logEvent(new Event("New Record added: " + record));
     }
 
+    // MODIFIES: this
+    // EFFECTS: adds records to the end of the records list in a single change, keeping their order,
+    //          categories of records that aren't in categories yet are added to categories
+    // INVARIANT: records are valid
+    public void addRecords(Collection<Record> records) {
+        Set<Category> recordCategories = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Record r : records) {
+            recordCategories.add(r.getCategory());
+        }
+        recordCategories.forEach(categories::add);
+        this.records.addAll(records);
+        log.logEvent(new Event(records.size() + " new Records added"));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sorts records by date (from more recent to less recent)
+    public void sortByTimeAdded() {
+        records.sort(Comparator.comparing(Record::getTimeAdded).reversed());
+    }
+
     // MODIFIES: this
     // EFFECTS: removes record from records list and returns true if the record is removed
     // INVARIANT: record exists in the list
@@ -45,39 +288,85 @@ public class SpendingList implements WritableObject {
         log.logEvent(new Event("Removed this record: " + record));
     }
 
-    // EFFECTS: returns list of dates of this.records,
+    // EFFECTS: returns a new list of dates of this.records,
     //          list is sorted by date (from more recent to less recent)
     public List<LocalDate> getDates() {
-        return records.stream()
-                .map(Record::getTimeAdded)
-                .map(LocalDateTime::toLocalDate)
-                .map(t -> t.withDayOfMonth(1))
-                .distinct()
-                .sorted(Comparator.reverseOrder())
-                .collect(Collectors.toList());
+        return new ArrayList<>(months);
+    }
+
+    // EFFECTS: returns unmodifiable list of first days of months that have records,
+    //          sorted by date (from more recent to less recent),
+    //          it is kept up to date as records are added, removed, or their time is changed
+    public ObservableList<LocalDate> getMonths() {
+        return unmodifiableMonths;
     }
 
     // EFFECTS: filters records that occur in [from, to] time range, and
     //          returns a map of these records grouped by category, i.e.,
     //          {category: sum of amounts of all records that have this category};
     //          returned map is sorted by values (amounts)
+    //          records are summed up by category ids, names are looked up only for the result
     public Map<String, Double> groupByCategory(LocalDate from, LocalDate to) {
-        List<Record> filteredRecords = filterRecordsByDate(from, to);
-        Map<String, Double> map = filteredRecords.stream()
-                .collect(Collectors.groupingBy(r -> r.getCategory().getName(),
-                        Collectors.summingDouble(Record::getAmount)));
+        return groupByCategory(records, from, to);
+    }
+
+    // EFFECTS: same as groupByCategory(LocalDate from, LocalDate to) of a list that has records
+    // REQUIRES: categories of records share ids (see Categories), so different categories have different ids
+    private static Map<String, Double> groupByCategory(Collection<Record> records, LocalDate from, LocalDate to) {
+        List<Record> filteredRecords = filterRecordsByDate(records, from, to);
+        int firstId = firstCategoryId(filteredRecords);
+        Category[] categoriesById = new Category[lastCategoryId(filteredRecords) - firstId + 1];
+        double[] sums = new double[categoriesById.length];
+        for (Record r : filteredRecords) {
+            int slot = r.getCategory().getId() - firstId;
+            categoriesById[slot] = r.getCategory();
+            sums[slot] += r.getAmount();
+        }
+        Map<String, Double> map = new HashMap<>();
+        for (int slot = 0; slot < sums.length; slot++) {
+            if (Objects.nonNull(categoriesById[slot])) {
+                map.merge(categoriesById[slot].getName(), sums[slot], Double::sum);
+            }
+        }
         return sortMapByValue(map);
     }
 
     // EFFECTS: filters records that were added in the given month, and does
     //          same as groupByCategory(LocalDate from, LocalDate to),
     //          if user selects LocalDate.MIN, treat as if they want to group all records
+    //          whole months are taken from totals, so records aren't scanned again until they change
     public Map<String, Double> groupByCategory(LocalDate month) {
-        if (month.equals(LocalDate.MIN)) {
-            return groupByCategory(LocalDate.MIN, LocalDate.MAX);
-        } else {
-            return groupByCategory(month.withDayOfMonth(1), month.withDayOfMonth(month.lengthOfMonth()));
+        return getTotals().groupByCategory(month);
+    }
+
+    // EFFECTS: filters records that occur in [from, to] time range, and
+    //          returns a map of these records grouped by title, i.e.,
+    //          {title: sum of amounts of all records that have this title};
+    //          returned map is sorted by values (amounts)
+    //          records are summed up by title codes, so titles aren't hashed or compared
+    public Map<String, Double> groupByTitle(LocalDate from, LocalDate to) {
+        Predicate<Record> isBetween = fromToPredicate(from, to);
+        double[] sums = new double[titles.size()];
+        boolean[] isPresent = new boolean[titles.size()];
+        for (Record r : records) {
+            if (isBetween.test(r)) {
+                int code = getTitleCode(r);
+                if (code >= sums.length) {
+                    // title of a record that isn't owned by this list was just added
+                    sums = Arrays.copyOf(sums, titles.size());
+                    isPresent = Arrays.copyOf(isPresent, titles.size());
+                }
+                sums[code] += r.getAmount();
+                isPresent[code] = true;
+            }
+        }
+        Map<String, Double> map = new HashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            if (isPresent[code]) {
+                map.put(titles.getTitle(code), sums[code]);
+            }
         }
+        return sortMapByValue(map);
     }
 
     // EFFECTS: filters records that occur in [from, to] time range, and
@@ -87,42 +376,54 @@ public class SpendingList implements WritableObject {
     //                  sum of amounts of all records that have this category and were added in this month
     //               }}
     //          returned map is sorted by date (from older to newer)
+    //          records are summed up by category ids, names are looked up only for the result
     public Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(LocalDate from, LocalDate to) {
-        List<Record> filteredRecords = filterRecordsByDate(from, to);
-        Map<String, List<Record>> groupedByCategories = makeMap(filteredRecords);
-        sortByDate(groupedByCategories);
+        return groupByCategoryAndDate(records, from, to);
+    }
 
-        return groupByDate(groupedByCategories);
+    // EFFECTS: same as groupByCategoryAndDate(LocalDate from, LocalDate to) of a list that has records
+    // REQUIRES: categories of records share ids (see Categories), so different categories have different ids
+    private static Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(Collection<Record> records,
+                                                                            LocalDate from, LocalDate to) {
+        List<Record> filteredRecords = filterRecordsByDate(records, from, to);
+        int firstId = firstCategoryId(filteredRecords);
+        Category[] categoriesById = new Category[lastCategoryId(filteredRecords) - firstId + 1];
+        List<Map<LocalDate, Double>> sums = new ArrayList<>(Collections.nCopies(categoriesById.length, null));
+        for (Record r : filteredRecords) {
+            int slot = r.getCategory().getId() - firstId;
+            if (Objects.isNull(categoriesById[slot])) {
+                categoriesById[slot] = r.getCategory();
+                sums.set(slot, new HashMap<>());
+            }
+            sums.get(slot).merge(r.getTimeAdded().toLocalDate().withDayOfMonth(1), r.getAmount(), Double::sum);
+        }
+        Map<String, Map<LocalDate, Double>> result = new LinkedHashMap<>();
+        for (int slot = 0; slot < categoriesById.length; slot++) {
+            if (Objects.nonNull(categoriesById[slot])) {
+                Map<LocalDate, Double> byMonth = result.computeIfAbsent(categoriesById[slot].getName(),
+                        n -> new HashMap<>());
+                sums.get(slot).forEach((month, amount) -> byMonth.merge(month, amount, Double::sum));
+            }
+        }
+        return result;
     }
 
     // EFFECTS: filters records that were added in month, and
     //          same as groupByCategoryAndDate(LocalDate from, LocalDate to)
     //          if user selects LocalDate.MIN, treat as if they want to group all records
+    //          whole months are taken from totals, so records aren't scanned again until they change
     public Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(LocalDate month) {
-        if (month.equals(LocalDate.MIN)) {
-            return groupByCategoryAndDate(LocalDate.MIN, LocalDate.MAX);
-        } else {
-            return groupByCategoryAndDate(month.withDayOfMonth(1), month.withDayOfMonth(month.lengthOfMonth()));
-        }
+        return getTotals().groupByCategoryAndDate(month);
     }
 
-    // MODIFIES: groupedByCategories
-    private void sortByDate(Map<String, List<Record>> groupedByCategories) {
-        groupedByCategories.forEach((k, v) -> v.sort(Comparator.comparing(Record::getTimeAdded).reversed()));
+    // EFFECTS: returns the smallest id of categories of records, or 0 if there are no records
+    private static int firstCategoryId(List<Record> records) {
+        return records.stream().mapToInt(r -> r.getCategory().getId()).min().orElse(0);
     }
 
-    // EFFECTS: returns a new map that transforms unwrappedMap's List<Record> value to Map<LocalDate, Double>
-    //          LocalDate - date record was created,
-    //          Double - sum of amounts of records which were created in same month and have same category
-    private Map<String, Map<LocalDate, Double>> groupByDate(Map<String, List<Record>> unwrappedMap) {
-        Map<String, Map<LocalDate, Double>> result = new LinkedHashMap<>();
-        unwrappedMap.forEach((key, value) -> {
-            Map<LocalDate, Double> subMap = value.stream()
-                    .collect(Collectors.groupingBy(r -> r.getTimeAdded().toLocalDate().withDayOfMonth(1),
-                            Collectors.summingDouble(Record::getAmount)));
-            result.put(key, subMap);
-        });
-        return result;
+    // EFFECTS: returns the largest id of categories of records, or -1 if there are no records
+    private static int lastCategoryId(List<Record> records) {
+        return records.stream().mapToInt(r -> r.getCategory().getId()).max().orElse(-1);
     }
 
     public ObservableList<Record> getRecords() {
@@ -133,29 +434,28 @@ public class SpendingList implements WritableObject {
         return categories;
     }
 
+    // EFFECTS: returns a new list of records that are created in [from, to] time range,
+    //          list keeps order of records
+    public List<Record> getRecordsBetween(LocalDate from, LocalDate to) {
+        return filterRecordsByDate(records, from, to);
+    }
+
     // EFFECTS: returns a new list of records that are created in time interval between from and to
-    private List<Record> filterRecordsByDate(LocalDate from, LocalDate to) {
+    private static List<Record> filterRecordsByDate(Collection<Record> records, LocalDate from, LocalDate to) {
         return records.stream()
                 .filter(fromToPredicate(from, to))
                 .collect(Collectors.toList());
     }
 
     // EFFECTS: returns a predicate for filtering records that occur in [from, to] time interval
-    private Predicate<Record> fromToPredicate(LocalDate from, LocalDate to) {
+    private static Predicate<Record> fromToPredicate(LocalDate from, LocalDate to) {
         return r -> r.getTimeAdded().isAfter(from.atStartOfDay())
                 && r.getTimeAdded().isBefore(to.atTime(LocalTime.MAX));
     }
 
-    // EFFECTS: returns a map of records grouped by category, i.e.,
-    //          {category: list of records which have this category};
-    private Map<String, List<Record>> makeMap(List<Record> filteredRecords) {
-        return filteredRecords.stream()
-                .collect(Collectors.groupingBy(r -> r.getCategory().getName()));
-    }
-
     // EFFECTS: returns a new map, which is a sorted by value
     // Implementation is based on: https://mkyong.com/java/how-to-sort-a-map-in-java/
-    private <K, V extends Comparable<? super V>> Map<K, V> sortMapByValue(Map<K, V> map) {
+    public static <K, V extends Comparable<? super V>> Map<K, V> sortMapByValue(Map<K, V> map) {
         return map.entrySet().stream()
                 .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
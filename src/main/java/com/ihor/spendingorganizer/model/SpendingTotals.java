@@ -0,0 +1,201 @@
+package com.ihor.spendingorganizer.model;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+// Represents sums of amounts of records per category and month,
+// months are represented by LocalDates that start at first day of month,
+// each sum knows how many records it has, so records can be added and removed one by one,
+// and each change is stamped with a version, so it's known which categories changed since a version
+// INVARIANT: categories are compared by identity, so renaming a category keeps its totals
+public class SpendingTotals {
+
+    private final Map<Category, Map<LocalDate, Double>> totals = new IdentityHashMap<>();
+    // {category: {month: number of records in total of category in month}}
+    private final Map<Category, Map<LocalDate, Integer>> counts = new IdentityHashMap<>();
+    // {month: number of records in month}
+    private final NavigableMap<LocalDate, Integer> months = new TreeMap<>();
+    // Number of changes of these totals so far
+    private long version;
+    // {category: version of the last change of its totals}
+    private final Map<Category, Long> changedAt = new IdentityHashMap<>();
+
+    // EFFECTS: returns totals of records
+    public static SpendingTotals of(Collection<Record> records) {
+        SpendingTotals spendingTotals = new SpendingTotals();
+        for (Record r : records) {
+            spendingTotals.add(r.getCategory(), r.getTimeAdded().toLocalDate(), r.getAmount());
+        }
+        return spendingTotals;
+    }
+
+    // EFFECTS: returns a copy of these totals that isn't changed when these totals are,
+    //          e.g., to be read on another thread
+    public SpendingTotals copy() {
+        SpendingTotals copy = new SpendingTotals();
+        totals.forEach((category, byMonth) -> copy.totals.put(category, new HashMap<>(byMonth)));
+        counts.forEach((category, byMonth) -> copy.counts.put(category, new HashMap<>(byMonth)));
+        copy.months.putAll(months);
+        copy.version = version;
+        copy.changedAt.putAll(changedAt);
+        return copy;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount of a record to the total of category in month that date belongs to
+    public void add(Category category, LocalDate date, double amount) {
+        add(category, date, amount, 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount of count records, e.g., a stored total, to the total of category in month that date
+    //          belongs to
+    // REQUIRES: count > 0
+    public void add(Category category, LocalDate date, double amount, int count) {
+        LocalDate month = date.withDayOfMonth(1);
+        totals.computeIfAbsent(category, c -> new HashMap<>()).merge(month, amount, Double::sum);
+        counts.computeIfAbsent(category, c -> new HashMap<>()).merge(month, count, Integer::sum);
+        months.merge(month, count, Integer::sum);
+        changedAt.put(category, ++version);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes amount of a record from the total of category in month that date belongs to,
+    //          total is removed together with its last record, so it's the same as if the record was never added
+    // REQUIRES: a record with amount was added to the total of category in month
+    public void remove(Category category, LocalDate date, double amount) {
+        LocalDate month = date.withDayOfMonth(1);
+        Map<LocalDate, Integer> countsByMonth = counts.get(category);
+        if (Objects.isNull(countsByMonth) || !countsByMonth.containsKey(month)) {
+            return;
+        }
+        Map<LocalDate, Double> byMonth = totals.get(category);
+        if (countsByMonth.merge(month, -1, Integer::sum) == 0) {
+            countsByMonth.remove(month);
+            byMonth.remove(month);
+            if (byMonth.isEmpty()) {
+                totals.remove(category);
+                counts.remove(category);
+            }
+        } else {
+            byMonth.merge(month, -amount, Double::sum);
+        }
+        if (months.merge(month, -1, Integer::sum) == 0) {
+            months.remove(month);
+        }
+        changedAt.put(category, ++version);
+    }
+
+    // EFFECTS: returns number of changes of these totals so far
+    public long getVersion() {
+        return version;
+    }
+
+    // EFFECTS: returns names of categories whose totals changed after version, i.e., since getVersion()
+    //          returned version
+    public Set<String> getNamesChangedSince(long version) {
+        Set<String> names = new HashSet<>();
+        changedAt.forEach((category, changed) -> {
+            if (changed > version) {
+                names.add(category.getName());
+            }
+        });
+        return names;
+    }
+
+    // EFFECTS: returns number of records in the total of category in month, or 0 if there's no such total
+    public int getCount(Category category, LocalDate month) {
+        return counts.getOrDefault(category, Collections.emptyMap()).getOrDefault(month, 0);
+    }
+
+    // EFFECTS: returns a new list of months that have totals,
+    //          list is sorted by date (from more recent to less recent)
+    public List<LocalDate> getMonths() {
+        return new ArrayList<>(months.descendingKeySet());
+    }
+
+    // EFFECTS: returns totals of each category, i.e., {category: {month: sum of amounts}}
+    public Map<Category, Map<LocalDate, Double>> asMap() {
+        return Collections.unmodifiableMap(totals);
+    }
+
+    // EFFECTS: returns {category name: sum of amounts in month that date belongs to}
+    //          sorted by values (amounts), or sums of all months if date is LocalDate.MIN,
+    //          same as SpendingList.groupByCategory(LocalDate month) of records these totals were computed from
+    public Map<String, Double> groupByCategory(LocalDate date) {
+        if (date.equals(LocalDate.MIN)) {
+            return SpendingList.sortMapByValue(sumByCategory(LocalDate.MIN, LocalDate.MAX));
+        }
+        LocalDate month = date.withDayOfMonth(1);
+        return SpendingList.sortMapByValue(sumByCategory(month, month));
+    }
+
+    // EFFECTS: returns {category name: {month: sum of amounts}} of month that date belongs to,
+    //          or of all months if date is LocalDate.MIN,
+    //          same as SpendingList.groupByCategoryAndDate(LocalDate month) of records these totals were computed from
+    public Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(LocalDate date) {
+        if (date.equals(LocalDate.MIN)) {
+            return sumByCategoryAndMonth(LocalDate.MIN, LocalDate.MAX);
+        }
+        LocalDate month = date.withDayOfMonth(1);
+        return sumByCategoryAndMonth(month, month);
+    }
+
+    // EFFECTS: returns {category name: sum of amounts in months that start in [from, to]},
+    //          categories with the same name are summed together
+    public Map<String, Double> sumByCategory(LocalDate from, LocalDate to) {
+        return sumByCategory(from, to, name -> true);
+    }
+
+    // EFFECTS: same as sumByCategory(from, to), but only for categories that have one of names,
+    //          e.g., to update sums of categories that changed since a version
+    public Map<String, Double> sumByCategory(LocalDate from, LocalDate to, Set<String> names) {
+        return sumByCategory(from, to, names::contains);
+    }
+
+    // EFFECTS: returns {category name: sum of amounts in months that start in [from, to]}
+    //          of categories whose name is accepted by isIncluded
+    private Map<String, Double> sumByCategory(LocalDate from, LocalDate to, Predicate<String> isIncluded) {
+        Map<String, Double> result = new HashMap<>();
+        totals.forEach((category, byMonth) -> {
+            if (isIncluded.test(category.getName())) {
+                byMonth.forEach((month, amount) -> {
+                    if (!month.isBefore(from) && !month.isAfter(to)) {
+                        result.merge(category.getName(), amount, Double::sum);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+
+    // EFFECTS: returns {category name: {month: sum of amounts}} of months that start in [from, to],
+    //          categories with the same name are summed together
+    public Map<String, Map<LocalDate, Double>> sumByCategoryAndMonth(LocalDate from, LocalDate to) {
+        return sumByCategoryAndMonth(from, to, name -> true);
+    }
+
+    // EFFECTS: same as sumByCategoryAndMonth(from, to), but only for categories that have one of names
+    public Map<String, Map<LocalDate, Double>> sumByCategoryAndMonth(LocalDate from, LocalDate to, Set<String> names) {
+        return sumByCategoryAndMonth(from, to, names::contains);
+    }
+
+    // EFFECTS: returns {category name: {month: sum of amounts}} of months that start in [from, to]
+    //          of categories whose name is accepted by isIncluded
+    private Map<String, Map<LocalDate, Double>> sumByCategoryAndMonth(LocalDate from, LocalDate to,
+                                                                      Predicate<String> isIncluded) {
+        Map<String, Map<LocalDate, Double>> result = new HashMap<>();
+        totals.forEach((category, byMonth) -> {
+            if (isIncluded.test(category.getName())) {
+                byMonth.forEach((month, amount) -> {
+                    if (!month.isBefore(from) && !month.isAfter(to)) {
+                        result.computeIfAbsent(category.getName(), n -> new HashMap<>())
+                                .merge(month, amount, Double::sum);
+                    }
+                });
+            }
+        });
+        return result;
+    }
+}
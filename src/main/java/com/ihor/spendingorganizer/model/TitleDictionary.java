@@ -0,0 +1,56 @@
+package com.ihor.spendingorganizer.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a dictionary that stores each distinct record title once and gives it an int code,
+// codes are given in the order titles are added, starting from 0, and never change,
+// titles aren't removed once records that had them are gone
+public class TitleDictionary {
+
+    private final List<String> titles = new ArrayList<>();
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    // MODIFIES: this
+    // EFFECTS: returns code of title, adding title to this dictionary if it isn't in it yet
+    public int intern(String title) {
+        Integer code = codes.get(title);
+        if (code == null) {
+            code = titles.size();
+            titles.add(title);
+            codes.put(title, code);
+        }
+        return code;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the instance of title that is stored in this dictionary, adding title if it isn't in it yet,
+    //          so equal titles can share one String
+    public String canonical(String title) {
+        return titles.get(intern(title));
+    }
+
+    // EFFECTS: returns code of title, or -1 if title isn't in this dictionary
+    public int getCode(String title) {
+        return codes.getOrDefault(title, -1);
+    }
+
+    // REQUIRES: 0 <= code < size()
+    // EFFECTS: returns title with code
+    public String getTitle(int code) {
+        return titles.get(code);
+    }
+
+    // EFFECTS: returns number of distinct titles
+    public int size() {
+        return titles.size();
+    }
+
+    // EFFECTS: returns unmodifiable list of titles, index of a title is its code
+    public List<String> getTitles() {
+        return Collections.unmodifiableList(titles);
+    }
+}
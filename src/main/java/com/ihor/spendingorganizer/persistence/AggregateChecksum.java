@@ -0,0 +1,50 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.zip.CRC32C;
+
+// Represents a checksum of the record fields that aggregates are computed from,
+// i.e., category name, month and amount of each record, in the order records are stored in a file,
+// followed by category name, month, amount and number of records of each stored total;
+// aggregates stored in a file are valid only while checksum of its records and totals matches the stored one
+class AggregateChecksum {
+    private final CRC32C crc = new CRC32C();
+    private final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + 2 * Long.BYTES);
+    private int count;
+
+    // MODIFIES: this
+    // EFFECTS: adds record to the checksum
+    void update(Record record) {
+        update(record.getCategory().getName(), record.getTimeAdded().toLocalDate(), record.getAmount());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds amount of categoryName in month that date belongs to, e.g., a stored total, to the checksum
+    void update(String categoryName, LocalDate date, double amount) {
+        buffer.clear();
+        buffer.putInt(categoryName.hashCode());
+        buffer.putLong(date.getYear() * 12L + date.getMonthValue());
+        buffer.putLong(Double.doubleToLongBits(amount));
+        buffer.flip();
+        crc.update(buffer);
+        count++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a stored total, i.e., amount of count records of categoryName in month, to the checksum
+    void update(String categoryName, LocalDate month, double amount, int count) {
+        update(categoryName, month, amount);
+        buffer.clear();
+        buffer.putInt(count);
+        buffer.flip();
+        crc.update(buffer);
+    }
+
+    // EFFECTS: returns checksum of all added records and totals
+    long getValue() {
+        return (long) count << 32 | crc.getValue();
+    }
+}
@@ -0,0 +1,75 @@
+package com.ihor.spendingorganizer.persistence;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+// Represents a Bloom filter of 64-bit fingerprints,
+// mightContain never returns false for an added fingerprint,
+// and returns true for other fingerprints with about the probability the filter was created for
+public class BloomFilter {
+    private final long[] bits;
+    private final int hashCount;
+
+    private BloomFilter(long[] bits, int hashCount) {
+        this.bits = bits;
+        this.hashCount = hashCount;
+    }
+
+    // REQUIRES: 0 < falsePositiveRate < 1
+    // EFFECTS: returns an empty filter sized for expectedSize fingerprints and the given false positive rate
+    public static BloomFilter create(long expectedSize, double falsePositiveRate) {
+        long n = Math.max(1, expectedSize);
+        long bitCount = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashCount = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+        return new BloomFilter(new long[(int) Math.max(1, (bitCount + 63) / 64)], hashCount);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds fingerprint to the filter
+    public void add(long fingerprint) {
+        long bitCount = bits.length * 64L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(fingerprint, i, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    // EFFECTS: returns false if fingerprint surely wasn't added, and true if it might have been
+    public boolean mightContain(long fingerprint) {
+        long bitCount = bits.length * 64L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(fingerprint, i, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // EFFECTS: returns index of i-th bit of fingerprint, derived from its two halves (double hashing)
+    private static long bitIndex(long fingerprint, int i, long bitCount) {
+        long combined = (fingerprint & 0xFFFFFFFFL) + i * (fingerprint >>> 32);
+        return Math.floorMod(combined, bitCount);
+    }
+
+    // EFFECTS: returns this filter as text
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + bits.length * Long.BYTES);
+        buffer.putInt(hashCount);
+        buffer.asLongBuffer().put(bits);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    // EFFECTS: returns filter encoded by encode(),
+    //          throws IllegalArgumentException if text isn't an encoded filter
+    public static BloomFilter decode(String text) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(text));
+        if (buffer.remaining() < Integer.BYTES + Long.BYTES || (buffer.remaining() - Integer.BYTES) % Long.BYTES != 0) {
+            throw new IllegalArgumentException("Not an encoded Bloom filter");
+        }
+        int hashCount = buffer.getInt();
+        long[] bits = new long[buffer.remaining() / Long.BYTES];
+        buffer.asLongBuffer().get(bits);
+        return new BloomFilter(bits, hashCount);
+    }
+}
@@ -0,0 +1,125 @@
+package com.ihor.spendingorganizer.persistence;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Represents mapping of CSV columns to record fields,
+// columns are given either by index, or by names that are looked up in the header row;
+// category and date columns are optional
+public class CsvColumnMapping {
+    // Index of a column that isn't mapped
+    public static final int NONE = -1;
+
+    private static final List<String> TITLE_NAMES = Arrays.asList("title", "description", "payee", "details");
+    private static final List<String> AMOUNT_NAMES = Arrays.asList("amount", "debit", "sum");
+    private static final List<String> CATEGORY_NAMES = Arrays.asList("category", "type");
+    private static final List<String> DATE_NAMES = Arrays.asList("date", "timeadded", "time", "posted date");
+
+    private int titleColumn;
+    private int amountColumn;
+    private int categoryColumn;
+    private int dateColumn;
+    private final boolean byHeader;
+    private boolean hasHeader;
+    private char delimiter = ',';
+    private DateTimeFormatter dateFormat = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private CsvColumnMapping(int titleColumn, int amountColumn, int categoryColumn, int dateColumn,
+                             boolean byHeader) {
+        this.titleColumn = titleColumn;
+        this.amountColumn = amountColumn;
+        this.categoryColumn = categoryColumn;
+        this.dateColumn = dateColumn;
+        this.byHeader = byHeader;
+        this.hasHeader = byHeader;
+    }
+
+    // EFFECTS: returns mapping with given column indexes, category and date columns can be NONE,
+    //          by default, the file is read from its first row
+    public static CsvColumnMapping byIndex(int titleColumn, int amountColumn, int categoryColumn, int dateColumn) {
+        return new CsvColumnMapping(titleColumn, amountColumn, categoryColumn, dateColumn, false);
+    }
+
+    // EFFECTS: returns mapping which finds columns by commonly used names in the header row,
+    //          e.g., "Description" or "Title" for title, and "Amount" or "Debit" for amount
+    public static CsvColumnMapping byHeader() {
+        return new CsvColumnMapping(NONE, NONE, NONE, NONE, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if this mapping is by header, finds columns in header,
+    //          throws IllegalArgumentException if title or amount column isn't found
+    void resolve(List<String> header) {
+        if (!byHeader) {
+            return;
+        }
+        titleColumn = find(header, TITLE_NAMES);
+        amountColumn = find(header, AMOUNT_NAMES);
+        categoryColumn = find(header, CATEGORY_NAMES);
+        dateColumn = find(header, DATE_NAMES);
+        if (titleColumn == NONE || amountColumn == NONE) {
+            throw new IllegalArgumentException("Header must have title and amount columns: " + header);
+        }
+    }
+
+    // EFFECTS: returns index of the first column in header which has one of names, or NONE
+    private int find(List<String> header, List<String> names) {
+        for (String name : names) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().toLowerCase(Locale.ROOT).equals(name)) {
+                    return i;
+                }
+            }
+        }
+        return NONE;
+    }
+
+    public boolean isByHeader() {
+        return byHeader;
+    }
+
+    public int getTitleColumn() {
+        return titleColumn;
+    }
+
+    public int getAmountColumn() {
+        return amountColumn;
+    }
+
+    public int getCategoryColumn() {
+        return categoryColumn;
+    }
+
+    public int getDateColumn() {
+        return dateColumn;
+    }
+
+    public boolean hasHeader() {
+        return hasHeader;
+    }
+
+    // EFFECTS: sets whether the first row is a header and should be skipped,
+    //          mapping by header always has a header
+    public void setHasHeader(boolean hasHeader) {
+        this.hasHeader = byHeader || hasHeader;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    public DateTimeFormatter getDateFormat() {
+        return dateFormat;
+    }
+
+    // EFFECTS: sets format of the date column, format may have no time, then records are added at start of day
+    public void setDateFormat(DateTimeFormatter dateFormat) {
+        this.dateFormat = dateFormat;
+    }
+}
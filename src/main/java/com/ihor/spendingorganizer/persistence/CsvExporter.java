@@ -0,0 +1,57 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+// Represents an exporter of records to CSV, the first row has names of exported columns,
+// fields with delimiters, quotes or line breaks are quoted
+public class CsvExporter extends RecordExporter {
+    private static final char DELIMITER = ',';
+
+    @Override
+    protected void writeHeader(Writer writer, List<ExportColumn> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(DELIMITER);
+            }
+            writer.write(columns.get(i).getName());
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    protected void writeRecord(Writer writer, Record record, List<ExportColumn> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(DELIMITER);
+            }
+            writeField(writer, valueOf(record, columns.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    // EFFECTS: writes value to writer, quoting it if needed
+    private void writeField(Writer writer, String value) throws IOException {
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == DELIMITER || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
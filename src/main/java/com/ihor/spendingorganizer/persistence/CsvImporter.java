@@ -0,0 +1,177 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Represents an importer of bank statements in CSV format,
+// rows are streamed from the file, validated with the same rules as Record's constructor,
+// and handed over to a sink in large batches, so memory used for reading doesn't depend on file size
+public class CsvImporter {
+    public static final int BATCH_SIZE = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CsvColumnMapping mapping;
+    private final Map<String, Category> categoriesByName = new HashMap<>();
+    private final Category defaultCategory;
+    // Holds categories that are created for names which weren't in categories when importer was created
+    private final Categories newCategories;
+    private RecordDeduplicator deduplicator = new RecordDeduplicator();
+
+    // EFFECTS: creates an importer that assigns records to categories by name,
+    //          categories that don't exist yet are created once per name,
+    //          and are added to the spending list together with their first records
+    // INVARIANT: is created on the thread that owns categories
+    public CsvImporter(CsvColumnMapping mapping, Categories categories) throws NameException {
+        this.mapping = mapping;
+        for (Category c : categories.getCategories()) {
+            categoriesByName.put(c.getName(), c);
+        }
+        this.defaultCategory = categories.getDefaultCategory();
+        this.newCategories = new Categories(categories);
+    }
+
+    // MODIFIES: spendingList
+    // EFFECTS: imports records from CSV file at path into spendingList,
+    //          rows that duplicate records already in spendingList are dropped,
+    //          records are sorted by date once all of them are added,
+    //          throws IOException if there's an error while reading the file
+    public static ImportReport importInto(Path path, CsvColumnMapping mapping, SpendingList spendingList)
+            throws IOException, NameException {
+        CsvImporter importer = new CsvImporter(mapping, spendingList.getCategories());
+        importer.setDeduplicator(new RecordDeduplicator(spendingList.getRecords()));
+        ImportReport report = importer.importFile(path, ReadProgressListener.NONE, spendingList::addRecords);
+        spendingList.sortByTimeAdded();
+        return report;
+    }
+
+    // EFFECTS: imports records from CSV file at path, reporting bytes read and rows parsed to listener,
+    //          throws IOException if there's an error while reading the file,
+    //          throws InterruptedIOException if importing thread is interrupted
+    public ImportReport importFile(Path path, ReadProgressListener listener, Consumer<List<Record>> sink)
+            throws IOException {
+        try (Reader reader = new InputStreamReader(new ProgressInputStream(
+                new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE), Files.size(path), listener),
+                StandardCharsets.UTF_8)) {
+            return importFrom(reader, listener, sink);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets deduplicator that valid rows are checked with, by default no row is a duplicate
+    public void setDeduplicator(RecordDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes rows that duplicate records of other files of the workspace that file is in duplicates too
+    //          (see WorkspaceCatalog.addWorkspaceHistoryTo), e.g., of the file that rows are imported into
+    public void addWorkspaceHistory(Path file) {
+        WorkspaceCatalog.addWorkspaceHistoryTo(deduplicator, List.of(file));
+    }
+
+    // EFFECTS: reads rows from reader, and passes valid records to sink in batches of BATCH_SIZE,
+    //          rows that don't pass validation are counted as rejected,
+    //          rows that deduplicator finds to be duplicates are dropped,
+    //          throws IOException if there's an error while reading,
+    //          throws IllegalArgumentException if mapping is by header and header has no title or amount columns,
+    //          throws InterruptedIOException if importing thread is interrupted
+    public ImportReport importFrom(Reader reader, ReadProgressListener listener, Consumer<List<Record>> sink)
+            throws IOException {
+        long start = System.nanoTime();
+        CsvParser parser = new CsvParser(reader, mapping.getDelimiter());
+        if (mapping.hasHeader()) {
+            List<String> header = parser.nextRow();
+            mapping.resolve(header == null ? Collections.emptyList() : header);
+        }
+
+        long rowsRead = 0;
+        long imported = 0;
+        long duplicates = 0;
+        List<Record> batch = new ArrayList<>(BATCH_SIZE);
+        List<String> row;
+        while ((row = parser.nextRow()) != null) {
+            rowsRead++;
+            Record record = parseRecord(row);
+            if (record != null && deduplicator.isDuplicate(record)) {
+                duplicates++;
+            } else if (record != null) {
+                batch.add(record);
+            }
+            if (batch.size() == BATCH_SIZE) {
+                ProgressInputStream.checkInterrupted();
+                imported += batch.size();
+                sink.accept(batch);
+                batch = new ArrayList<>(BATCH_SIZE);
+                listener.recordsParsed((int) Math.min(rowsRead, Integer.MAX_VALUE), -1);
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += batch.size();
+            sink.accept(batch);
+        }
+        listener.recordsParsed((int) Math.min(rowsRead, Integer.MAX_VALUE), -1);
+        return new ImportReport(rowsRead, imported, rowsRead - imported - duplicates, duplicates,
+                System.nanoTime() - start);
+    }
+
+    // EFFECTS: returns record built from row, or null if row is invalid,
+    //          nothing is logged per row, so memory of an import doesn't grow with the number of rows
+    private Record parseRecord(List<String> row) {
+        try {
+            String title = column(row, mapping.getTitleColumn());
+            double amount = Double.parseDouble(column(row, mapping.getAmountColumn()).trim());
+            LocalDateTime timeAdded = mapping.getDateColumn() == CsvColumnMapping.NONE ? LocalDateTime.now()
+                    : parseDate(column(row, mapping.getDateColumn()).trim());
+            return new Record(title, amount, findCategory(column(row, mapping.getCategoryColumn())), timeAdded);
+        } catch (NameException | NegativeAmountException | IndexOutOfBoundsException
+                 | NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: returns value of column in row, or empty string if column isn't mapped,
+    //          throws IndexOutOfBoundsException if row is too short
+    private String column(List<String> row, int column) {
+        return column == CsvColumnMapping.NONE ? "" : row.get(column);
+    }
+
+    // EFFECTS: returns date parsed with mapping's date format, dates without time are set to start of day
+    private LocalDateTime parseDate(String text) {
+        TemporalAccessor parsed = mapping.getDateFormat().parseBest(text, LocalDateTime::from, LocalDate::from);
+        if (parsed instanceof LocalDate) {
+            return ((LocalDate) parsed).atStartOfDay();
+        }
+        return (LocalDateTime) parsed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns category with name, creating it if there's none yet,
+    //          returns default category if name is blank
+    private Category findCategory(String name) throws NameException {
+        String n = name.trim();
+        if (n.isEmpty()) {
+            return defaultCategory;
+        }
+        Category category = categoriesByName.get(n);
+        if (category == null) {
+            category = new Category(n, newCategories);
+            categoriesByName.put(n, category);
+        }
+        return category;
+    }
+}
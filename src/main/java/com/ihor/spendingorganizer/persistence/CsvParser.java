@@ -0,0 +1,83 @@
+package com.ihor.spendingorganizer.persistence;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a streaming parser of CSV rows, quoted fields may contain delimiters, quotes ("") and line breaks
+class CsvParser {
+    private static final char QUOTE = '"';
+    private final Reader reader;
+    private final char delimiter;
+    private final StringBuilder field = new StringBuilder();
+    // Character read ahead of the current row, -2 if there's none
+    private int next = -2;
+
+    CsvParser(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns fields of the next row, or null if there are no more rows,
+    //          empty lines are skipped
+    List<String> nextRow() throws IOException {
+        List<String> row = new ArrayList<>();
+        boolean quoted = false;
+        boolean rowStarted = false;
+        field.setLength(0);
+        int c;
+        while ((c = read()) != -1) {
+            rowStarted = true;
+            if (quoted) {
+                if (c == QUOTE) {
+                    int after = read();
+                    if (after == QUOTE) {
+                        field.append(QUOTE);
+                    } else {
+                        quoted = false;
+                        next = after;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == delimiter) {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    int after = read();
+                    if (after != '\n') {
+                        next = after;
+                    }
+                }
+                if (row.isEmpty() && field.length() == 0) {
+                    rowStarted = false;
+                    continue;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!rowStarted) {
+            return null;
+        }
+        row.add(field.toString());
+        return row;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns next character, or -1 at the end of input
+    private int read() throws IOException {
+        if (next != -2) {
+            int c = next;
+            next = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
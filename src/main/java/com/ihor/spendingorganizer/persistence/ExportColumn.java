@@ -0,0 +1,19 @@
+package com.ihor.spendingorganizer.persistence;
+
+// Represents record fields that can be exported, with names used in exported files
+public enum ExportColumn {
+    TITLE("title"),
+    AMOUNT("amount"),
+    CATEGORY("category"),
+    TIME_ADDED("timeAdded");
+
+    private final String name;
+
+    ExportColumn(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
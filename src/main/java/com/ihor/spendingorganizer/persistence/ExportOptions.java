@@ -0,0 +1,56 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+
+// Represents options of an export: optional [from, to] date range, optional set of category names,
+// and columns to write in the given order; by default, all records are exported with all columns
+public class ExportOptions {
+    private LocalDate from;
+    private LocalDate to;
+    private final Set<String> categoryNames = new HashSet<>();
+    private final List<ExportColumn> columns = new ArrayList<>(Arrays.asList(ExportColumn.values()));
+
+    // MODIFIES: this
+    // EFFECTS: exports only records added in [from, to], any of them can be null to leave range open
+    public void setDateRange(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: exports only records with given categories, all records are exported if names is empty
+    public void setCategoryNames(Collection<String> names) {
+        categoryNames.clear();
+        categoryNames.addAll(names);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: exports only given columns in the given order,
+    //          throws IllegalArgumentException if columns is empty
+    public void setColumns(List<ExportColumn> columns) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("At least one column has to be exported");
+        }
+        this.columns.clear();
+        this.columns.addAll(columns);
+    }
+
+    public List<ExportColumn> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    // EFFECTS: returns true if record should be exported
+    public boolean accepts(Record record) {
+        if (Objects.nonNull(from) && record.getTimeAdded().isBefore(from.atStartOfDay())) {
+            return false;
+        }
+        if (Objects.nonNull(to) && record.getTimeAdded().isAfter(to.atTime(LocalTime.MAX))) {
+            return false;
+        }
+        return categoryNames.isEmpty() || categoryNames.contains(record.getCategory().getName());
+    }
+}
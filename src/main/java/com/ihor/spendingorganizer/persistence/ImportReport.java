@@ -0,0 +1,55 @@
+package com.ihor.spendingorganizer.persistence;
+
+import java.util.concurrent.TimeUnit;
+
+// Represents a summary of a bulk import
+public class ImportReport {
+    private final long rowsRead;
+    private final long recordsImported;
+    private final long rowsRejected;
+    private final long rowsDuplicated;
+    private final long elapsedNanos;
+
+    public ImportReport(long rowsRead, long recordsImported, long rowsRejected, long rowsDuplicated,
+                        long elapsedNanos) {
+        this.rowsRead = rowsRead;
+        this.recordsImported = recordsImported;
+        this.rowsRejected = rowsRejected;
+        this.rowsDuplicated = rowsDuplicated;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRecordsImported() {
+        return recordsImported;
+    }
+
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+
+    // EFFECTS: returns number of valid rows that were dropped because they duplicate already known records
+    public long getRowsDuplicated() {
+        return rowsDuplicated;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    // EFFECTS: returns number of rows read per second
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %,d of %,d rows, rejected %,d, dropped %,d duplicates, "
+                        + "in %.2f s (%,.0f rows/s)",
+                recordsImported, rowsRead, rowsRejected, rowsDuplicated,
+                elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,36 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+// Represents an exporter of records to JSON Lines, i.e., one JSON object per line
+public class JsonLinesExporter extends RecordExporter {
+
+    @Override
+    protected void writeHeader(Writer writer, List<ExportColumn> columns) {
+        // JSON Lines file has no header
+    }
+
+    @Override
+    protected void writeRecord(Writer writer, Record record, List<ExportColumn> columns) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < columns.size(); i++) {
+            ExportColumn column = columns.get(i);
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(JSONObject.quote(column.getName()));
+            writer.write(':');
+            if (column == ExportColumn.AMOUNT) {
+                writer.write(valueOf(record, column));
+            } else {
+                writer.write(JSONObject.quote(valueOf(record, column)));
+            }
+        }
+        writer.write("}\n");
+    }
+}
@@ -4,63 +4,145 @@ import com.ihor.spendingorganizer.model.Categories;
 import com.ihor.spendingorganizer.model.Category;
 import com.ihor.spendingorganizer.model.Record;
 import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.SpendingTotals;
 import com.ihor.spendingorganizer.model.exceptions.NameException;
 import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Comparator;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.InflaterInputStream;
 
-// Represents reader that reads SpendingList from provided JSON file
+// Represents reader that reads SpendingList from provided JSON file,
+// files with the compressed extension are inflated on the fly
 // Implementation of the class is based on the JsonReader class from JsonSerializationDemo
 public class JsonReader {
+    // Number of parsed records between two progress updates
+    private static final int PROGRESS_STEP = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Key of the optional footer with totals per category and month
+    static final String AGGREGATES = "aggregates";
+    // Key of the optional array of distinct titles, records refer to them by index if it's present
+    static final String TITLES = "titles";
     private JSONObject json;
+    private AggregateChecksum checksum;
+    private Map<String, Category> recordCategories;
     private final String path;
+    private final ReadProgressListener listener;
 
     public JsonReader(String path) {
+        this(path, ReadProgressListener.NONE);
+    }
+
+    public JsonReader(String path, ReadProgressListener listener) {
         this.path = path;
+        this.listener = listener;
     }
 
     // MODIFIES: this
     // EFFECTS: returns SpendingList from the file,
     //          throws IOException if there's an error while reading file from the path,
+    //          throws InterruptedIOException if reading thread is interrupted,
     //          throws NegativeAmountException or NameException if file is corrupted
     public SpendingList read() throws IOException, NegativeAmountException, NameException {
-        String fileContents = getFileContents();
-        json = new JSONObject(fileContents);
+        json = parseFileContents();
         return readSpendingList();
     }
 
-    // EFFECTS: returns contents of file from the path as a String
+    // EFFECTS: streams contents of file from the path into a JSON object, reporting bytes read to listener,
+    //          progress of compressed files is measured in compressed bytes,
     //          throws IOException if there's a problem reading the file from path
-    private String getFileContents() throws IOException {
-        // Implementation is taken from
-        // https://www.youtube.com/watch?v=6IGl4Tf2VVI
-        return new String(Files.readAllBytes(Paths.get(path)));
+    private JSONObject parseFileContents() throws IOException {
+        Path file = Paths.get(path);
+        long totalBytes = Files.size(file);
+        InputStream in = new ProgressInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), totalBytes, listener);
+        if (JsonSpendingListStore.isCompressed(path)) {
+            in = new BufferedInputStream(new InflaterInputStream(in), BUFFER_SIZE);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return new JSONObject(new JSONTokener(reader));
+        } catch (JSONException e) {
+            // JSONTokener wraps exceptions of the underlying reader
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
     }
 
     // EFFECTS: returns SpendingList from json,
-    //          throws NameException or NegativeAmountException if file is corrupted
-    private SpendingList readSpendingList() throws NameException, NegativeAmountException {
+    //          throws NameException or NegativeAmountException if file is corrupted,
+    //          throws InterruptedIOException if reading thread is interrupted
+    private SpendingList readSpendingList() throws IOException, NameException, NegativeAmountException {
         SpendingList spendingList = parseCategories();
         parseRecords(spendingList);
-        removeDuplicateDefaultCategories(spendingList);
+        removeDuplicateDefaultCategories(spendingList.getCategories());
+        parseAggregates(spendingList);
         return spendingList;
     }
 
     // MODIFIES: spendingList
+    // EFFECTS: sets totals of spendingList to the ones stored in the footer of json,
+    //          if there's no footer, or checksum of records and stored totals doesn't match the stored one,
+    //          totals are left to be rebuilt from records
+    private void parseAggregates(SpendingList spendingList) {
+        JSONObject jsonAggregates = json.optJSONObject(AGGREGATES);
+        if (Objects.isNull(jsonAggregates)) {
+            return;
+        }
+        try {
+            SpendingTotals totals = new SpendingTotals();
+            JSONArray jsonArray = jsonAggregates.getJSONArray("totals");
+            for (int i = 0; i < jsonArray.length(); i++) {
+                JSONObject jsonTotal = jsonArray.getJSONObject(i);
+                Category category = recordCategories.get(jsonTotal.getString("category"));
+                if (Objects.isNull(category)) {
+                    return;
+                }
+                LocalDate month = LocalDate.parse(jsonTotal.getString("month"));
+                double amount = jsonTotal.getDouble("amount");
+                int count = jsonTotal.getInt("count");
+                if (count <= 0) {
+                    return;
+                }
+                checksum.update(category.getName(), month, amount, count);
+                totals.add(category, month, amount, count);
+            }
+            if (jsonAggregates.optLong("checksum") == checksum.getValue()) {
+                spendingList.setTotals(totals);
+            }
+        } catch (JSONException | DateTimeParseException e) {
+            // footer is corrupted, totals are rebuilt from records
+        }
+    }
+
+    // MODIFIES: categories
     // EFFECTS: removes automatically created default category from categories
-    private void removeDuplicateDefaultCategories(SpendingList spendingList) {
-        List<Category> defaultCategories = spendingList.getCategories().getCategories()
-                .filtered(Category::isDefault);
+    static void removeDuplicateDefaultCategories(Categories categories) {
+        List<Category> defaultCategories = categories.getCategories().filtered(Category::isDefault);
 
         if (defaultCategories.size() == 2) {
-            spendingList.getCategories().getCategories().removeIf(c -> c.getName().equals("default"));
-            spendingList.getCategories().setDefaultCategory(defaultCategories.get(0));
+            categories.getCategories().removeIf(c -> c.getName().equals("default"));
+            categories.setDefaultCategory(defaultCategories.get(0));
         }
     }
 
@@ -78,21 +160,63 @@ public class JsonReader {
     }
 
     // MODIFIES: spendingList
-    // EFFECTS: adds records from json to spendingList
-    //          throws NameException or NegativeAmountException if records in the file are corrupted
-    private void parseRecords(SpendingList spendingList) throws NameException, NegativeAmountException {
+    // EFFECTS: returns titles from json, each of them is stored once in titles of spendingList,
+    //          returns null if json has no titles, i.e., records have titles instead of indexes
+    private String[] parseTitles(SpendingList spendingList) {
+        JSONArray jsonArray = json.optJSONArray(TITLES);
+        if (Objects.isNull(jsonArray)) {
+            return null;
+        }
+        String[] titles = new String[jsonArray.length()];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = spendingList.getTitles().canonical(jsonArray.getString(i));
+        }
+        return titles;
+    }
+
+    // MODIFIES: spendingList
+    // EFFECTS: returns title of jsonRecord, which is either an index in titles or the title itself,
+    //          equal titles share one String,
+    //          throws NameException if index is out of titles
+    private String parseTitle(JSONObject jsonRecord, String[] titles, SpendingList spendingList)
+            throws NameException {
+        if (Objects.isNull(titles)) {
+            return spendingList.getTitles().canonical(jsonRecord.getString("title"));
+        }
+        int index = jsonRecord.getInt("title");
+        if (index < 0 || index >= titles.length) {
+            throw new NameException("title");
+        }
+        return titles[index];
+    }
+
+    // MODIFIES: spendingList
+    // EFFECTS: adds records from json to spendingList, reporting number of parsed records to listener,
+    //          records are built without being logged and added at once, since this runs on a background thread,
+    //          throws NameException or NegativeAmountException if records in the file are corrupted,
+    //          throws InterruptedIOException if reading thread is interrupted
+    private void parseRecords(SpendingList spendingList) throws IOException, NameException, NegativeAmountException {
         JSONArray jsonArray = json.getJSONArray("records");
+        String[] titles = parseTitles(spendingList);
         Categories categories = spendingList.getCategories();
+        checksum = new AggregateChecksum();
+        recordCategories = new HashMap<>();
+        List<Record> records = new ArrayList<>(jsonArray.length());
         for (int i = 0; i < jsonArray.length(); i++) {
-            Record record = new Record();
+            if (i % PROGRESS_STEP == 0) {
+                ProgressInputStream.checkInterrupted();
+                listener.recordsParsed(i, jsonArray.length());
+            }
             JSONObject jsonRecord = jsonArray.getJSONObject(i);
-            record.setTitle(jsonRecord.getString("title"));
-            record.setAmount(jsonRecord.getDouble("amount"));
-            record.setCategory(categories.getCategoryByName(jsonRecord.getJSONObject("category").getString("name")));
-            record.setTimeAdded(jsonRecord.getString("timeAdded"));
-            spendingList.addRecord(record);
+            Record record = new Record(parseTitle(jsonRecord, titles, spendingList), jsonRecord.getDouble("amount"),
+                    categories.getCategoryByName(jsonRecord.getJSONObject("category").getString("name")),
+                    LocalDateTime.parse(jsonRecord.getString("timeAdded")));
+            checksum.update(record);
+            recordCategories.putIfAbsent(record.getCategory().getName(), record.getCategory());
+            records.add(record);
         }
-        spendingList.getRecords()
-                .sort(Comparator.comparing(Record::getTimeAdded).reversed());
+        listener.recordsParsed(jsonArray.length(), jsonArray.length());
+        spendingList.addRecords(records);
+        spendingList.sortByTimeAdded();
     }
 }
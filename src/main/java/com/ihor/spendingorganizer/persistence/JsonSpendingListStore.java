@@ -0,0 +1,88 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a SpendingListStore that keeps SpendingList in a JSON file, or in a deflated JSON file,
+// uses JsonReader and JsonWriter to access the file
+public class JsonSpendingListStore implements SpendingListStore {
+
+    public static final String EXTENSION = ".json";
+    public static final String COMPRESSED_EXTENSION = ".jsonz";
+
+    @Override
+    public boolean supports(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(EXTENSION) || name.endsWith(COMPRESSED_EXTENSION);
+    }
+
+    // EFFECTS: returns true if file at path is stored compressed
+    public static boolean isCompressed(String path) {
+        return path.toLowerCase().endsWith(COMPRESSED_EXTENSION);
+    }
+
+    @Override
+    public SpendingList open(Path path, ReadProgressListener listener)
+            throws IOException, NegativeAmountException, NameException {
+        return new JsonReader(path.toString(), listener).read();
+    }
+
+    @Override
+    public void save(SpendingList spendingList, Path path) throws IOException {
+        JsonWriter writer = new JsonWriter(path.toString());
+        writer.open();
+        try {
+            writer.write(spendingList);
+        } finally {
+            writer.close();
+        }
+        if (writer.hasErrors()) {
+            throw new IOException("Couldn't write the file " + path);
+        }
+    }
+
+    @Override
+    // JSON file can't be extended in place, so the whole file is read, extended and written back,
+    // records that other files of the workspace of the file already have are dropped too,
+    // records of the file stay sorted by date, however old appended records are
+    public void append(Path path, List<Record> records) throws IOException, NegativeAmountException, NameException {
+        SpendingList spendingList = open(path);
+        Categories categories = spendingList.getCategories();
+        RecordDeduplicator deduplicator = new RecordDeduplicator(spendingList.getRecords());
+        WorkspaceCatalog.addWorkspaceHistoryTo(deduplicator, List.of(path));
+        List<Record> appended = new ArrayList<>();
+        for (Record r : deduplicator.removeDuplicates(records)) {
+            appended.add(new Record(r.getTitle(), r.getAmount(), findOrCreateCategory(r.getCategory(), categories),
+                    r.getTimeAdded()));
+        }
+        spendingList.addRecords(appended);
+        spendingList.sortByTimeAdded();
+        save(spendingList, path);
+    }
+
+    @Override
+    public List<Record> query(Path path, LocalDate from, LocalDate to)
+            throws IOException, NegativeAmountException, NameException {
+        return open(path).getRecordsBetween(from, to);
+    }
+
+    // MODIFIES: categories
+    // EFFECTS: returns category from categories that has same name as category,
+    //          if there's no such category, adds a new one to categories
+    private Category findOrCreateCategory(Category category, Categories categories) throws NameException {
+        if (categories.getCategoriesNames().contains(category.getName())) {
+            return categories.getCategoryByName(category.getName());
+        }
+        return new Category(category.getName(), categories);
+    }
+}
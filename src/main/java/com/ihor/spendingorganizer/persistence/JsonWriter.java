@@ -1,34 +1,146 @@
 package com.ihor.spendingorganizer.persistence;
 
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
 import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.SpendingTotals;
 import org.json.JSONObject;
 
+import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
-// Represents writer that creates a JSON file from provided SpendingList
+// Represents writer that creates a JSON file from provided SpendingList,
+// categories, distinct titles and records are streamed to the file one by one, followed by a footer with aggregates,
+// records refer to their titles by index, so each title is written once,
+// files with the compressed extension are deflated on the fly
 // Implementation of the class is based on the JsonWriter class from JsonSerializationDemo
 public class JsonWriter implements AutoCloseable {
-    private static final int TAB = 2;
+    private static final String TAB = "  ";
+    private static final int BUFFER_SIZE = 64 * 1024;
     private PrintWriter writer;
+    private Deflater deflater;
     private final String destination;
+    private final int compressionLevel;
 
     public JsonWriter(String destination) {
+        this(destination, StorageSettings.getCompressionLevel());
+    }
+
+    // REQUIRES: compressionLevel is in [0, 9] or is Deflater.DEFAULT_COMPRESSION
+    public JsonWriter(String destination, int compressionLevel) {
         this.destination = destination;
+        this.compressionLevel = compressionLevel;
     }
 
     // MODIFIES: this
     // EFFECTS: opens writer,
     //          throws FileNotFoundException if file with path can't be found
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(destination);
+        OutputStream out = new FileOutputStream(destination);
+        if (JsonSpendingListStore.isCompressed(destination)) {
+            deflater = new Deflater(compressionLevel);
+            out = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+        }
+        writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
     }
 
     // MODIFIES: this
     // EFFECTS: writes SpendingList to a JSON file and saves it
     public void write(SpendingList spendingList) {
-        JSONObject json = spendingList.toJsonObject();
-        writer.print(json.toString(TAB));
+        writer.print("{\n" + TAB + "\"categories\": [");
+        Iterator<Category> categories = spendingList.getCategories().getCategories().iterator();
+        while (categories.hasNext()) {
+            writer.print("\n" + TAB + TAB + categories.next().toJsonObject().toString());
+            writer.print(categories.hasNext() ? "," : "\n" + TAB);
+        }
+        List<String> titles = new ArrayList<>();
+        int[] fileCodes = encodeTitles(spendingList, titles);
+        writer.print("],\n" + TAB + "\"" + JsonReader.TITLES + "\": [");
+        for (int i = 0; i < titles.size(); i++) {
+            writer.print("\n" + TAB + TAB + JSONObject.quote(titles.get(i)));
+            writer.print(i < titles.size() - 1 ? "," : "\n" + TAB);
+        }
+        writer.print("],\n" + TAB + "\"records\": [");
+        AggregateChecksum checksum = new AggregateChecksum();
+        Iterator<Record> records = spendingList.getRecords().iterator();
+        while (records.hasNext()) {
+            Record record = records.next();
+            checksum.update(record);
+            JSONObject jsonRecord = record.toJsonObject();
+            jsonRecord.put("title", fileCodes[spendingList.getTitleCode(record)]);
+            writer.print("\n" + TAB + TAB + jsonRecord);
+            writer.print(records.hasNext() ? "," : "\n" + TAB);
+        }
+        writer.print("],\n" + TAB + "\"" + JsonReader.AGGREGATES + "\": ");
+        writeAggregates(spendingList.getTotals(), checksum);
+        writer.print("\n}\n");
+    }
+
+    // MODIFIES: spendingList, titles
+    // EFFECTS: adds titles that records of spendingList have to titles, in order of their first use,
+    //          and returns their indexes in titles, indexed by their codes in spendingList,
+    //          titles that no record has anymore aren't added, and have index -1
+    private int[] encodeTitles(SpendingList spendingList, List<String> titles) {
+        int[] fileCodes = new int[0];
+        for (Record record : spendingList.getRecords()) {
+            int code = spendingList.getTitleCode(record);
+            if (code >= fileCodes.length) {
+                int oldLength = fileCodes.length;
+                fileCodes = Arrays.copyOf(fileCodes, spendingList.getTitles().size());
+                Arrays.fill(fileCodes, oldLength, fileCodes.length, -1);
+            }
+            if (fileCodes[code] == -1) {
+                fileCodes[code] = titles.size();
+                titles.add(spendingList.getTitles().getTitle(code));
+            }
+        }
+        return fileCodes;
+    }
+
+    // MODIFIES: this, checksum
+    // EFFECTS: writes footer with totals per category and month together with their numbers of records,
+    //          and checksum of records they were computed from followed by the totals themselves,
+    //          so a footer whose totals were changed isn't trusted
+    private void writeAggregates(SpendingTotals totals, AggregateChecksum checksum) {
+        List<JSONObject> jsonTotals = new ArrayList<>();
+        for (Map.Entry<Category, Map<LocalDate, Double>> byCategory : totals.asMap().entrySet()) {
+            for (Map.Entry<LocalDate, Double> byMonth : byCategory.getValue().entrySet()) {
+                JSONObject total = new JSONObject();
+                total.put("category", byCategory.getKey().getName());
+                total.put("month", byMonth.getKey().toString());
+                total.put("amount", byMonth.getValue());
+                int count = totals.getCount(byCategory.getKey(), byMonth.getKey());
+                total.put("count", count);
+                checksum.update(byCategory.getKey().getName(), byMonth.getKey(), byMonth.getValue(), count);
+                jsonTotals.add(total);
+            }
+        }
+        writer.print("{\n" + TAB + TAB + "\"checksum\": " + checksum.getValue() + ",");
+        writer.print("\n" + TAB + TAB + "\"totals\": [");
+        for (int i = 0; i < jsonTotals.size(); i++) {
+            writer.print((i == 0 ? "\n" : ",\n") + TAB + TAB + TAB + jsonTotals.get(i));
+        }
+        writer.print("\n" + TAB + TAB + "]\n" + TAB + "}");
+    }
+
+    // EFFECTS: returns true if there was an error while writing to or closing the file
+    public boolean hasErrors() {
+        return writer.checkError();
     }
 
     @Override
@@ -36,5 +148,8 @@ public class JsonWriter implements AutoCloseable {
     // EFFECTS: closes the writer
     public void close() {
         writer.close();
+        if (Objects.nonNull(deflater)) {
+            deflater.end();
+        }
     }
 }
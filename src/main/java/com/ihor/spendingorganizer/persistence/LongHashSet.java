@@ -0,0 +1,98 @@
+package com.ihor.spendingorganizer.persistence;
+
+// Represents a set of primitive longs that uses open addressing with linear probing,
+// so adding a value allocates nothing unless the table has to grow
+// INVARIANT: table is at most half full, its length is a power of 2,
+//            0 marks an empty slot, so 0 itself is kept in hasZero
+public class LongHashSet {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] table;
+    private int size;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    // EFFECTS: creates a set that can hold expectedSize values without growing
+    public LongHashSet(int expectedSize) {
+        table = new long[tableSizeFor(expectedSize)];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds value to the set, returns false if it was already there
+    public boolean add(long value) {
+        if (value == 0) {
+            boolean isAdded = !hasZero;
+            hasZero = true;
+            size += isAdded ? 1 : 0;
+            return isAdded;
+        }
+        int mask = table.length - 1;
+        for (int i = indexOf(value, mask); ; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return false;
+            }
+            if (table[i] == 0) {
+                table[i] = value;
+                if (++size > table.length / 2) {
+                    grow();
+                }
+                return true;
+            }
+        }
+    }
+
+    // EFFECTS: returns true if value is in the set
+    public boolean contains(long value) {
+        if (value == 0) {
+            return hasZero;
+        }
+        int mask = table.length - 1;
+        for (int i = indexOf(value, mask); ; i = (i + 1) & mask) {
+            if (table[i] == value) {
+                return true;
+            }
+            if (table[i] == 0) {
+                return false;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the table and puts all values into it again
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for (long value : old) {
+            if (value != 0) {
+                int i = indexOf(value, mask);
+                while (table[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = value;
+            }
+        }
+    }
+
+    // EFFECTS: returns slot that probing for value starts at
+    private static int indexOf(long value, int mask) {
+        long hash = value * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    // EFFECTS: returns smallest power of 2 that keeps expectedSize values at most half full
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity / 2 < expectedSize) {
+            capacity *= 2;
+        }
+        return capacity;
+    }
+}
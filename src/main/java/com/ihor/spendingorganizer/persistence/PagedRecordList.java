@@ -0,0 +1,387 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import javafx.collections.ObservableListBase;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Represents a read-only view of records of a JSON file that doesn't keep all the records in memory,
+// file is scanned once to build an index with the offset of every pageSize-th record,
+// records are read from the file a page at a time when they are first accessed, e.g., when a table shows them,
+// and least recently used pages are evicted once estimated size of loaded records exceeds maxBytes,
+// records are in the order they are stored in the file, and changing them doesn't change the file
+public class PagedRecordList extends ObservableListBase<Record> implements AutoCloseable {
+    static final int DEFAULT_PAGE_SIZE = 256;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PAGE_BUFFER_SIZE = 16 * 1024;
+    // Rough size of a record and its time, categories are shared and aren't counted,
+    // properties are created only for the few records a table shows, so they aren't counted either
+    private static final int RECORD_BYTES = 160;
+
+    private final FileChannel channel;
+    private final int pageSize;
+    private final long maxBytes;
+    private final Categories categories;
+    private final Map<String, Category> categoriesByName;
+    // Distinct titles that records refer to by index, empty if records have titles instead of indexes
+    private final List<String> titles;
+    private final long[] pageOffsets;
+    private final int size;
+    // Loaded pages from least to most recently used
+    private final LinkedHashMap<Integer, Page> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long loadedBytes;
+
+    private PagedRecordList(FileChannel channel, int pageSize, long maxBytes, Index index) {
+        this.channel = channel;
+        this.pageSize = pageSize;
+        this.maxBytes = maxBytes;
+        this.categories = index.categories;
+        this.pageOffsets = Arrays.copyOf(index.pageOffsets, index.pageCount);
+        this.size = index.recordCount;
+        this.titles = index.titles;
+        this.categoriesByName = new HashMap<>();
+        categories.getCategories().forEach(c -> categoriesByName.putIfAbsent(c.getName(), c));
+    }
+
+    // EFFECTS: returns paged view of records of the file at path, with memory limit set by StorageSettings,
+    //          throws IOException if file can't be read, is compressed, or has no records array
+    public static PagedRecordList open(Path path) throws IOException {
+        return open(path, StorageSettings.getPageCacheMaxBytes(), ReadProgressListener.NONE);
+    }
+
+    // EFFECTS: returns paged view of records of the file at path that keeps about maxBytes of records in memory,
+    //          reports bytes scanned while building the index to listener,
+    //          throws IOException if file can't be read, is compressed, or has no records array,
+    //          throws InterruptedIOException if scanning thread is interrupted
+    public static PagedRecordList open(Path path, long maxBytes, ReadProgressListener listener) throws IOException {
+        return open(path, DEFAULT_PAGE_SIZE, maxBytes, listener);
+    }
+
+    // REQUIRES: pageSize > 0
+    // EFFECTS: same as open(Path path, long maxBytes, ReadProgressListener listener), with pageSize records a page
+    static PagedRecordList open(Path path, int pageSize, long maxBytes, ReadProgressListener listener)
+            throws IOException {
+        if (JsonSpendingListStore.isCompressed(path.toString())) {
+            throw new IOException("Compressed files can't be read page by page");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Index index = new Index(pageSize, new Categories());
+            index.scan(channel, listener);
+            return new PagedRecordList(channel, pageSize, maxBytes, index);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        } catch (NameException e) {
+            channel.close();
+            // name of the automatically created default category is always valid
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns record at index, reading its page from the file if it isn't loaded,
+    //          throws UncheckedIOException if the page can't be read or is corrupted
+    @Override
+    public synchronized Record get(int index) {
+        Objects.checkIndex(index, size);
+        int pageIndex = index / pageSize;
+        Page page = pages.get(pageIndex);
+        if (Objects.isNull(page)) {
+            try {
+                page = readPage(pageIndex);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pages.put(pageIndex, page);
+            loadedBytes += page.bytes;
+            evict();
+        }
+        return page.records[index % pageSize];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public Categories getCategories() {
+        return categories;
+    }
+
+    // EFFECTS: returns number of pages that are currently loaded
+    public synchronized int getLoadedPages() {
+        return pages.size();
+    }
+
+    // EFFECTS: returns estimated size in bytes of records that are currently loaded
+    public synchronized long getLoadedBytes() {
+        return loadedBytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: evicts least recently used pages until loaded records fit in maxBytes,
+    //          the most recently used page is always kept
+    private void evict() {
+        Iterator<Page> leastRecentlyUsed = pages.values().iterator();
+        while (loadedBytes > maxBytes && pages.size() > 1) {
+            loadedBytes -= leastRecentlyUsed.next().bytes;
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    // EFFECTS: reads records of page pageIndex from the file,
+    //          throws IOException if they can't be read or are corrupted
+    private Page readPage(int pageIndex) throws IOException {
+        int first = pageIndex * pageSize;
+        Record[] records = new Record[Math.min(pageSize, size - first)];
+        long bytes = 0;
+        channel.position(pageOffsets[pageIndex]);
+        // the stream isn't closed, as that would close the channel
+        JSONTokener tokener = new JSONTokener(new InputStreamReader(
+                new BufferedInputStream(Channels.newInputStream(channel), PAGE_BUFFER_SIZE), StandardCharsets.UTF_8));
+        try {
+            for (int i = 0; i < records.length; i++) {
+                if (i > 0 && tokener.nextClean() != ',') {
+                    throw new IOException("Record " + (first + i) + " is corrupted");
+                }
+                records[i] = parseRecord((JSONObject) tokener.nextValue());
+                bytes += RECORD_BYTES + (titles.isEmpty() ? 2L * records[i].getTitle().length() : 0);
+            }
+        } catch (JSONException | ClassCastException | DateTimeParseException
+                 | NameException | NegativeAmountException e) {
+            throw new IOException("Records of page " + pageIndex + " are corrupted", e);
+        }
+        return new Page(records, bytes);
+    }
+
+    // EFFECTS: returns record from jsonRecord, records of unknown categories get the default category,
+    //          throws NameException if title of jsonRecord is blank or isn't in titles
+    private Record parseRecord(JSONObject jsonRecord) throws NameException, NegativeAmountException {
+        Category category = categoriesByName.getOrDefault(
+                jsonRecord.getJSONObject("category").getString("name"), categories.getDefaultCategory());
+        return new Record(parseTitle(jsonRecord), jsonRecord.getDouble("amount"), category,
+                LocalDateTime.parse(jsonRecord.getString("timeAdded")));
+    }
+
+    // EFFECTS: returns title of jsonRecord, which is either an index in titles or the title itself,
+    //          titles of records that refer to titles are shared by all of them,
+    //          throws NameException if index is out of titles
+    private String parseTitle(JSONObject jsonRecord) throws NameException {
+        if (titles.isEmpty()) {
+            return jsonRecord.getString("title");
+        }
+        int index = jsonRecord.getInt("title");
+        if (index < 0 || index >= titles.size()) {
+            throw new NameException("title");
+        }
+        return titles.get(index);
+    }
+
+    @Override
+    // MODIFIES: this
+    // EFFECTS: unloads all pages and closes the file
+    public synchronized void close() throws IOException {
+        pages.clear();
+        loadedBytes = 0;
+        channel.close();
+    }
+
+    // Represents records of one page and their estimated size in bytes
+    private static final class Page {
+        private final Record[] records;
+        private final long bytes;
+
+        Page(Record[] records, long bytes) {
+            this.records = records;
+            this.bytes = bytes;
+        }
+    }
+
+    // Represents a single pass over a JSON file that finds offsets of records and parses categories and titles,
+    // only structural characters are tracked, so the file can be formatted in any way
+    private static final class Index {
+        private final int pageSize;
+        private final Categories categories;
+        private final List<String> titles = new ArrayList<>();
+        private long[] pageOffsets = new long[16];
+        private int pageCount;
+        private int recordCount;
+        private boolean hasRecords;
+
+        private int depth;
+        private boolean inString;
+        private boolean isEscaped;
+        // Top-level key that was read last
+        private String lastKey;
+        // Bytes of the top-level key or title that is being read, null if scanner isn't in one of them
+        private ByteArrayOutputStream key;
+        // Top-level array that is being scanned, null if scanner isn't in a top-level array
+        private String array;
+        // Bytes of the category that is being read, null if scanner isn't in a category
+        private ByteArrayOutputStream category;
+
+        Index(int pageSize, Categories categories) {
+            this.pageSize = pageSize;
+            this.categories = categories;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: scans all bytes of channel, reporting bytes scanned to listener,
+        //          throws IOException if file has no records array or its categories are corrupted,
+        //          throws InterruptedIOException if scanning thread is interrupted
+        void scan(FileChannel channel, ReadProgressListener listener) throws IOException {
+            long totalBytes = channel.size();
+            long offset = 0;
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                ProgressInputStream.checkInterrupted();
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    accept(buffer.get(), offset++);
+                }
+                buffer.clear();
+                listener.bytesRead(offset, totalBytes);
+            }
+            if (!hasRecords) {
+                throw new IOException("File has no records");
+            }
+            JsonReader.removeDuplicateDefaultCategories(categories);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: updates state of the scanner with byte b at offset
+        private void accept(byte b, long offset) throws IOException {
+            if (Objects.nonNull(category)) {
+                category.write(b);
+            }
+            if (inString) {
+                acceptInString(b);
+                return;
+            }
+            switch (b) {
+                case '"':
+                    inString = true;
+                    key = depth == 1 || (depth == 2 && JsonReader.TITLES.equals(array))
+                            ? new ByteArrayOutputStream() : null;
+                    break;
+                case '[':
+                case '{':
+                    if (depth == 1) {
+                        array = b == '[' ? lastKey : null;
+                        hasRecords |= "records".equals(array);
+                    } else if (depth == 2 && b == '{') {
+                        startElement(offset);
+                    }
+                    depth++;
+                    break;
+                case ']':
+                case '}':
+                    depth--;
+                    if (depth == 2 && Objects.nonNull(category)) {
+                        addCategory();
+                    } else if (depth == 1) {
+                        array = null;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: updates state of the scanner with byte b of a string
+        private void acceptInString(byte b) throws IOException {
+            if (isEscaped) {
+                isEscaped = false;
+            } else if (b == '\\') {
+                isEscaped = true;
+            } else if (b == '"') {
+                inString = false;
+                if (Objects.nonNull(key)) {
+                    readKey();
+                }
+                return;
+            }
+            if (Objects.nonNull(key)) {
+                key.write(b);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds string that has just been read to titles if it's in the titles array,
+        //          otherwise remembers it as the last top-level key,
+        //          throws IOException if title is corrupted
+        private void readKey() throws IOException {
+            String raw = key.toString(StandardCharsets.UTF_8);
+            key = null;
+            if (depth == 1) {
+                lastKey = raw;
+                return;
+            }
+            try {
+                titles.add((String) new JSONTokener("\"" + raw + "\"").nextValue());
+            } catch (JSONException e) {
+                throw new IOException("Titles are corrupted", e);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: registers element of a top-level array that starts at offset
+        private void startElement(long offset) {
+            if ("records".equals(array)) {
+                if (recordCount % pageSize == 0) {
+                    if (pageCount == pageOffsets.length) {
+                        pageOffsets = Arrays.copyOf(pageOffsets, 2 * pageCount);
+                    }
+                    pageOffsets[pageCount++] = offset;
+                }
+                recordCount++;
+            } else if ("categories".equals(array)) {
+                category = new ByteArrayOutputStream();
+                category.write('{');
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds category that has just been read to categories,
+        //          throws IOException if it's corrupted
+        private void addCategory() throws IOException {
+            try {
+                JSONObject jsonCategory = new JSONObject(category.toString(StandardCharsets.UTF_8));
+                new Category(jsonCategory.getString("name"), categories,
+                        jsonCategory.getBoolean("isShown"), jsonCategory.getBoolean("isDefault"));
+            } catch (JSONException | NameException e) {
+                throw new IOException("Categories are corrupted", e);
+            }
+            category = null;
+        }
+    }
+}
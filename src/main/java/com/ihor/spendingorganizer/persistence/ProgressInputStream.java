@@ -0,0 +1,55 @@
+package com.ihor.spendingorganizer.persistence;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+// Represents an input stream that reports number of bytes read to ReadProgressListener,
+// and stops reading once the reading thread is interrupted
+class ProgressInputStream extends FilterInputStream {
+
+    private final ReadProgressListener listener;
+    private final long totalBytes;
+    private long bytesRead;
+
+    ProgressInputStream(InputStream in, long totalBytes, ReadProgressListener listener) {
+        super(in);
+        this.totalBytes = totalBytes;
+        this.listener = listener;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkInterrupted();
+        int b = super.read();
+        if (b != -1) {
+            update(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        checkInterrupted();
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            update(n);
+        }
+        return n;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds n to bytesRead and notifies listener
+    private void update(int n) {
+        bytesRead += n;
+        listener.bytesRead(bytesRead, totalBytes);
+    }
+
+    // EFFECTS: throws InterruptedIOException if current thread is interrupted
+    static void checkInterrupted() throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Reading was cancelled");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ihor.spendingorganizer.persistence;
+
+// Represents a listener that is notified about progress while SpendingList is being read
+public interface ReadProgressListener {
+
+    // Listener that ignores all progress updates
+    ReadProgressListener NONE = new ReadProgressListener() {
+    };
+
+    // EFFECTS: is called after more bytes of the source have been read,
+    //          totalBytes is -1 if size of the source is unknown
+    default void bytesRead(long bytesRead, long totalBytes) {
+    }
+
+    // EFFECTS: is called after more records have been parsed
+    default void recordsParsed(int recordsParsed, int totalRecords) {
+    }
+}
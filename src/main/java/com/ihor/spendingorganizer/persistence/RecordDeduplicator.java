@@ -0,0 +1,108 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+
+import java.io.IOException;
+import java.util.*;
+
+// Represents a duplicate check for bulk ingest: a record is a duplicate if a record with the same fingerprint
+// is already known, i.e., it was added with addAll, or it is in one of the history segments;
+// history segments (e.g., years of other files) are fronted by Bloom filters,
+// so a segment is loaded only when its filter says it might contain a checked record
+public class RecordDeduplicator {
+    private final LongHashSet known;
+    private final Map<Integer, List<Segment>> segmentsByYear = new HashMap<>();
+    private long duplicates;
+
+    public RecordDeduplicator() {
+        known = new LongHashSet();
+    }
+
+    // EFFECTS: creates a deduplicator that knows records
+    public RecordDeduplicator(Collection<Record> records) {
+        known = new LongHashSet(records.size());
+        addAll(records);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes records known, so records with the same fingerprints are duplicates
+    public void addAll(Collection<Record> records) {
+        for (Record r : records) {
+            known.add(r.fingerprint());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a history segment with records added in year,
+    //          filter has fingerprints of all its records, and loader returns them
+    public void addSegment(int year, BloomFilter filter, SegmentLoader loader) {
+        segmentsByYear.computeIfAbsent(year, y -> new ArrayList<>()).add(new Segment(filter, loader));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true and counts record as a duplicate if its fingerprint is known or is in history,
+    //          throws IOException if a history segment that might contain record can't be loaded
+    public boolean isDuplicate(Record record) throws IOException {
+        long fingerprint = record.fingerprint();
+        boolean isDuplicate = known.contains(fingerprint) || isInHistory(fingerprint, record.getTimeAdded().getYear());
+        if (isDuplicate) {
+            duplicates++;
+        }
+        return isDuplicate;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns records that aren't duplicates, keeping their order
+    public List<Record> removeDuplicates(List<Record> records) throws IOException {
+        List<Record> unique = new ArrayList<>(records.size());
+        for (Record r : records) {
+            if (!isDuplicate(r)) {
+                unique.add(r);
+            }
+        }
+        return unique;
+    }
+
+    // EFFECTS: returns number of records found to be duplicates so far
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns true if fingerprint is in one of the segments of year, loading those that might contain it
+    private boolean isInHistory(long fingerprint, int year) throws IOException {
+        for (Segment segment : segmentsByYear.getOrDefault(year, Collections.emptyList())) {
+            if (segment.filter.mightContain(fingerprint) && segment.load().contains(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Represents a loader of fingerprints of a history segment
+    @FunctionalInterface
+    public interface SegmentLoader {
+        // EFFECTS: returns fingerprints of all records of the segment,
+        //          throws IOException if segment can't be read
+        LongHashSet load() throws IOException;
+    }
+
+    // Represents a history segment that is loaded on first use
+    private static final class Segment {
+        private final BloomFilter filter;
+        private final SegmentLoader loader;
+        private LongHashSet fingerprints;
+
+        Segment(BloomFilter filter, SegmentLoader loader) {
+            this.filter = filter;
+            this.loader = loader;
+        }
+
+        LongHashSet load() throws IOException {
+            if (fingerprints == null) {
+                fingerprints = loader.load();
+            }
+            return fingerprints;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Represents an exporter that streams records of SpendingList to a file in one pass,
+// each record is written as soon as it is visited, so memory used doesn't depend on number of records
+public abstract class RecordExporter {
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    // EFFECTS: writes records of spendingList accepted by options to the file at path, replacing it,
+    //          returns number of exported records,
+    //          throws IOException if there's an error while writing to the file
+    public long export(SpendingList spendingList, Path path, ExportOptions options) throws IOException {
+        return export(spendingList.getRecords(), path, options);
+    }
+
+    // EFFECTS: same as export(SpendingList spendingList, Path path, ExportOptions options) for records,
+    //          e.g., a snapshot of records taken on the FX thread, so they can be exported on another thread,
+    //          throws InterruptedIOException if exporting thread is interrupted, partly written file is deleted then
+    public long export(List<Record> records, Path path, ExportOptions options) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            return export(records, writer, options);
+        } catch (InterruptedIOException | ClosedByInterruptException e) {
+            Files.deleteIfExists(path);
+            throw new InterruptedIOException("Export was cancelled");
+        }
+    }
+
+    // EFFECTS: writes records of spendingList accepted by options to writer, returns number of exported records
+    public long export(SpendingList spendingList, Writer writer, ExportOptions options) throws IOException {
+        return export(spendingList.getRecords(), writer, options);
+    }
+
+    // EFFECTS: writes records accepted by options to writer, returns number of exported records,
+    //          throws InterruptedIOException if exporting thread is interrupted
+    public long export(List<Record> records, Writer writer, ExportOptions options) throws IOException {
+        List<ExportColumn> columns = options.getColumns();
+        writeHeader(writer, columns);
+        long exported = 0;
+        for (Record r : records) {
+            ProgressInputStream.checkInterrupted();
+            if (options.accepts(r)) {
+                writeRecord(writer, r, columns);
+                exported++;
+            }
+        }
+        writer.flush();
+        return exported;
+    }
+
+    // EFFECTS: returns value of column in record as text
+    protected String valueOf(Record record, ExportColumn column) {
+        switch (column) {
+            case TITLE:
+                return record.getTitle();
+            case AMOUNT:
+                return Double.toString(record.getAmount());
+            case CATEGORY:
+                return record.getCategory().getName();
+            default:
+                return record.getTimeAdded().toString();
+        }
+    }
+
+    // EFFECTS: writes whatever precedes records in the file
+    protected abstract void writeHeader(Writer writer, List<ExportColumn> columns) throws IOException;
+
+    // EFFECTS: writes columns of record to writer
+    protected abstract void writeRecord(Writer writer, Record record, List<ExportColumn> columns) throws IOException;
+}
@@ -0,0 +1,317 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.RecordFieldException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Represents an on-disk cache of already parsed SpendingLists,
+// each source file has at most one entry, which is stored in a compact binary form and
+// is valid only while canonical path, size, modification time and content hash of the source stay the same,
+// content is hashed only once an entry with the same path, size and modification time is found;
+// once total size of entries exceeds maxBytes, least recently used entries are evicted
+public class SnapshotCache {
+    private static final int MAGIC = 0x534F4331;
+    private static final int VERSION = 2;
+    private static final String EXTENSION = ".snap";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final long maxBytes;
+
+    public SnapshotCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    // EFFECTS: returns a cache configured by StorageSettings
+    public static SnapshotCache getDefault() {
+        return new SnapshotCache(StorageSettings.getCacheDirectory(), StorageSettings.getCacheMaxBytes());
+    }
+
+    // EFFECTS: returns key of the current state of source file, contents of source aren't read,
+    //          throws IOException if source doesn't exist
+    public Key keyOf(Path source) throws IOException {
+        Path canonical = source.toRealPath();
+        long size = Files.size(canonical);
+        long modified = Files.getLastModifiedTime(canonical).toMillis();
+        return new Key(canonical.toString(), size, modified);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as get(key, ReadProgressListener.NONE)
+    public Optional<SpendingList> get(Key key) throws InterruptedIOException {
+        return get(key, ReadProgressListener.NONE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns SpendingList cached for key, and marks its entry as recently used,
+    //          returns empty if there's no entry for key, or if entry is stale or unreadable,
+    //          stale and unreadable entries are deleted,
+    //          source is hashed to check the entry only if its size and modification time match key,
+    //          progress is notified about bytes of source hashed,
+    //          throws InterruptedIOException if calling thread is interrupted, entry is kept then
+    public Optional<SpendingList> get(Key key, ReadProgressListener progress) throws InterruptedIOException {
+        Path entry = entryPath(key);
+        if (!Files.exists(entry)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(entry), BUFFER_SIZE))) {
+            if (!readKey(in).equals(key) || in.readLong() != hashContent(key, progress)) {
+                Files.deleteIfExists(entry);
+                return Optional.empty();
+            }
+            SpendingList spendingList = readSpendingList(in);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            return Optional.of(spendingList);
+        } catch (IOException | RecordFieldException | RuntimeException e) {
+            // interruption closes the channels being read, which isn't a sign of a corrupted entry
+            if (e instanceof InterruptedIOException || Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Reading snapshot was interrupted");
+            }
+            deleteQuietly(entry);
+            return Optional.empty();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores spendingList as entry for key, replacing previous entry of the same source,
+    //          and evicts least recently used entries if cache is over its size limit,
+    //          nothing is stored if source has changed since key was taken,
+    //          throws IOException if entry can't be written,
+    //          or InterruptedIOException if calling thread is interrupted while source is hashed
+    public void put(Key key, SpendingList spendingList) throws IOException {
+        long contentHash = hashContent(key, ReadProgressListener.NONE);
+        if (!keyOf(Paths.get(key.canonicalPath)).equals(key)) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "snapshot", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                writeKey(out, key);
+                out.writeLong(contentHash);
+                writeSpendingList(out, spendingList);
+            }
+            Files.move(temp, entryPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            deleteQuietly(temp);
+        }
+        evict();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes least recently used entries until total size of entries is <= maxBytes
+    private void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(p -> p.getFileName().toString().endsWith(EXTENSION))
+                    .collect(Collectors.toList());
+        }
+        Map<Path, Long> lastUsed = new HashMap<>();
+        long totalBytes = 0;
+        for (Path p : entries) {
+            lastUsed.put(p, Files.getLastModifiedTime(p).toMillis());
+            totalBytes += Files.size(p);
+        }
+        entries.sort(Comparator.comparing(lastUsed::get));
+        for (Path p : entries) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            totalBytes -= Files.size(p);
+            Files.deleteIfExists(p);
+        }
+    }
+
+    // EFFECTS: returns path of the entry for source of key
+    private Path entryPath(Key key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(key.canonicalPath.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                name.append(String.format("%02x", hash[i]));
+            }
+            return directory.resolve(name + EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is always available", e);
+        }
+    }
+
+    // EFFECTS: returns CRC32C checksum of contents of source of key,
+    //          progress is notified about bytes hashed,
+    //          throws InterruptedIOException if calling thread is interrupted, or IOException if source can't be read
+    private static long hashContent(Key key, ReadProgressListener progress) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long bytesHashed = 0;
+        try (InputStream in = Files.newInputStream(Paths.get(key.canonicalPath))) {
+            int n;
+            while (!Thread.currentThread().isInterrupted() && (n = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, n);
+                bytesHashed += n;
+                progress.bytesRead(bytesHashed, key.size);
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Hashing " + key.canonicalPath + " was interrupted");
+        }
+        return crc.getValue();
+    }
+
+    // EFFECTS: writes header with key to out
+    private void writeKey(DataOutputStream out, Key key) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(key.canonicalPath);
+        out.writeLong(key.size);
+        out.writeLong(key.lastModified);
+    }
+
+    // EFFECTS: reads header from in and returns key stored in it,
+    //          throws IOException if in doesn't start with a header of this version
+    private Key readKey(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a snapshot of this version");
+        }
+        return new Key(in.readUTF(), in.readLong(), in.readLong());
+    }
+
+    // EFFECTS: writes categories and records of spendingList to out,
+    //          records refer to categories by their index,
+    //          categories that records refer to but that aren't in the categories list are written as well
+    private void writeSpendingList(DataOutputStream out, SpendingList spendingList) throws IOException {
+        List<Category> listed = spendingList.getCategories().getCategories();
+        Map<Category, Integer> indexes = new IdentityHashMap<>();
+        listed.forEach(c -> indexes.putIfAbsent(c, indexes.size()));
+        List<Category> categories = new ArrayList<>(listed);
+        for (Record r : spendingList.getRecords()) {
+            if (indexes.putIfAbsent(r.getCategory(), indexes.size()) == null) {
+                categories.add(r.getCategory());
+            }
+        }
+        out.writeInt(categories.size());
+        for (int i = 0; i < categories.size(); i++) {
+            Category c = categories.get(i);
+            out.writeUTF(c.getName());
+            out.writeBoolean(c.isShown());
+            out.writeBoolean(c.isDefault());
+            out.writeBoolean(i < listed.size());
+        }
+        out.writeInt(indexes.getOrDefault(spendingList.getCategories().getDefaultCategory(), -1));
+
+        out.writeInt(spendingList.getRecords().size());
+        for (Record r : spendingList.getRecords()) {
+            out.writeUTF(r.getTitle());
+            out.writeDouble(r.getAmount());
+            out.writeInt(indexes.getOrDefault(r.getCategory(), -1));
+            out.writeLong(r.getTimeAdded().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(r.getTimeAdded().getNano());
+        }
+    }
+
+    // EFFECTS: reads SpendingList written by writeSpendingList from in,
+    //          throws RecordFieldException or IOException if entry is corrupted
+    private SpendingList readSpendingList(DataInputStream in) throws IOException, RecordFieldException {
+        Categories categories = new Categories();
+        Categories unlisted = null;
+        int categoriesCount = in.readInt();
+        List<Category> byIndex = new ArrayList<>(categoriesCount);
+        for (int i = 0; i < categoriesCount; i++) {
+            String name = in.readUTF();
+            boolean isShown = in.readBoolean();
+            boolean isDefault = in.readBoolean();
+            if (in.readBoolean()) {
+                new Category(name, categories, isShown, isDefault);
+                byIndex.add(categories.getCategoryByName(name));
+            } else {
+                unlisted = Objects.requireNonNullElse(unlisted, new Categories(categories));
+                byIndex.add(new Category(name, unlisted, isShown, isDefault));
+            }
+        }
+        int defaultIndex = in.readInt();
+        Category defaultCategory = defaultIndex == -1 ? categories.getDefaultCategory() : byIndex.get(defaultIndex);
+        if (defaultCategory != categories.getDefaultCategory()) {
+            categories.getCategories().remove(categories.getDefaultCategory());
+            categories.setDefaultCategory(defaultCategory);
+        }
+
+        SpendingList spendingList = new SpendingList(categories);
+        int recordsCount = in.readInt();
+        List<Record> records = new ArrayList<>(recordsCount);
+        for (int i = 0; i < recordsCount; i++) {
+            // equal titles share one String
+            String title = spendingList.getTitles().canonical(in.readUTF());
+            double amount = in.readDouble();
+            int categoryIndex = in.readInt();
+            Category category = categoryIndex == -1 ? defaultCategory : byIndex.get(categoryIndex);
+            LocalDateTime timeAdded = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            records.add(new Record(title, amount, category, timeAdded));
+        }
+        // records are restored as they were, even if they refer to categories that were removed from categories
+        spendingList.getRecords().addAll(records);
+        return spendingList;
+    }
+
+    // EFFECTS: deletes file if it exists, ignoring errors
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // file is left for the next eviction
+        }
+    }
+
+    // Represents state of a source file that a cache entry is valid for,
+    // content hash isn't part of it, so that it can be taken without reading the source
+    public static final class Key {
+        private final String canonicalPath;
+        private final long size;
+        private final long lastModified;
+
+        Key(String canonicalPath, long size, long lastModified) {
+            this.canonicalPath = canonicalPath;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+
+            return size == key.size && lastModified == key.lastModified && canonicalPath.equals(key.canonicalPath);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = canonicalPath.hashCode();
+            result = 31 * result + Long.hashCode(size);
+            result = 31 * result + Long.hashCode(lastModified);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Represents merging of several spending lists, e.g., of separate cards or years, into one SpendingList
+public final class SpendingListMerger {
+
+    private SpendingListMerger() {
+    }
+
+    // EFFECTS: opens files at paths concurrently and returns them merged into one SpendingList (see merge),
+    //          throws IOException if there's an error while reading any of the files,
+    //          throws InterruptedIOException if calling thread is interrupted, reading of all files is stopped then,
+    //          throws NegativeAmountException or NameException if any of the files is corrupted
+    public static SpendingList openMerged(List<Path> paths)
+            throws IOException, NegativeAmountException, NameException {
+        return openMerged(paths, new RecordDeduplicator());
+    }
+
+    // EFFECTS: same as openMerged(List<Path> paths), but records are deduplicated with deduplicator
+    //          (see merge(List<SpendingList> spendingLists, RecordDeduplicator deduplicator))
+    public static SpendingList openMerged(List<Path> paths, RecordDeduplicator deduplicator)
+            throws IOException, NegativeAmountException, NameException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(paths.size(), Runtime.getRuntime().availableProcessors())), r -> {
+                    Thread thread = new Thread(r, "merged-open-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            List<Future<SpendingList>> futures = new ArrayList<>();
+            for (Path path : paths) {
+                SpendingListStore store = SpendingListStores.forPath(path);
+                futures.add(pool.submit(() -> store.open(path)));
+            }
+            List<SpendingList> spendingLists = new ArrayList<>();
+            for (Future<SpendingList> future : futures) {
+                spendingLists.add(future.get());
+            }
+            return merge(spendingLists, deduplicator);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reading was cancelled");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // EFFECTS: returns a new SpendingList with categories and records of all spendingLists,
+    //          categories with the same name are unified into one category,
+    //          default categories of all lists are unified into the default category of the first list,
+    //          records of each list have to be sorted by date (from more recent to less recent),
+    //          and stay sorted this way in the returned list,
+    //          records are copied to the returned list with unified categories, nothing is logged per record,
+    //          so lists can be read and merged on background threads,
+    //          records that are in several lists are kept only once,
+    //          throws IllegalArgumentException if spendingLists is empty
+    public static SpendingList merge(List<SpendingList> spendingLists) throws NameException {
+        try {
+            return merge(spendingLists, new RecordDeduplicator());
+        } catch (IOException e) {
+            // deduplicator without history segments never reads anything
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // EFFECTS: same as merge(List<SpendingList> spendingLists), but records of each list are dropped
+    //          if deduplicator finds them to be duplicates of records of previous lists or its own known records,
+    //          throws IOException if a history segment of deduplicator can't be loaded
+    public static SpendingList merge(List<SpendingList> spendingLists, RecordDeduplicator deduplicator)
+            throws IOException, NameException {
+        if (spendingLists.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to merge");
+        }
+        Categories categories = new Categories();
+        Category defaultCategory = unifyDefaultCategory(spendingLists.get(0), categories);
+        Map<String, Category> byName = new HashMap<>();
+        categories.getCategories().forEach(c -> byName.put(c.getName(), c));
+        byName.put("default", defaultCategory);
+
+        Map<Category, Category> unified = new IdentityHashMap<>();
+        for (SpendingList spendingList : spendingLists) {
+            unified.put(spendingList.getCategories().getDefaultCategory(), defaultCategory);
+            for (Category c : spendingList.getCategories().getCategories()) {
+                unified.put(c, unify(c, byName, categories, defaultCategory));
+            }
+        }
+
+        List<List<Record>> uniqueRecords = new ArrayList<>();
+        for (SpendingList spendingList : spendingLists) {
+            List<Record> records = new ArrayList<>(spendingList.getRecords().size());
+            for (Record r : spendingList.getRecords()) {
+                Category category = unified.get(r.getCategory());
+                if (Objects.isNull(category)) {
+                    // record refers to a category that was removed from its list
+                    category = unify(r.getCategory(), byName, categories, defaultCategory);
+                    unified.put(r.getCategory(), category);
+                }
+                records.add(copyOf(r, category));
+            }
+            // records are fingerprinted with unified categories, and aren't compared with records of the same list
+            uniqueRecords.add(deduplicator.removeDuplicates(records));
+            deduplicator.addAll(records);
+        }
+
+        List<Record> records = mergeSorted(uniqueRecords);
+        SpendingList merged = new SpendingList(categories);
+        merged.addRecords(records);
+        return merged;
+    }
+
+    // MODIFIES: categories
+    // EFFECTS: makes default category of spendingList default category of categories, and returns it;
+    //          if it isn't named as the automatically created default category, that one is removed
+    //          (same reconciliation as JsonReader does after reading a file)
+    private static Category unifyDefaultCategory(SpendingList spendingList, Categories categories)
+            throws NameException {
+        Category source = spendingList.getCategories().getDefaultCategory();
+        if (source.getName().equals(categories.getDefaultCategory().getName())) {
+            categories.getDefaultCategory().setIsShown(source.isShown());
+            return categories.getDefaultCategory();
+        }
+        Category defaultCategory = new Category(source.getName(), categories, source.isShown(), true);
+        categories.getCategories().remove(categories.getDefaultCategory());
+        categories.setDefaultCategory(defaultCategory);
+        return defaultCategory;
+    }
+
+    // MODIFIES: byName, categories
+    // EFFECTS: returns category of categories with the same name as category, creating it if there's no such one,
+    //          default categories are unified into defaultCategory
+    private static Category unify(Category category, Map<String, Category> byName,
+                                  Categories categories, Category defaultCategory) {
+        if (category.isDefault()) {
+            return defaultCategory;
+        }
+        Category existing = byName.get(category.getName());
+        if (Objects.nonNull(existing)) {
+            return existing;
+        }
+        try {
+            Category created = new Category(category.getName(), categories, category.isShown(), false);
+            byName.put(created.getName(), created);
+            return created;
+        } catch (NameException e) {
+            // name of an existing category is always valid
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // EFFECTS: returns a new record with the same title, amount and time as record, in category
+    private static Record copyOf(Record record, Category category) {
+        try {
+            return new Record(record.getTitle(), record.getAmount(), category, record.getTimeAdded());
+        } catch (NameException | NegativeAmountException e) {
+            // record is valid
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // EFFECTS: returns records of all recordLists merged by date (from more recent to less recent),
+    //          records of each list are expected to be sorted the same way
+    private static List<Record> mergeSorted(List<List<Record>> recordLists) {
+        int total = 0;
+        PriorityQueue<Cursor> heads = new PriorityQueue<>();
+        for (List<Record> records : recordLists) {
+            total += records.size();
+            if (!records.isEmpty()) {
+                heads.add(new Cursor(records));
+            }
+        }
+        List<Record> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            merged.add(cursor.current());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    // EFFECTS: rethrows cause of a failed reading task as one of the exceptions of openMerged
+    private static IOException unwrap(Throwable cause) throws NegativeAmountException, NameException {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        } else if (cause instanceof NegativeAmountException) {
+            throw (NegativeAmountException) cause;
+        } else if (cause instanceof NameException) {
+            throw (NameException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        throw new IllegalStateException(cause);
+    }
+
+    // Represents a position in a list of records sorted by date (from more recent to less recent),
+    // cursors are ordered so that the one with the more recent current record comes first
+    private static final class Cursor implements Comparable<Cursor> {
+        private final List<Record> records;
+        private int index;
+
+        Cursor(List<Record> records) {
+            this.records = records;
+        }
+
+        Record current() {
+            return records.get(index);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: moves to the next record, returns false if there are no more records
+        boolean advance() {
+            return ++index < records.size();
+        }
+
+        @Override
+        public int compareTo(Cursor other) {
+            return other.current().getTimeAdded().compareTo(current().getTimeAdded());
+        }
+    }
+}
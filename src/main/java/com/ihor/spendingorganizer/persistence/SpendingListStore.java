@@ -0,0 +1,49 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+// Represents a storage backend that SpendingList can be opened from and saved to,
+// implementations are discovered through ServiceLoader (see module-info.java)
+public interface SpendingListStore {
+
+    // EFFECTS: returns true if this store can open and save a file with the given path
+    boolean supports(Path path);
+
+    // EFFECTS: returns SpendingList stored at path,
+    //          throws IOException if there's an error while reading from the path,
+    //          throws NegativeAmountException or NameException if stored data is corrupted
+    default SpendingList open(Path path) throws IOException, NegativeAmountException, NameException {
+        return open(path, ReadProgressListener.NONE);
+    }
+
+    // EFFECTS: same as open(Path path), but reports reading progress to listener,
+    //          throws InterruptedIOException if reading thread is interrupted
+    SpendingList open(Path path, ReadProgressListener listener)
+            throws IOException, NegativeAmountException, NameException;
+
+    // EFFECTS: saves spendingList to path, replacing what is stored there,
+    //          throws IOException if there's an error while writing to the path
+    void save(SpendingList spendingList, Path path) throws IOException;
+
+    // MODIFIES: data stored at path
+    // EFFECTS: adds records to the spending list stored at path, except ones that are already stored there,
+    //          categories of records are matched with stored categories by name, and missing ones are created,
+    //          throws IOException if there's an error while reading from or writing to the path,
+    //          throws NegativeAmountException or NameException if stored data or records are corrupted
+    void append(Path path, List<Record> records) throws IOException, NegativeAmountException, NameException;
+
+    // EFFECTS: returns records stored at path that were added in [from, to] time range,
+    //          returned list is sorted by date (from more recent to less recent),
+    //          throws IOException if there's an error while reading from the path,
+    //          throws NegativeAmountException or NameException if stored data is corrupted
+    List<Record> query(Path path, LocalDate from, LocalDate to)
+            throws IOException, NegativeAmountException, NameException;
+}
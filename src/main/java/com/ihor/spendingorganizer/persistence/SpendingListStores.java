@@ -0,0 +1,40 @@
+package com.ihor.spendingorganizer.persistence;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+// Represents a lookup of SpendingListStore implementations registered as service providers
+public final class SpendingListStores {
+
+    private static List<SpendingListStore> stores;
+
+    private SpendingListStores() {
+    }
+
+    // EFFECTS: returns the first registered store that supports path,
+    //          if no registered store supports it, e.g., because a file chooser didn't add an extension,
+    //          returns the JSON store, so files of any name are kept as plain JSON
+    public static SpendingListStore forPath(Path path) {
+        for (SpendingListStore store : getStores()) {
+            if (store.supports(path)) {
+                return store;
+            }
+        }
+        return getStores().stream()
+                .filter(s -> s instanceof JsonSpendingListStore)
+                .findFirst()
+                .orElseGet(JsonSpendingListStore::new);
+    }
+
+    // EFFECTS: returns all registered stores, loading them on the first call
+    public static synchronized List<SpendingListStore> getStores() {
+        if (stores == null) {
+            stores = ServiceLoader.load(SpendingListStore.class).stream()
+                    .map(ServiceLoader.Provider::get)
+                    .collect(Collectors.toUnmodifiableList());
+        }
+        return stores;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ihor.spendingorganizer.persistence;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.Deflater;
+
+// Represents storage settings, each of them can be overridden with a system property,
+// e.g., java -Dspendingorganizer.cache.maxBytes=1073741824 -jar ...
+public final class StorageSettings {
+
+    private static final String PREFIX = "spendingorganizer.";
+    private static final long MB = 1024 * 1024;
+
+    private StorageSettings() {
+    }
+
+    // EFFECTS: returns directory where parsed snapshots of opened files are cached
+    public static Path getCacheDirectory() {
+        String directory = System.getProperty(PREFIX + "cache.dir");
+        if (directory == null) {
+            return Paths.get(System.getProperty("user.home"), ".spending-organizer", "cache");
+        }
+        return Paths.get(directory);
+    }
+
+    // EFFECTS: returns maximum total size of cached snapshots in bytes
+    public static long getCacheMaxBytes() {
+        return Long.getLong(PREFIX + "cache.maxBytes", 512 * MB);
+    }
+
+    // EFFECTS: returns maximum estimated size in bytes of records that a paged view of a file keeps in memory
+    public static long getPageCacheMaxBytes() {
+        return Long.getLong(PREFIX + "pageCache.maxBytes", 64 * MB);
+    }
+
+    // EFFECTS: returns size in bytes from which user is asked how to open a spending list file,
+    //          and opening it read-only, a page of records at a time, is the default over reading it as a whole
+    public static long getLargeFileMinBytes() {
+        return Long.getLong(PREFIX + "largeFile.minBytes", 256 * MB);
+    }
+
+    // EFFECTS: returns deflate level of compressed files, from 0 (no compression) to 9 (best compression),
+    //          returns Deflater.DEFAULT_COMPRESSION if level isn't set or is out of range
+    public static int getCompressionLevel() {
+        int level = Integer.getInteger(PREFIX + "compression.level", Deflater.DEFAULT_COMPRESSION);
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            return Deflater.DEFAULT_COMPRESSION;
+        }
+        return level;
+    }
+}
@@ -0,0 +1,376 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.RecordFieldException;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Represents a catalog of spending list files in a workspace directory,
+// for each file it keeps its categories, range of months, totals per category and month,
+// and a Bloom filter of record fingerprints per year,
+// so workspace-wide totals can be queried, and duplicates can be ruled out, without opening the files;
+// catalog is stored in an index file in the workspace directory,
+// and on refresh only files whose size or modification time changed are read again
+public class WorkspaceCatalog {
+    public static final String INDEX_FILE_NAME = ".spending-organizer-catalog";
+    private static final int VERSION = 2;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Path directory;
+    private final Map<String, Entry> entries = new TreeMap<>();
+    private final List<String> skippedFiles = new ArrayList<>();
+
+    // EFFECTS: creates a catalog of directory, entries stored in its index file are loaded,
+    //          index file that can't be read is ignored, and the catalog is rebuilt on refresh
+    public WorkspaceCatalog(Path directory) {
+        this.directory = directory;
+        loadIndex();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads files of the workspace that were added or changed since the last refresh,
+    //          drops entries of removed files, and saves the index if anything changed,
+    //          files that can't be read are left out of the catalog (see getSkippedFiles),
+    //          returns number of files that were read,
+    //          throws IOException if workspace directory can't be listed or index can't be saved
+    public int refresh() throws IOException {
+        skippedFiles.clear();
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(WorkspaceCatalog::isSpendingListFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        Set<String> names = files.stream().map(p -> p.getFileName().toString()).collect(Collectors.toSet());
+        boolean isChanged = entries.keySet().retainAll(names);
+
+        int filesRead = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long size = Files.size(file);
+            long lastModified = Files.getLastModifiedTime(file).toMillis();
+            Entry entry = entries.get(name);
+            if (Objects.nonNull(entry) && entry.size == size && entry.lastModified == lastModified) {
+                continue;
+            }
+            isChanged = true;
+            filesRead++;
+            try {
+                SpendingList spendingList = SpendingListStores.forPath(file).open(file);
+                entries.put(name, Entry.of(name, size, lastModified, spendingList));
+            } catch (IOException | RecordFieldException | RuntimeException e) {
+                entries.remove(name);
+                skippedFiles.add(name);
+            }
+        }
+        if (isChanged) {
+            saveIndex();
+        }
+        return filesRead;
+    }
+
+    // EFFECTS: returns entries of cataloged files, sorted by file name
+    public List<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    // EFFECTS: returns names of files that couldn't be read during the last refresh
+    public List<String> getSkippedFiles() {
+        return Collections.unmodifiableList(skippedFiles);
+    }
+
+    // EFFECTS: returns sorted names of categories used in any of the cataloged files
+    public List<String> getCategoryNames() {
+        return entries.values().stream()
+                .flatMap(e -> e.categories.stream())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    // EFFECTS: returns months that have records in any of the cataloged files,
+    //          list is sorted by date (from more recent to less recent)
+    public List<LocalDate> getDates() {
+        return entries.values().stream()
+                .flatMap(e -> e.totals.values().stream())
+                .flatMap(byMonth -> byMonth.keySet().stream())
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+    }
+
+    // EFFECTS: returns {category name: sum of amounts} of all cataloged files in months that start in [from, to]
+    public Map<String, Double> groupByCategory(LocalDate from, LocalDate to) {
+        Map<String, Double> result = new HashMap<>();
+        groupByCategoryAndDate(from, to).forEach((category, byMonth) ->
+                byMonth.values().forEach(amount -> result.merge(category, amount, Double::sum)));
+        return result;
+    }
+
+    // EFFECTS: returns {category name: {month: sum of amounts}} of all cataloged files
+    //          in months that start in [from, to]
+    public Map<String, Map<LocalDate, Double>> groupByCategoryAndDate(LocalDate from, LocalDate to) {
+        Map<String, Map<LocalDate, Double>> result = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            entry.totals.forEach((category, byMonth) -> byMonth.forEach((month, amount) -> {
+                if (!month.isBefore(from) && !month.isAfter(to)) {
+                    result.computeIfAbsent(category, c -> new HashMap<>()).merge(month, amount, Double::sum);
+                }
+            }));
+        }
+        return result;
+    }
+
+    // MODIFIES: deduplicator
+    // EFFECTS: adds each year of each cataloged file as a history segment of deduplicator,
+    //          a segment is read from its file only if its Bloom filter might contain a checked record,
+    //          a file is read at most once, for all of its years at a time
+    public void addHistoryTo(RecordDeduplicator deduplicator) {
+        addHistoryTo(deduplicator, Collections.emptyList());
+    }
+
+    // MODIFIES: deduplicator
+    // EFFECTS: same as addHistoryTo(RecordDeduplicator deduplicator), but cataloged files that are in excludedFiles
+    //          aren't added, e.g., files whose records deduplicator knows already, or files that are being merged
+    public void addHistoryTo(RecordDeduplicator deduplicator, Collection<Path> excludedFiles) {
+        Set<Path> excluded = excludedFiles.stream().map(p -> p.toAbsolutePath().normalize())
+                .collect(Collectors.toSet());
+        for (Entry entry : entries.values()) {
+            Path file = directory.resolve(entry.fileName);
+            if (excluded.contains(file.toAbsolutePath().normalize())) {
+                continue;
+            }
+            FileFingerprints fingerprints = new FileFingerprints(file);
+            entry.filters.forEach((year, filter) ->
+                    deduplicator.addSegment(year, filter, () -> fingerprints.load(year)));
+        }
+    }
+
+    // MODIFIES: deduplicator
+    // EFFECTS: adds history of other files of workspaces that files are in to deduplicator (see addHistoryTo),
+    //          so records that are stored anywhere in a workspace are duplicates;
+    //          a directory is a workspace if it has been cataloged before, i.e., it has an index file,
+    //          its catalog is refreshed first, and a workspace that can't be refreshed is left out
+    public static void addWorkspaceHistoryTo(RecordDeduplicator deduplicator, Collection<Path> files) {
+        Set<Path> directories = files.stream().map(p -> p.toAbsolutePath().normalize().getParent())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (Path directory : directories) {
+            if (!Files.exists(directory.resolve(INDEX_FILE_NAME))) {
+                continue;
+            }
+            try {
+                WorkspaceCatalog catalog = new WorkspaceCatalog(directory);
+                catalog.refresh();
+                catalog.addHistoryTo(deduplicator, files);
+            } catch (IOException e) {
+                // records are still deduplicated against files themselves
+            }
+        }
+    }
+
+    // EFFECTS: returns true if path is a spending list file that a registered store can open
+    private static boolean isSpendingListFile(Path path) {
+        return !path.getFileName().toString().equals(INDEX_FILE_NAME)
+                && SpendingListStores.getStores().stream().anyMatch(s -> s.supports(path));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads entries from the index file, leaves catalog empty if index is missing or corrupted
+    private void loadIndex() {
+        Path index = directory.resolve(INDEX_FILE_NAME);
+        if (!Files.exists(index)) {
+            return;
+        }
+        try {
+            JSONObject json = new JSONObject(Files.readString(index, StandardCharsets.UTF_8));
+            if (json.getInt("version") != VERSION) {
+                return;
+            }
+            JSONArray jsonFiles = json.getJSONArray("files");
+            for (int i = 0; i < jsonFiles.length(); i++) {
+                Entry entry = Entry.fromJson(jsonFiles.getJSONObject(i));
+                entries.put(entry.fileName, entry);
+            }
+        } catch (IOException | JSONException | DateTimeParseException | IllegalArgumentException e) {
+            entries.clear();
+        }
+    }
+
+    // EFFECTS: writes entries to the index file, replacing it atomically,
+    //          throws IOException if index can't be written
+    private void saveIndex() throws IOException {
+        JSONArray jsonFiles = new JSONArray();
+        entries.values().forEach(e -> jsonFiles.put(e.toJson()));
+        JSONObject json = new JSONObject();
+        json.put("version", VERSION);
+        json.put("files", jsonFiles);
+
+        Path temp = Files.createTempFile(directory, "catalog", ".tmp");
+        try {
+            Files.writeString(temp, json.toString(), StandardCharsets.UTF_8);
+            Files.move(temp, directory.resolve(INDEX_FILE_NAME),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Represents fingerprints of records of a file per year that they were added in,
+    // the file is read once, the first time fingerprints of any of its years are loaded,
+    // and fingerprints of each year are kept until they are loaded
+    private static final class FileFingerprints {
+        private final Path file;
+        // {year: fingerprints of records added in year}, null until the file is read
+        private Map<Integer, LongHashSet> byYear;
+
+        FileFingerprints(Path file) {
+            this.file = file;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: returns fingerprints of records of the file added in year, reading the file if it hasn't been,
+        //          fingerprints of each year are handed over once, since segments of deduplicator keep them,
+        //          throws IOException if file can't be read or is corrupted
+        LongHashSet load(int year) throws IOException {
+            if (Objects.isNull(byYear)) {
+                byYear = read();
+            }
+            LongHashSet fingerprints = byYear.remove(year);
+            return Objects.isNull(fingerprints) ? new LongHashSet() : fingerprints;
+        }
+
+        // EFFECTS: returns fingerprints of all records of the file by year, in one pass over its records,
+        //          throws IOException if file can't be read or is corrupted
+        private Map<Integer, LongHashSet> read() throws IOException {
+            try {
+                Map<Integer, LongHashSet> fingerprints = new HashMap<>();
+                for (Record r : SpendingListStores.forPath(file).open(file).getRecords()) {
+                    fingerprints.computeIfAbsent(r.getTimeAdded().getYear(), y -> new LongHashSet())
+                            .add(r.fingerprint());
+                }
+                return fingerprints;
+            } catch (RecordFieldException e) {
+                throw new IOException(file.getFileName() + " is corrupted", e);
+            }
+        }
+    }
+
+    // Represents a summary of one spending list file of the workspace
+    public static final class Entry {
+        private final String fileName;
+        private final long size;
+        private final long lastModified;
+        private final List<String> categories;
+        private final Map<String, Map<LocalDate, Double>> totals;
+        private final Map<Integer, BloomFilter> filters;
+
+        private Entry(String fileName, long size, long lastModified, List<String> categories,
+                      Map<String, Map<LocalDate, Double>> totals, Map<Integer, BloomFilter> filters) {
+            this.fileName = fileName;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.categories = categories;
+            this.totals = totals;
+            this.filters = filters;
+        }
+
+        // EFFECTS: returns summary of spendingList read from the file with the given name, size and modification time
+        private static Entry of(String fileName, long size, long lastModified, SpendingList spendingList) {
+            Map<Integer, Integer> recordsPerYear = new HashMap<>();
+            for (Record r : spendingList.getRecords()) {
+                recordsPerYear.merge(r.getTimeAdded().getYear(), 1, Integer::sum);
+            }
+            Map<Integer, BloomFilter> filters = new HashMap<>();
+            recordsPerYear.forEach((year, count) -> filters.put(year, BloomFilter.create(count, FALSE_POSITIVE_RATE)));
+            for (Record r : spendingList.getRecords()) {
+                filters.get(r.getTimeAdded().getYear()).add(r.fingerprint());
+            }
+            return new Entry(fileName, size, lastModified,
+                    spendingList.getCategories().getCategoriesNames(),
+                    spendingList.getTotals().sumByCategoryAndMonth(LocalDate.MIN, LocalDate.MAX), filters);
+        }
+
+        // EFFECTS: returns entry stored in json
+        private static Entry fromJson(JSONObject json) {
+            List<String> categories = new ArrayList<>();
+            JSONArray jsonCategories = json.getJSONArray("categories");
+            for (int i = 0; i < jsonCategories.length(); i++) {
+                categories.add(jsonCategories.getString(i));
+            }
+            Map<String, Map<LocalDate, Double>> totals = new HashMap<>();
+            JSONArray jsonTotals = json.getJSONArray("totals");
+            for (int i = 0; i < jsonTotals.length(); i++) {
+                JSONObject jsonTotal = jsonTotals.getJSONObject(i);
+                totals.computeIfAbsent(jsonTotal.getString("category"), c -> new HashMap<>())
+                        .put(LocalDate.parse(jsonTotal.getString("month")), jsonTotal.getDouble("amount"));
+            }
+            Map<Integer, BloomFilter> filters = new HashMap<>();
+            JSONObject jsonFilters = json.getJSONObject("filters");
+            for (String year : jsonFilters.keySet()) {
+                filters.put(Integer.parseInt(year), BloomFilter.decode(jsonFilters.getString(year)));
+            }
+            return new Entry(json.getString("name"), json.getLong("size"), json.getLong("lastModified"),
+                    categories, totals, filters);
+        }
+
+        // EFFECTS: returns this as JSON object
+        private JSONObject toJson() {
+            JSONArray jsonTotals = new JSONArray();
+            totals.forEach((category, byMonth) -> byMonth.forEach((month, amount) -> {
+                JSONObject jsonTotal = new JSONObject();
+                jsonTotal.put("category", category);
+                jsonTotal.put("month", month.toString());
+                jsonTotal.put("amount", amount);
+                jsonTotals.put(jsonTotal);
+            }));
+            JSONObject json = new JSONObject();
+            json.put("name", fileName);
+            json.put("size", size);
+            json.put("lastModified", lastModified);
+            json.put("categories", new JSONArray(categories));
+            json.put("totals", jsonTotals);
+            JSONObject jsonFilters = new JSONObject();
+            filters.forEach((year, filter) -> jsonFilters.put(year.toString(), filter.encode()));
+            json.put("filters", jsonFilters);
+            return json;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public List<String> getCategories() {
+            return Collections.unmodifiableList(categories);
+        }
+
+        // EFFECTS: returns the earliest month with records in the file, or empty if the file has no records
+        public Optional<LocalDate> getFirstMonth() {
+            return totals.values().stream().flatMap(m -> m.keySet().stream()).min(Comparator.naturalOrder());
+        }
+
+        // EFFECTS: returns the latest month with records in the file, or empty if the file has no records
+        public Optional<LocalDate> getLastMonth() {
+            return totals.values().stream().flatMap(m -> m.keySet().stream()).max(Comparator.naturalOrder());
+        }
+
+        // EFFECTS: returns {category name: {month: sum of amounts}} of the file
+        public Map<String, Map<LocalDate, Double>> getTotals() {
+            return Collections.unmodifiableMap(totals);
+        }
+    }
+}
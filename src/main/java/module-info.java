@@ -8,5 +8,12 @@ module com.ihor.spendingorganizer {
     opens com.ihor.spendingorganizer.controllers to javafx.fxml;
     opens com.ihor.spendingorganizer.model to javafx.base;
     exports com.ihor.spendingorganizer;
+    exports com.ihor.spendingorganizer.model;
+    exports com.ihor.spendingorganizer.model.exceptions;
+    exports com.ihor.spendingorganizer.persistence;
     opens com.ihor.spendingorganizer to javafx.fxml, javafx.graphics;
+
+    uses com.ihor.spendingorganizer.persistence.SpendingListStore;
+    provides com.ihor.spendingorganizer.persistence.SpendingListStore
+            with com.ihor.spendingorganizer.persistence.JsonSpendingListStore;
 }
\ No newline at end of file
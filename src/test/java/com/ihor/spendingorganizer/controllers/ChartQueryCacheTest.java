@@ -0,0 +1,110 @@
+package com.ihor.spendingorganizer.controllers;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartQueryCacheTest {
+
+    private final LocalDate from = LocalDate.of(2021, 4, 1);
+    private final LocalDate to = LocalDate.of(2021, 4, 30);
+    private SpendingList spendingList;
+    private Category groceries;
+    private ChartQueryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            Categories categories = new Categories();
+            groceries = new Category("Groceries", categories);
+            spendingList = new SpendingList(categories);
+            spendingList.addRecord(new Record("Went to SaveOn", 80.5, groceries,
+                    LocalDateTime.of(2021, 4, 15, 10, 0)));
+            spendingList.addRecord(new Record("Cinema", 20, categories.getDefaultCategory(),
+                    LocalDateTime.of(2021, 5, 2, 19, 0)));
+            // totals are computed on the FX thread otherwise
+            spendingList.getTotals();
+            cache = new ChartQueryCache(spendingList);
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testQueriesGroupSpendingList() {
+        assertEquals(spendingList.groupByCategory(from, to), cache.groupByCategory(from, to).get());
+        assertEquals(spendingList.groupByCategoryAndDate(from, to), cache.groupByCategoryAndDate(from, to).get());
+        assertEquals(spendingList.groupByCategory(from), cache.groupByCategory(from).get());
+        assertEquals(spendingList.groupByCategoryAndDate(LocalDate.MIN),
+                cache.groupByCategoryAndDate(LocalDate.MIN).get());
+    }
+
+    @Test
+    void testResultIsReusedWhileListIsUnchanged() {
+        Map<String, Double> result = cache.groupByCategory(from, to).get();
+
+        assertSame(result, cache.groupByCategory(from, to).get());
+        assertNotSame(result, cache.groupByCategory(from, LocalDate.of(2021, 5, 31)).get());
+        assertThrows(UnsupportedOperationException.class, () -> result.put("Travel", 1.0));
+    }
+
+    @Test
+    void testResultsAreDroppedOnceListIsModified() {
+        try {
+            Map<String, Double> result = cache.groupByCategory(from, to).get();
+            spendingList.addRecord(new Record("Superstore", 19.5, groceries, LocalDateTime.of(2021, 4, 20, 9, 0)));
+
+            Map<String, Double> updated = cache.groupByCategory(from, to).get();
+            assertNotSame(result, updated);
+            assertEquals(100, updated.get("Groceries"));
+            assertSame(updated, cache.groupByCategory(from, to).get());
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testResultOfListModifiedMidQueryIsNotCached() {
+        try {
+            Supplier<Map<String, Double>> query = cache.groupByCategory(from, to);
+            spendingList.addRecord(new Record("Superstore", 19.5, groceries, LocalDateTime.of(2021, 4, 20, 9, 0)));
+            // another query sees the modification before the first one is computed
+            cache.groupByCategoryAndDate(from, to);
+
+            Map<String, Double> stale = query.get();
+            assertEquals(80.5, stale.get("Groceries"));
+            Map<String, Double> current = cache.groupByCategory(from, to).get();
+            assertNotSame(stale, current);
+            assertEquals(100, current.get("Groceries"));
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testSnapshotIsNotChangedByEditsOfRecords() {
+        try {
+            Supplier<Map<String, Double>> query = cache.groupByCategory(from, to);
+            spendingList.getRecords().get(1).setAmount(1000);
+            groceries.setName("Food", spendingList.getCategories());
+
+            Map<String, Double> result = query.get();
+            assertEquals(80.5, result.get("Groceries"));
+            assertNull(result.get("Food"));
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.ihor.spendingorganizer.controllers;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.chart.XYChart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChartSeriesUpdaterTest {
+
+    private ObservableList<XYChart.Series<String, Number>> displayed;
+
+    @BeforeEach
+    void setUp() {
+        displayed = FXCollections.observableArrayList();
+        Map<String, Map<String, Double>> series = new LinkedHashMap<>();
+        series.put("Groceries", points("Jan", 10.0, "Feb", 20.0));
+        series.put("Travel", points("Jan", 300.0));
+        ChartSeriesUpdater.update(displayed, series);
+    }
+
+    @Test
+    void testUpdateAddsSeries() {
+        assertEquals(List.of("Groceries", "Travel"), names());
+        assertEquals(points("Jan", 10.0, "Feb", 20.0), valuesOf(displayed.get(0)));
+        assertEquals(points("Jan", 300.0), valuesOf(displayed.get(1)));
+    }
+
+    @Test
+    void testUpdateReusesPointsAndSeries() {
+        XYChart.Series<String, Number> groceries = displayed.get(0);
+        XYChart.Data<String, Number> january = groceries.getData().get(0);
+        XYChart.Data<String, Number> february = groceries.getData().get(1);
+
+        Map<String, Map<String, Double>> series = new LinkedHashMap<>();
+        series.put("Groceries", points("Jan", 15.0, "Mar", 5.0));
+        series.put("Travel", points("Jan", 300.0));
+        ChartSeriesUpdater.update(displayed, series);
+
+        assertSame(groceries, displayed.get(0));
+        assertSame(january, groceries.getData().get(0));
+        assertEquals(15.0, january.getYValue());
+        assertFalse(groceries.getData().contains(february));
+        assertEquals(points("Jan", 15.0, "Mar", 5.0), valuesOf(groceries));
+    }
+
+    @Test
+    void testUpdateReordersAndRemovesSeries() {
+        XYChart.Series<String, Number> groceries = displayed.get(0);
+        XYChart.Series<String, Number> travel = displayed.get(1);
+
+        Map<String, Map<String, Double>> series = new LinkedHashMap<>();
+        series.put("Rent", points("Jan", 1000.0));
+        series.put("Travel", points("Jan", 300.0));
+        series.put("Groceries", points("Jan", 10.0, "Feb", 20.0));
+        ChartSeriesUpdater.update(displayed, series);
+        assertEquals(List.of("Rent", "Travel", "Groceries"), names());
+        assertSame(travel, displayed.get(1));
+        assertSame(groceries, displayed.get(2));
+
+        ChartSeriesUpdater.update(displayed, Map.of("Travel", points("Feb", 50.0)));
+        assertEquals(List.of("Travel"), names());
+        assertSame(travel, displayed.get(0));
+        assertEquals(points("Feb", 50.0), valuesOf(travel));
+    }
+
+    @Test
+    void testUpdateSeriesUpdatesOnlyNamedSeries() {
+        XYChart.Series<String, Number> groceries = displayed.get(0);
+        XYChart.Data<String, Number> january = groceries.getData().get(0);
+
+        ChartSeriesUpdater.updateSeries(displayed, Map.of("Groceries", points("Jan", 12.0, "Mar", 7.0),
+                "Rent", points("Jan", 1000.0)));
+
+        assertEquals(List.of("Groceries", "Travel"), names());
+        assertSame(january, groceries.getData().get(0));
+        assertEquals(points("Jan", 12.0, "Mar", 7.0), valuesOf(groceries));
+        assertEquals(points("Jan", 300.0), valuesOf(displayed.get(1)));
+    }
+
+    // EFFECTS: returns {x value: y value} of xy, which alternates x and y values
+    private Map<String, Double> points(Object... xy) {
+        Map<String, Double> points = new LinkedHashMap<>();
+        for (int i = 0; i < xy.length; i += 2) {
+            points.put((String) xy[i], (Double) xy[i + 1]);
+        }
+        return points;
+    }
+
+    // EFFECTS: returns {x value: y value} of points of series in their order
+    private Map<String, Double> valuesOf(XYChart.Series<String, Number> series) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        series.getData().forEach(d -> values.put(d.getXValue(), d.getYValue().doubleValue()));
+        return values;
+    }
+
+    // EFFECTS: returns names of displayed series in their order
+    private List<String> names() {
+        return displayed.stream().map(XYChart.Series::getName).collect(Collectors.toList());
+    }
+}
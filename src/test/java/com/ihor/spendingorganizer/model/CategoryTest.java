@@ -93,6 +93,40 @@ class CategoryTest {
         assertTrue(categories.getCategories().contains(category));
     }
 
+    @Test
+    void testIdIsUniqueAndStable() {
+        try {
+            Category other = new Category("Groceries", categories);
+            assertNotEquals(category.getId(), other.getId());
+            assertNotEquals(categories.getDefaultCategory().getId(), category.getId());
+
+            int id = category.getId();
+            category.setName("Vacation", categories);
+            assertEquals(id, category.getId());
+        } catch (NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testIdsArePerCategories() {
+        try {
+            Categories first = new Categories();
+            Categories second = new Categories();
+            assertEquals(first.getDefaultCategory().getId(), second.getDefaultCategory().getId());
+            assertEquals(new Category("Groceries", first).getId(), new Category("Travel", second).getId());
+
+            Categories sharing = new Categories(first);
+            Category imported = new Category("Rent", sharing);
+            for (Category c : first.getCategories()) {
+                assertNotEquals(c.getId(), imported.getId());
+                assertNotEquals(c.getId(), sharing.getDefaultCategory().getId());
+            }
+        } catch (NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
     @Test
     void testToString() {
         String expected = new StringJoiner(", ", Category.class.getSimpleName() + "[", "]")
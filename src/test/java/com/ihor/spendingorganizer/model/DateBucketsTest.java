@@ -0,0 +1,72 @@
+package com.ihor.spendingorganizer.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateBucketsTest {
+
+    private final LocalDate first = LocalDate.of(2001, Month.FEBRUARY, 1);
+    private final LocalDate last = LocalDate.of(2021, Month.NOVEMBER, 1);
+
+    @Test
+    void testForWidthPicksFinestBucketsThatFit() {
+        assertEquals(1, DateBuckets.forWidth(first, first, 10, 20).getMonthsPerBucket());
+        assertEquals(1, DateBuckets.forWidth(first, last, 250 * 4, 4).getMonthsPerBucket());
+        assertEquals(3, DateBuckets.forWidth(first, last, 100 * 4, 4).getMonthsPerBucket());
+        assertEquals(12, DateBuckets.forWidth(first, last, 21 * 4, 4).getMonthsPerBucket());
+        assertEquals(60, DateBuckets.forWidth(first, last, 5 * 4, 4).getMonthsPerBucket());
+        assertEquals(600, DateBuckets.forWidth(first, last, 1, 4).getMonthsPerBucket());
+    }
+
+    @Test
+    void testBucketCountIsBounded() {
+        LocalDate ancient = LocalDate.of(1, Month.JANUARY, 1);
+        for (int maxBuckets : new int[]{1, 2, 7, 30, 200}) {
+            DateBuckets buckets = DateBuckets.forWidth(ancient, last, maxBuckets * 4, 4);
+            assertTrue(buckets.bucketsOf(Arrays.asList(ancient, first, last)).size() <= maxBuckets);
+            assertEquals(buckets.bucketOf(ancient), buckets.bucketsOf(Collections.singletonList(ancient)).get(0));
+        }
+    }
+
+    @Test
+    void testBucketOf() {
+        LocalDate date = LocalDate.of(2021, Month.NOVEMBER, 23);
+        assertEquals(LocalDate.of(2021, Month.NOVEMBER, 1), DateBuckets.of(1).bucketOf(date));
+        assertEquals(LocalDate.of(2021, Month.OCTOBER, 1), DateBuckets.of(3).bucketOf(date));
+        assertEquals(LocalDate.of(2021, Month.JANUARY, 1), DateBuckets.of(12).bucketOf(date));
+        assertEquals(LocalDate.of(2020, Month.JANUARY, 1), DateBuckets.of(60).bucketOf(date));
+    }
+
+    @Test
+    void testSumKeepsTotalsExact() {
+        Map<String, Map<LocalDate, Double>> byMonth = new LinkedHashMap<>();
+        byMonth.put("Travel", new HashMap<>());
+        byMonth.get("Travel").put(LocalDate.of(2021, Month.JANUARY, 1), 10.5);
+        byMonth.get("Travel").put(LocalDate.of(2021, Month.MARCH, 1), 20.0);
+        byMonth.get("Travel").put(LocalDate.of(2021, Month.APRIL, 1), 1.0);
+        byMonth.put("Groceries", Collections.singletonMap(LocalDate.of(2020, Month.DECEMBER, 1), 3.0));
+
+        Map<String, Map<LocalDate, Double>> byQuarter = DateBuckets.of(3).sum(byMonth);
+        assertEquals(Arrays.asList("Travel", "Groceries"), new ArrayList<>(byQuarter.keySet()));
+        assertEquals(Arrays.asList(LocalDate.of(2021, Month.JANUARY, 1), LocalDate.of(2021, Month.APRIL, 1)),
+                new ArrayList<>(byQuarter.get("Travel").keySet()));
+        assertEquals(30.5, byQuarter.get("Travel").get(LocalDate.of(2021, Month.JANUARY, 1)));
+        assertEquals(1.0, byQuarter.get("Travel").get(LocalDate.of(2021, Month.APRIL, 1)));
+        assertEquals(3.0, byQuarter.get("Groceries").get(LocalDate.of(2020, Month.OCTOBER, 1)));
+    }
+
+    @Test
+    void testLabel() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+        assertEquals("April 2021", DateBuckets.of(1).label(LocalDate.of(2021, Month.APRIL, 1), formatter));
+        assertEquals("Q2 2021", DateBuckets.of(3).label(LocalDate.of(2021, Month.APRIL, 1), formatter));
+        assertEquals("2021", DateBuckets.of(12).label(LocalDate.of(2021, Month.JANUARY, 1), formatter));
+        assertEquals("2020-2024", DateBuckets.of(60).label(LocalDate.of(2020, Month.JANUARY, 1), formatter));
+    }
+}
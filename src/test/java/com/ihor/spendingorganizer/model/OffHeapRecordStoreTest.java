@@ -0,0 +1,136 @@
+package com.ihor.spendingorganizer.model;
+
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapRecordStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SpendingList spendingList;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            Categories categories = new Categories();
+            spendingList = new SpendingList(categories);
+            Category groceries = new Category("Groceries", categories);
+            Category travel = new Category("Travel", categories);
+            LocalDateTime time = LocalDateTime.of(2021, Month.MARCH, 1, 0, 0);
+            // more records than fit in one chunk
+            for (int i = 0; i < OffHeapRecordStore.CHUNK_SLOTS + 100; i++) {
+                Category category = i % 5 == 0 ? categories.getDefaultCategory() : i % 2 == 0 ? groceries : travel;
+                Record record = new Record("Title " + i % 7, i % 100 * 0.5, category);
+                record.setTimeAdded(time.minusMinutes(17L * i).withNano(i % 3));
+                spendingList.getRecords().add(record);
+            }
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testGetMaterializesRecords() {
+        try (OffHeapRecordStore store = new OffHeapRecordStore()) {
+            store.addAll(spendingList.getRecords());
+            assertEquals(spendingList.getRecords().size(), store.size());
+            for (int i : new int[]{0, 1, OffHeapRecordStore.CHUNK_SLOTS - 1, OffHeapRecordStore.CHUNK_SLOTS,
+                    store.size() - 1}) {
+                assertEquals(spendingList.getRecords().get(i), store.get(i));
+                assertSame(spendingList.getRecords().get(i).getCategory(), store.getCategory(i));
+            }
+            assertThrows(IndexOutOfBoundsException.class, () -> store.get(store.size()));
+            assertEquals(3, store.getCategories().size());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testTotalsMatchSpendingList() {
+        try (OffHeapRecordStore store = new OffHeapRecordStore()) {
+            store.addAll(spendingList.getRecords());
+            SpendingTotals expected = spendingList.getTotals();
+            SpendingTotals actual = store.getTotals();
+            assertEquals(expected.getMonths(), actual.getMonths());
+            assertEquals(expected.sumByCategoryAndMonth(LocalDate.MIN, LocalDate.MAX),
+                    actual.sumByCategoryAndMonth(LocalDate.MIN, LocalDate.MAX));
+            assertTrue(new OffHeapRecordStore().getTotals().getMonths().isEmpty());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testGroupByCategoryMatchesSpendingList() {
+        try (OffHeapRecordStore store = new OffHeapRecordStore()) {
+            store.addAll(spendingList.getRecords());
+            for (LocalDate[] range : Arrays.asList(
+                    new LocalDate[]{LocalDate.of(2021, Month.FEBRUARY, 1), LocalDate.of(2021, Month.FEBRUARY, 28)},
+                    new LocalDate[]{LocalDate.of(2020, Month.JANUARY, 1), LocalDate.of(2021, Month.MARCH, 1)},
+                    new LocalDate[]{LocalDate.of(2021, Month.MARCH, 2), LocalDate.of(2021, Month.MARCH, 1)})) {
+                assertEquals(spendingList.groupByCategory(range[0], range[1]),
+                        store.groupByCategory(range[0], range[1]));
+            }
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testGroupByCategoryAndDateMatchesSpendingList() {
+        try (OffHeapRecordStore store = new OffHeapRecordStore()) {
+            store.addAll(spendingList.getRecords());
+            for (LocalDate[] range : Arrays.asList(
+                    new LocalDate[]{LocalDate.of(2021, Month.FEBRUARY, 1), LocalDate.of(2021, Month.FEBRUARY, 28)},
+                    new LocalDate[]{LocalDate.of(2020, Month.JANUARY, 1), LocalDate.of(2021, Month.MARCH, 1)},
+                    new LocalDate[]{LocalDate.of(2021, Month.MARCH, 2), LocalDate.of(2021, Month.MARCH, 1)})) {
+                assertEquals(spendingList.groupByCategoryAndDate(range[0], range[1]),
+                        store.groupByCategoryAndDate(range[0], range[1]));
+            }
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testScratchFile() {
+        Path scratchFile = tempDir.resolve("records.scratch");
+        try (OffHeapRecordStore store = new OffHeapRecordStore(scratchFile)) {
+            store.addAll(spendingList.getRecords());
+            assertTrue(Files.size(scratchFile) >= (long) store.size() * OffHeapRecordStore.SLOT_BYTES);
+            assertEquals(spendingList.getRecords().get(store.size() - 1), store.get(store.size() - 1));
+            store.close();
+            assertFalse(Files.exists(scratchFile));
+            assertEquals(0, store.size());
+            assertTrue(store.groupByCategoryAndDate(LocalDate.MIN, LocalDate.MAX).isEmpty());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testMonthIndex() {
+        for (LocalDate date : Arrays.asList(LocalDate.of(1969, Month.DECEMBER, 31),
+                LocalDate.of(1970, Month.JANUARY, 1), LocalDate.of(2000, Month.FEBRUARY, 29),
+                LocalDate.of(2021, Month.DECEMBER, 31), LocalDate.of(1600, Month.MARCH, 1))) {
+            long epochSecond = date.atTime(23, 59, 59).toEpochSecond(ZoneOffset.UTC);
+            assertEquals(date.getYear() * 12 + date.getMonthValue() - 1, OffHeapRecordStore.monthIndex(epochSecond));
+        }
+    }
+}
@@ -48,6 +48,32 @@ class RecordTest {
         assertEquals(category, testRecord.categoryProperty().get());
     }
 
+    @Test
+    void testPropertiesFollowSetters() {
+        try {
+            testRecord.setTitle("Before property");
+            assertEquals("Before property", testRecord.titleProperty().get());
+            assertSame(testRecord.titleProperty(), testRecord.titleProperty());
+            assertSame(testRecord, testRecord.titleProperty().getBean());
+            assertEquals("title", testRecord.titleProperty().getName());
+
+            testRecord.setTitle("After property");
+            testRecord.setAmount(1);
+            testRecord.amountProperty().set(2);
+            LocalDateTime time = LocalDateTime.of(2021, Month.JULY, 1, 10, 0);
+            testRecord.setTimeAdded(time);
+            assertEquals("After property", testRecord.titleProperty().get());
+            assertEquals(2, testRecord.getAmount());
+            assertEquals(time, testRecord.timeAddedProperty().get());
+
+            Category travel = new Category("Travel", categories);
+            testRecord.categoryProperty().set(travel);
+            assertEquals(travel, testRecord.getCategory());
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(doubles = {-1.09, -45})
     void testConstructorThrowNegativeAmountException(double amount) {
@@ -209,4 +235,26 @@ class RecordTest {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFingerprint() {
+        try {
+            Record same = new Record(testRecord.getTitle(), testRecord.getAmount(),
+                    new Category("Groceries", new Categories()));
+            same.setTimeAdded(testRecord.getTimeAdded());
+            assertEquals(testRecord.hashCode(), same.hashCode());
+            assertEquals(testRecord.fingerprint(), same.fingerprint());
+
+            same.setAmount(amount + 0.01);
+            assertNotEquals(testRecord.fingerprint(), same.fingerprint());
+            same.setAmount(amount);
+            same.setTimeAdded(testRecord.getTimeAdded().plusNanos(1));
+            assertNotEquals(testRecord.fingerprint(), same.fingerprint());
+            same.setTimeAdded(testRecord.getTimeAdded());
+            same.setTitle(title + "s");
+            assertNotEquals(testRecord.fingerprint(), same.fingerprint());
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.ihor.spendingorganizer.model;
 
 import com.ihor.spendingorganizer.model.exceptions.NameException;
 import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import javafx.collections.ListChangeListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -10,6 +11,8 @@ import java.util.*;
 import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class SpendingListGroupingTest {
@@ -380,6 +383,84 @@ public class SpendingListGroupingTest {
         assertEquals(expectedMap, spendingList.groupByCategoryAndDate(dateAdded, laterDateAdded));
     }
 
+    @Test
+    void testGroupByMonthAfterRecordsChange() {
+        initFullSpendingList();
+        LocalDate month = dateAdded.withDayOfMonth(1);
+        assertEquals(700.0, spendingList.groupByCategory(month).get("Category 7"));
+
+        try {
+            getByIndex(0).setAmount(50);
+        } catch (NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+        assertEquals(50.0, spendingList.groupByCategory(month).get("Category 7"));
+
+        getByIndex(0).setTimeAdded(LocalDateTime.of(laterDateAdded, LocalTime.now()));
+        assertNull(spendingList.groupByCategory(month).get("Category 7"));
+        assertEquals(Arrays.asList(laterDateAdded.withDayOfMonth(1), month), spendingList.getDates());
+
+        spendingList.removeRecord(getByIndex(0));
+        assertEquals(Collections.singletonList(month), spendingList.getDates());
+        assertEquals(6, spendingList.groupByCategoryAndDate(LocalDate.MIN).size());
+    }
+
+    @Test
+    void testGroupByCategoryAfterRename() {
+        initFullSpendingList();
+        try {
+            getByIndex(0).getCategory().setName("Renamed", categories);
+            getByIndex(1).setCategory(getByIndex(0).getCategory());
+        } catch (NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+        Map<String, Double> grouped = spendingList.groupByCategory(dateAdded, dateAdded);
+        assertEquals(1300.0, grouped.get("Renamed"));
+        assertNull(grouped.get("Category 7"));
+        assertEquals("Renamed", grouped.keySet().iterator().next());
+        assertEquals(Collections.singletonMap(dateAdded.withDayOfMonth(1), 1300.0),
+                spendingList.groupByCategoryAndDate(dateAdded, dateAdded).get("Renamed"));
+    }
+
+    @Test
+    void testGroupByTitle() {
+        initFullSpendingList();
+        try {
+            getByIndex(0).setTitle("Title 1");
+            getByIndex(1).setTitle("  Title 3 ");
+        } catch (NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+        Map<String, Double> grouped = spendingList.groupByTitle(dateAdded, dateAdded);
+        assertEquals(Arrays.asList("Title 3", "Title 1", "Title 5", "Title 4", "Title 2"),
+                new ArrayList<>(grouped.keySet()));
+        assertEquals(900.0, grouped.get("Title 3"));
+        assertEquals(800.0, grouped.get("Title 1"));
+        assertEquals(spendingList.getTitles().getCode("Title 3"), getByIndex(1).getTitleCode());
+        assertEquals(Collections.emptyMap(), spendingList.groupByTitle(laterDateAdded, laterDateAdded));
+    }
+
+    @Test
+    void testGroupByTitleOfRecordOwnedByAnotherList() {
+        initFullSpendingList();
+        Record moved = getByIndex(0);
+        new SpendingList(categories).getRecords().add(moved);
+        try {
+            moved.setTitle("Moved");
+        } catch (NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+        assertEquals(700.0, spendingList.groupByTitle(dateAdded, dateAdded).get("Moved"));
+        assertEquals(7, spendingList.groupByTitle(dateAdded, dateAdded).size());
+    }
+
+    @Test
+    void testGetDatesReturnsNewList() {
+        initFullSpendingList();
+        spendingList.getDates().clear();
+        assertEquals(Collections.singletonList(dateAdded.withDayOfMonth(1)), spendingList.getDates());
+    }
+
     private String returnDate(int year, Month month, int day, int hour, int minute, int second) {
         return LocalDateTime.of(LocalDate.of(year, month, day), LocalTime.of(hour, minute, second)).toString();
     }
@@ -397,6 +478,32 @@ public class SpendingListGroupingTest {
     //          [Record "Title 1", 100, "Category 1"],
     //          [Record "Title 2", 200, "Category 2"],
     //          [Record "Title 3", 300, "Category 3"]
+    @Test
+    void testMonthsFollowRecords() {
+        initFullSpendingList();
+        LocalDate month = dateAdded.withDayOfMonth(1);
+        LocalDate laterMonth = laterDateAdded.withDayOfMonth(1);
+        LocalDate earlierMonth = LocalDate.of(2020, Month.JANUARY, 1);
+        List<LocalDate> observed = new ArrayList<>(spendingList.getMonths());
+        spendingList.getMonths().addListener((ListChangeListener<LocalDate>) c -> {
+            observed.clear();
+            observed.addAll(c.getList());
+        });
+
+        getByIndex(0).setTimeAdded(LocalDateTime.of(laterDateAdded, LocalTime.NOON));
+        getByIndex(1).setTimeAdded(LocalDateTime.of(earlierMonth, LocalTime.NOON));
+        assertEquals(Arrays.asList(laterMonth, month, earlierMonth), spendingList.getMonths());
+        assertEquals(spendingList.getMonths(), observed);
+
+        spendingList.getRecords().removeIf(r -> !r.getTimeAdded().toLocalDate().withDayOfMonth(1).equals(month));
+        assertEquals(Collections.singletonList(month), observed);
+        assertEquals(spendingList.getMonths(), spendingList.getDates());
+
+        spendingList.getRecords().clear();
+        assertEquals(Collections.emptyList(), observed);
+        assertThrows(UnsupportedOperationException.class, () -> spendingList.getMonths().add(month));
+    }
+
     private void initFullSpendingList() {
         spendingList = new SpendingList(categories);
         try {
@@ -2,10 +2,14 @@ package com.ihor.spendingorganizer.model;
 
 import com.ihor.spendingorganizer.model.exceptions.NameException;
 import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import javafx.beans.InvalidationListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,6 +71,103 @@ class SpendingListTest {
         assertEquals(oldCategories, categories);
     }
 
+    @Test
+    void testModCount() {
+        long modCount = spendingList.getModCount();
+        spendingList.sortByTimeAdded();
+        assertEquals(modCount, spendingList.getModCount());
+
+        try {
+            recordTravel.setAmount(1);
+            assertTrue(spendingList.getModCount() > modCount);
+            modCount = spendingList.getModCount();
+
+            spendingList.removeRecord(recordGroceries);
+            assertTrue(spendingList.getModCount() > modCount);
+            modCount = spendingList.getModCount();
+
+            travelCategory.setName("Vacation", categories);
+            assertTrue(spendingList.getModCount() > modCount);
+            modCount = spendingList.getModCount();
+
+            categories.getCategories().remove(travelCategory);
+            assertTrue(spendingList.getModCount() > modCount);
+            modCount = spendingList.getModCount();
+            travelCategory.setName("Travel", categories);
+            assertEquals(modCount, spendingList.getModCount());
+        } catch (NegativeAmountException | NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testListenersAreNotifiedOfModifications() {
+        List<Long> notified = new ArrayList<>();
+        InvalidationListener listener = o -> notified.add(((SpendingList) o).getModCount());
+        spendingList.addListener(listener);
+
+        spendingList.sortByTimeAdded();
+        assertTrue(notified.isEmpty());
+        try {
+            recordTravel.setTitle("Trip");
+            spendingList.removeRecord(recordGroceries);
+            assertEquals(2, notified.size());
+            assertEquals(spendingList.getModCount(), notified.get(1));
+
+            spendingList.removeListener(listener);
+            travelCategory.setName("Vacation", categories);
+            assertEquals(2, notified.size());
+        } catch (NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testTotalsComputedElsewhereAreSetOnlyIfListIsUnchanged() {
+        long modCount = spendingList.getModCount();
+        SpendingTotals computed = SpendingTotals.of(List.copyOf(spendingList.getRecords()));
+        SpendingTotals copy = computed.copy();
+        spendingList.removeRecord(recordGroceries);
+        spendingList.setTotals(computed, modCount);
+        assertFalse(spendingList.hasTotals());
+
+        modCount = spendingList.getModCount();
+        spendingList.setTotals(copy, modCount);
+        assertSame(copy, spendingList.getTotals());
+        copy.add(travelCategory, recordTravel.getTimeAdded().toLocalDate(), 1);
+        assertEquals(401.34 + 100.76, computed.groupByCategory(LocalDate.MIN).values().stream()
+                .mapToDouble(Double::doubleValue).sum(), 0.001);
+    }
+
+    @Test
+    void testTotalsAreKeptUpToDate() {
+        SpendingTotals totals = spendingList.getTotals();
+        long version = totals.getVersion();
+        try {
+            recordTravel.setAmount(10);
+            recordTravel.setTimeAdded(recordTravel.getTimeAdded().minusMonths(2));
+            spendingList.addRecord(notAddedRecord);
+            spendingList.removeRecord(recordGroceries);
+        } catch (NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+        assertSame(totals, spendingList.getTotals());
+        SpendingTotals rebuilt = SpendingTotals.of(spendingList.getRecords());
+        assertEquals(rebuilt.getMonths(), totals.getMonths());
+        assertEquals(rebuilt.sumByCategoryAndMonth(LocalDate.MIN, LocalDate.MAX),
+                totals.sumByCategoryAndMonth(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(1, totals.getCount(travelCategory, recordTravel.getTimeAdded().toLocalDate().withDayOfMonth(1)));
+        assertEquals(Set.of("Travel", "Groceries", notAddedCategory.getName()), totals.getNamesChangedSince(version));
+
+        version = totals.getVersion();
+        try {
+            notAddedRecord.setAmount(1);
+        } catch (NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+        assertEquals(Set.of(notAddedCategory.getName()), totals.getNamesChangedSince(version));
+    }
+
     @Test
     void testEqualsReference() {
         SpendingList list = spendingList;
@@ -0,0 +1,157 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Categories categories;
+    private SpendingList spendingList;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            categories = new Categories();
+            new Category("Groceries", categories);
+            spendingList = new SpendingList(categories);
+        } catch (NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testImportByHeader() {
+        String csv = "Date,Description,Amount,Category\n"
+                + "2021-04-15T10:00:00,Went to SaveOn,80.5,Groceries\n"
+                + "2021-04-16T11:30:00,\"Theatre, with friends\",45,Entertainment\n"
+                + "\n"
+                + "2021-04-17T09:00:00,\"Said \"\"hi\"\"\",10,\n";
+        try {
+            Path path = tempDir.resolve("statement.csv");
+            Files.writeString(path, csv);
+            ImportReport report = CsvImporter.importInto(path, CsvColumnMapping.byHeader(), spendingList);
+
+            assertEquals(3, report.getRowsRead());
+            assertEquals(3, report.getRecordsImported());
+            assertEquals(0, report.getRowsRejected());
+
+            List<Record> records = spendingList.getRecords();
+            assertEquals("Said \"hi\"", records.get(0).getTitle());
+            assertEquals(categories.getDefaultCategory(), records.get(0).getCategory());
+            assertEquals("Theatre, with friends", records.get(1).getTitle());
+            assertEquals(LocalDateTime.of(2021, 4, 16, 11, 30), records.get(1).getTimeAdded());
+            assertSame(categories.getCategoryByName("Groceries"), records.get(2).getCategory());
+            assertTrue(categories.getCategoriesNames().contains("Entertainment"));
+            // imported categories don't share ids with categories that were there before
+            Map<String, Double> byCategory = spendingList.groupByCategory(LocalDate.of(2021, 4, 1),
+                    LocalDate.of(2021, 4, 30));
+            assertEquals(80.5, byCategory.get("Groceries"));
+            assertEquals(45, byCategory.get("Entertainment"));
+            assertEquals(10, byCategory.get("default"));
+        } catch (IOException | NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testImportRejectsInvalidRows() {
+        String csv = "Went to SaveOn;80.5;Groceries;04/15/2021\n"
+                + "   ;10;Groceries;04/15/2021\n"
+                + "Refund;-10;Groceries;04/15/2021\n"
+                + "Cinema;ten;Entertainment;04/15/2021\n"
+                + "Cinema;10;Entertainment;2021-04-15\n"
+                + "Too short;10\n";
+        CsvColumnMapping mapping = CsvColumnMapping.byIndex(0, 1, 2, 3);
+        mapping.setDelimiter(';');
+        mapping.setDateFormat(DateTimeFormatter.ofPattern("MM/dd/yyyy"));
+        try {
+            List<Record> imported = new ArrayList<>();
+            ImportReport report = new CsvImporter(mapping, categories)
+                    .importFrom(new StringReader(csv), ReadProgressListener.NONE, imported::addAll);
+
+            assertEquals(6, report.getRowsRead());
+            assertEquals(1, report.getRecordsImported());
+            assertEquals(5, report.getRowsRejected());
+            assertEquals(LocalDateTime.of(2021, 4, 15, 0, 0), imported.get(0).getTimeAdded());
+            assertFalse(categories.getCategoriesNames().contains("Entertainment"));
+        } catch (IOException | NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testImportInBatches() {
+        StringBuilder csv = new StringBuilder("title,amount\n");
+        int rows = CsvImporter.BATCH_SIZE * 2 + 5;
+        for (int i = 0; i < rows; i++) {
+            csv.append("Record ").append(i).append(',').append(i).append('\n');
+        }
+        try {
+            List<Integer> batchSizes = new ArrayList<>();
+            ImportReport report = new CsvImporter(CsvColumnMapping.byHeader(), categories)
+                    .importFrom(new StringReader(csv.toString()), ReadProgressListener.NONE,
+                            batch -> batchSizes.add(batch.size()));
+
+            assertEquals(rows, report.getRecordsImported());
+            assertEquals(List.of(CsvImporter.BATCH_SIZE, CsvImporter.BATCH_SIZE, 5), batchSizes);
+        } catch (IOException | NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testReimportDropsDuplicates() {
+        String first = "date,title,amount,category\n"
+                + "2021-04-15T10:00:00,Went to SaveOn,80.5,Groceries\n"
+                + "2021-04-16T10:00:00,Cinema,12,Entertainment\n";
+        String overlapping = first
+                + "2021-04-17T10:00:00,Superstore,20,Groceries\n"
+                + "2021-04-17T10:00:00,Superstore,20,Groceries\n";
+        try {
+            Path firstPath = tempDir.resolve("first.csv");
+            Path overlappingPath = tempDir.resolve("overlapping.csv");
+            Files.writeString(firstPath, first);
+            Files.writeString(overlappingPath, overlapping);
+            CsvImporter.importInto(firstPath, CsvColumnMapping.byHeader(), spendingList);
+            ImportReport report = CsvImporter.importInto(overlappingPath, CsvColumnMapping.byHeader(), spendingList);
+
+            assertEquals(4, report.getRowsRead());
+            // identical rows within one statement are separate spendings
+            assertEquals(2, report.getRecordsImported());
+            assertEquals(2, report.getRowsDuplicated());
+            assertEquals(0, report.getRowsRejected());
+            assertEquals(4, spendingList.getRecords().size());
+        } catch (IOException | NameException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testImportHeaderWithoutAmount() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvImporter(CsvColumnMapping.byHeader(), categories)
+                .importFrom(new StringReader("title,date\nCinema,2021-04-15\n"), ReadProgressListener.NONE,
+                        batch -> { }));
+    }
+}
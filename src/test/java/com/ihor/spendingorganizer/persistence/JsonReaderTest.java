@@ -7,8 +7,11 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 class JsonReaderTest {
 
@@ -42,4 +45,45 @@ class JsonReaderTest {
         JsonReader reader = new JsonReader(path);
         assertThrows(NameException.class, reader::read);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testReadReportsProgress() {
+        String path = "src/main/resources/data/demo.json";
+        long[] bytes = new long[2];
+        int[] records = new int[2];
+        JsonReader reader = new JsonReader(path, new ReadProgressListener() {
+            @Override
+            public void bytesRead(long bytesRead, long totalBytes) {
+                bytes[0] = bytesRead;
+                bytes[1] = totalBytes;
+            }
+
+            @Override
+            public void recordsParsed(int recordsParsed, int totalRecords) {
+                records[0] = recordsParsed;
+                records[1] = totalRecords;
+            }
+        });
+
+        try {
+            int size = reader.read().getRecords().size();
+            assertEquals(Files.size(Paths.get(path)), bytes[0]);
+            assertEquals(bytes[0], bytes[1]);
+            assertEquals(size, records[0]);
+            assertEquals(size, records[1]);
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testReadInterrupted() {
+        JsonReader reader = new JsonReader("src/main/resources/data/demo.json");
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, reader::read);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonSpendingListStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SpendingList spendingList;
+    private Categories categories;
+    private Record recordTravel;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            categories = new Categories();
+            recordTravel = new Record("Went to Toronto", 401.34, new Category("Travel", categories));
+            recordTravel.setTimeAdded(LocalDateTime.of(2021, Month.APRIL, 15, 10, 0).toString());
+            spendingList = new SpendingList(categories);
+            spendingList.addRecord(recordTravel);
+        } catch (NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testForPathFindsJsonStore() {
+        assertTrue(SpendingListStores.forPath(tempDir.resolve("file.json")) instanceof JsonSpendingListStore);
+    }
+
+    @Test
+    void testForPathFileWithoutExtension() {
+        Path path = tempDir.resolve("budget");
+        SpendingListStore store = SpendingListStores.forPath(path);
+        assertTrue(store instanceof JsonSpendingListStore);
+        try {
+            store.save(spendingList, path);
+            assertEquals(spendingList, SpendingListStores.forPath(path).open(path));
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File without extension is kept as plain JSON");
+        }
+    }
+
+    @Test
+    void testSaveAndOpen() {
+        Path path = tempDir.resolve("saved.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        try {
+            store.save(spendingList, path);
+            assertEquals(spendingList, store.open(path));
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testSaveAndOpenCompressed() {
+        Path plain = tempDir.resolve("saved.json");
+        Path compressed = tempDir.resolve("saved.jsonz");
+        SpendingListStore store = new JsonSpendingListStore();
+        try {
+            for (int i = 0; i < 100; i++) {
+                spendingList.addRecord(new Record("Went to Toronto", i, categories.getDefaultCategory()));
+            }
+            store.save(spendingList, plain);
+            store.save(spendingList, compressed);
+            assertTrue(Files.size(compressed) < Files.size(plain) / 4);
+            assertTrue(SpendingListStores.forPath(compressed) instanceof JsonSpendingListStore);
+            assertEquals(store.open(plain), store.open(compressed));
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testSaveWritesEachTitleOnce() {
+        Path path = tempDir.resolve("titles.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        try {
+            for (int i = 0; i < 10; i++) {
+                spendingList.addRecord(new Record(i % 2 == 0 ? "Went to Toronto" : "Housing fee", i,
+                        categories.getDefaultCategory()));
+            }
+            recordTravel.setTitle("Went to Victoria");
+            store.save(spendingList, path);
+
+            JSONObject json = new JSONObject(Files.readString(path));
+            assertEquals(List.of("Housing fee", "Went to Toronto", "Went to Victoria"),
+                    json.getJSONArray("titles").toList());
+            assertEquals(2, json.getJSONArray("records").getJSONObject(10).getInt("title"));
+
+            SpendingList fromFile = store.open(path);
+            assertEquals(spendingList, fromFile);
+            List<Record> records = fromFile.getRecords().filtered(r -> r.getTitle().equals("Housing fee"));
+            assertEquals(5, records.size());
+            assertTrue(records.stream().allMatch(r -> r.getTitle() == records.get(0).getTitle()));
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testOpenSeedsTotalsFromAggregates() {
+        Path path = tempDir.resolve("aggregates.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        LocalDate april = LocalDate.of(2021, Month.APRIL, 1);
+        try {
+            store.save(spendingList, path);
+            JSONObject json = new JSONObject(Files.readString(path));
+            json.getJSONObject("aggregates").getJSONArray("totals").getJSONObject(0).put("amount", 1.0);
+            AggregateChecksum checksum = new AggregateChecksum();
+            checksum.update(recordTravel);
+            checksum.update("Travel", april, 1.0, 1);
+            json.getJSONObject("aggregates").put("checksum", checksum.getValue());
+            Files.writeString(path, json.toString());
+
+            // checksum matches records and totals, so stored totals are used instead of records
+            assertEquals(Collections.singletonMap("Travel", 1.0), store.open(path).groupByCategory(april));
+            assertEquals(Collections.singletonList(april), store.open(path).getDates());
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testOpenRejectsTamperedAggregates() {
+        Path path = tempDir.resolve("aggregates.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        LocalDate april = LocalDate.of(2021, Month.APRIL, 1);
+        try {
+            store.save(spendingList, path);
+            JSONObject json = new JSONObject(Files.readString(path));
+            json.getJSONObject("aggregates").getJSONArray("totals").getJSONObject(0).put("amount", 1.0);
+            Files.writeString(path, json.toString());
+
+            // checksum covers stored totals, so changed totals are rebuilt from records
+            assertEquals(Collections.singletonMap("Travel", 401.34), store.open(path).groupByCategory(april));
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testOpenRebuildsStaleAggregates() {
+        Path path = tempDir.resolve("aggregates.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        LocalDate april = LocalDate.of(2021, Month.APRIL, 1);
+        try {
+            store.save(spendingList, path);
+            JSONObject json = new JSONObject(Files.readString(path));
+            json.getJSONArray("records").getJSONObject(0).put("amount", 500.0);
+            Files.writeString(path, json.toString());
+
+            SpendingList fromFile = store.open(path);
+            assertEquals(Collections.singletonMap("Travel", 500.0), fromFile.groupByCategory(april));
+
+            fromFile.getRecords().get(0).setAmount(20);
+            assertEquals(Collections.singletonMap("Travel", 20.0), fromFile.groupByCategory(april));
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testOpenCorruptedCompressed() {
+        Path path = tempDir.resolve("corrupted.jsonz");
+        try {
+            Files.writeString(path, "{\"categories\": [], \"records\": []}");
+        } catch (IOException e) {
+            fail("Temp directory is writable");
+        }
+        assertThrows(IOException.class, () -> new JsonSpendingListStore().open(path));
+    }
+
+    @Test
+    void testAppendAndQuery() {
+        Path path = tempDir.resolve("appended.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        try {
+            store.save(spendingList, path);
+
+            Categories otherCategories = new Categories();
+            Record recordGroceries = new Record("Went to SaveOn", 100.76, new Category("Groceries", otherCategories));
+            recordGroceries.setTimeAdded(LocalDateTime.of(2021, Month.MAY, 3, 12, 0).toString());
+            store.append(path, Collections.singletonList(recordGroceries));
+
+            SpendingList fromFile = store.open(path);
+            assertEquals(2, fromFile.getRecords().size());
+            assertTrue(fromFile.getCategories().getCategoriesNames().contains("Groceries"));
+
+            List<Record> april = store.query(path, LocalDate.of(2021, Month.APRIL, 1),
+                    LocalDate.of(2021, Month.APRIL, 30));
+            assertEquals(Collections.singletonList(recordTravel), april);
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testAppendKeepsRecordsOfFileSorted() {
+        Path path = tempDir.resolve("appended.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        try {
+            store.save(spendingList, path);
+            Categories otherCategories = new Categories();
+            Category groceries = new Category("Groceries", otherCategories);
+            store.append(path, Arrays.asList(
+                    new Record("Went to SaveOn", 10, groceries, LocalDateTime.of(2021, Month.MARCH, 3, 12, 0)),
+                    new Record("Went to Superstore", 20, groceries, LocalDateTime.of(2021, Month.MAY, 3, 12, 0))));
+
+            // records are read in the order they are stored in the file
+            try (PagedRecordList stored = PagedRecordList.open(path)) {
+                assertEquals(3, stored.size());
+                assertEquals(Month.MAY, stored.get(0).getTimeAdded().getMonth());
+                assertEquals(recordTravel, stored.get(1));
+                assertEquals(Month.MARCH, stored.get(2).getTimeAdded().getMonth());
+            }
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+
+    @Test
+    void testAppendDropsRecordsOfWorkspace() {
+        Path path = tempDir.resolve("appended.json");
+        SpendingListStore store = new JsonSpendingListStore();
+        try {
+            store.save(spendingList, path);
+            Categories otherCategories = new Categories();
+            Record recordGroceries = new Record("Went to SaveOn", 100.76, new Category("Groceries", otherCategories));
+            recordGroceries.setTimeAdded(LocalDateTime.of(2021, Month.MAY, 3, 12, 0).toString());
+            SpendingList other = new SpendingList(otherCategories);
+            other.addRecord(recordGroceries);
+            store.save(other, tempDir.resolve("other.json"));
+            new WorkspaceCatalog(tempDir).refresh();
+
+            store.append(path, Collections.singletonList(recordGroceries));
+            assertEquals(1, store.open(path).getRecords().size());
+        } catch (IOException | NegativeAmountException | NameException e) {
+            fail("File exists and is not corrupted");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.RecordFieldException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedRecordListTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SpendingList spendingList;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException, RecordFieldException {
+        spendingList = new SpendingList(new Categories());
+        Category groceries = new Category("Groceries", spendingList.getCategories());
+        Category travel = new Category("Travel \"abroad\" [2021]", spendingList.getCategories());
+        LocalDateTime time = LocalDateTime.of(2021, 11, 4, 12, 0);
+        for (int i = 0; i < 1000; i++) {
+            Record record = new Record("Record {" + i + "}, ü", i * 1.5, i % 3 == 0 ? travel : groceries);
+            record.setTimeAdded(time.minusHours(i));
+            spendingList.getRecords().add(record);
+        }
+        file = tempDir.resolve("large.json");
+        new JsonSpendingListStore().save(spendingList, file);
+    }
+
+    @Test
+    void testReadsRecordsInFileOrder() {
+        try (PagedRecordList records = PagedRecordList.open(file, 64, Long.MAX_VALUE, ReadProgressListener.NONE)) {
+            assertEquals(1000, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(spendingList.getRecords().get(i), records.get(i));
+            }
+            assertEquals(spendingList.getCategories().getCategoriesNames(),
+                    records.getCategories().getCategoriesNames());
+            assertSame(records.getCategories().getCategoryByName("Groceries"), records.get(1).getCategory());
+            assertEquals(16, records.getLoadedPages());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedPages() {
+        try (PagedRecordList records = PagedRecordList.open(file, 10, 8_000, ReadProgressListener.NONE)) {
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(spendingList.getRecords().get(i), records.get(i));
+                assertTrue(records.getLoadedBytes() <= 8_000);
+            }
+            assertTrue(records.getLoadedPages() < 10);
+            Record last = records.get(999);
+            assertSame(last, records.get(999));
+            // first page has been evicted, so it is read again
+            assertEquals(spendingList.getRecords().get(0), records.get(0));
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testKeepsMostRecentPageOverBudget() {
+        try (PagedRecordList records = PagedRecordList.open(file, 100, 1, ReadProgressListener.NONE)) {
+            assertEquals(spendingList.getRecords().get(150), records.get(150));
+            assertEquals(1, records.getLoadedPages());
+            assertEquals(spendingList.getRecords().get(999), records.get(999));
+            assertEquals(1, records.getLoadedPages());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testReadsPrettyPrintedFile() {
+        try (PagedRecordList records = PagedRecordList.open(Paths.get("src/test/resources/testWriteRegularFile.json"),
+                2, Long.MAX_VALUE, ReadProgressListener.NONE)) {
+            SpendingList read = new JsonReader("src/test/resources/testWriteRegularFile.json").read();
+            assertEquals(read.getRecords().size(), records.size());
+            assertEquals(new HashSet<>(read.getRecords()), new HashSet<>(records));
+            assertEquals(read.getCategories().getDefaultCategory(), records.getCategories().getDefaultCategory());
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testEmptyRecords() {
+        try {
+            Path empty = tempDir.resolve("empty.json");
+            new JsonSpendingListStore().save(new SpendingList(new Categories()), empty);
+            try (PagedRecordList records = PagedRecordList.open(empty)) {
+                assertTrue(records.isEmpty());
+                assertThrows(IndexOutOfBoundsException.class, () -> records.get(0));
+            }
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testIsReadOnly() {
+        try (PagedRecordList records = PagedRecordList.open(file)) {
+            assertThrows(UnsupportedOperationException.class, () -> records.remove(0));
+            assertThrows(UnsupportedOperationException.class, () -> records.add(records.get(0)));
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testUnsupportedFiles() {
+        try {
+            Path compressed = tempDir.resolve("large.jsonz");
+            new JsonSpendingListStore().save(spendingList, compressed);
+            assertThrows(IOException.class, () -> PagedRecordList.open(compressed));
+
+            Path noRecords = tempDir.resolve("noRecords.json");
+            Files.writeString(noRecords, "{\"categories\": []}");
+            assertThrows(IOException.class, () -> PagedRecordList.open(noRecords));
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.RecordFieldException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordDeduplicatorTest {
+
+    @TempDir
+    Path workspace;
+
+    private Category groceries;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            groceries = new Category("Groceries", new Categories());
+        } catch (RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testLongHashSet() {
+        LongHashSet set = new LongHashSet();
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        for (long i = 1; i <= 1000; i++) {
+            assertTrue(set.add(i * 0x100000000L));
+        }
+        assertFalse(set.add(0x100000000L));
+        assertEquals(1001, set.size());
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(1000 * 0x100000000L));
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void testBloomFilter() {
+        BloomFilter filter = BloomFilter.create(1000, 0.01);
+        for (long i = 0; i < 1000; i++) {
+            filter.add(i * 0x9E3779B97F4A7C15L);
+        }
+        BloomFilter decoded = BloomFilter.decode(filter.encode());
+        int falsePositives = 0;
+        for (long i = 0; i < 1000; i++) {
+            assertTrue(decoded.mightContain(i * 0x9E3779B97F4A7C15L));
+            falsePositives += decoded.mightContain(~i * 0xC2B2AE3D27D4EB4FL) ? 1 : 0;
+        }
+        assertTrue(falsePositives < 50);
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.decode("AAAA"));
+    }
+
+    @Test
+    void testIsDuplicate() {
+        try {
+            Record record = makeRecord("Superstore", 2021);
+            RecordDeduplicator deduplicator = new RecordDeduplicator(Collections.singletonList(record));
+
+            assertTrue(deduplicator.isDuplicate(makeRecord("Superstore", 2021)));
+            assertFalse(deduplicator.isDuplicate(makeRecord("Superstore", 2020)));
+            assertEquals(1, deduplicator.getDuplicates());
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testHistorySegmentsAreLoadedOnlyWhenNeeded() {
+        try {
+            List<Record> history = new ArrayList<>();
+            BloomFilter filter = BloomFilter.create(100, 0.01);
+            for (int i = 0; i < 100; i++) {
+                Record r = makeRecord("Title " + i, 2020);
+                history.add(r);
+                filter.add(r.fingerprint());
+            }
+            int[] loads = new int[1];
+            RecordDeduplicator deduplicator = new RecordDeduplicator();
+            deduplicator.addSegment(2020, filter, () -> {
+                loads[0]++;
+                LongHashSet fingerprints = new LongHashSet();
+                history.forEach(r -> fingerprints.add(r.fingerprint()));
+                return fingerprints;
+            });
+
+            assertFalse(deduplicator.isDuplicate(makeRecord("Title 1", 2021)));
+            assertEquals(0, loads[0]);
+            assertTrue(deduplicator.isDuplicate(makeRecord("Title 1", 2020)));
+            assertTrue(deduplicator.isDuplicate(makeRecord("Title 2", 2020)));
+            assertEquals(1, loads[0]);
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testWorkspaceHistory() {
+        try {
+            Categories categories = new Categories();
+            SpendingList spendingList = new SpendingList(categories);
+            Record record = new Record("Superstore", 20, new Category("Groceries", categories));
+            record.setTimeAdded(LocalDateTime.of(2020, 5, 1, 12, 0));
+            spendingList.addRecord(record);
+            new JsonSpendingListStore().save(spendingList, workspace.resolve("anna-2020.json"));
+
+            WorkspaceCatalog catalog = new WorkspaceCatalog(workspace);
+            catalog.refresh();
+            RecordDeduplicator deduplicator = new RecordDeduplicator();
+            new WorkspaceCatalog(workspace).addHistoryTo(deduplicator);
+
+            assertTrue(deduplicator.isDuplicate(makeRecord("Superstore", 2020)));
+            assertFalse(deduplicator.isDuplicate(makeRecord("Cinema", 2020)));
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testWorkspaceHistoryReadsEachFileOnce() {
+        try {
+            Categories categories = new Categories();
+            Category category = new Category("Groceries", categories);
+            SpendingList spendingList = new SpendingList(categories);
+            List<Record> records = new ArrayList<>();
+            for (int year = 2021; year >= 2012; year--) {
+                records.add(new Record("Superstore", 20, category, LocalDateTime.of(year, 5, 1, 12, 0)));
+            }
+            spendingList.addRecords(records);
+            Path file = workspace.resolve("anna.json");
+            new JsonSpendingListStore().save(spendingList, file);
+            new WorkspaceCatalog(workspace).refresh();
+            RecordDeduplicator deduplicator = new RecordDeduplicator();
+            new WorkspaceCatalog(workspace).addHistoryTo(deduplicator);
+
+            assertTrue(deduplicator.isDuplicate(makeRecord("Superstore", 2021)));
+            // the file is read once for all of its years, so it isn't read again
+            Files.delete(file);
+            for (int year = 2020; year >= 2012; year--) {
+                assertTrue(deduplicator.isDuplicate(makeRecord("Superstore", year)));
+            }
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns record in groceries for 20 added on May 1st of year
+    private Record makeRecord(String title, int year) throws RecordFieldException {
+        Record record = new Record(title, 20, groceries);
+        record.setTimeAdded(LocalDateTime.of(year, 5, 1, 12, 0));
+        return record;
+    }
+}
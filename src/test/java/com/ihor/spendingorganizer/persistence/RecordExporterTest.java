@@ -0,0 +1,136 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.RecordFieldException;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordExporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SpendingList spendingList;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            Categories categories = new Categories();
+            Category groceries = new Category("Groceries", categories);
+            Category entertainment = new Category("Entertainment", categories);
+            spendingList = new SpendingList(categories);
+
+            Record r1 = new Record("Went to SaveOn", 80.5, groceries);
+            r1.setTimeAdded("2021-04-15T10:00");
+            Record r2 = new Record("Theatre, with \"friends\"", 45, entertainment);
+            r2.setTimeAdded("2021-05-01T20:30");
+            Record r3 = new Record("Superstore", 12, groceries);
+            r3.setTimeAdded("2021-05-20T09:15");
+            spendingList.addRecords(Arrays.asList(r1, r2, r3));
+            spendingList.sortByTimeAdded();
+        } catch (RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testCsvExportAllColumns() {
+        try {
+            Path path = tempDir.resolve("export.csv");
+            assertEquals(3, new CsvExporter().export(spendingList, path, new ExportOptions()));
+
+            List<String> lines = Files.readAllLines(path);
+            assertEquals(4, lines.size());
+            assertEquals("title,amount,category,timeAdded", lines.get(0));
+            assertEquals("Superstore,12.0,Groceries,2021-05-20T09:15", lines.get(1));
+            assertEquals("\"Theatre, with \"\"friends\"\"\",45.0,Entertainment,2021-05-01T20:30", lines.get(2));
+            assertEquals("Went to SaveOn,80.5,Groceries,2021-04-15T10:00", lines.get(3));
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testCsvExportCanBeImported() {
+        try {
+            Path path = tempDir.resolve("export.csv");
+            new CsvExporter().export(spendingList, path, new ExportOptions());
+
+            SpendingList imported = new SpendingList(new Categories());
+            ImportReport report = CsvImporter.importInto(path, CsvColumnMapping.byHeader(), imported);
+            assertEquals(3, report.getRecordsImported());
+            assertEquals(spendingList.getRecords(), imported.getRecords());
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testJsonLinesExportWithFilters() {
+        ExportOptions options = new ExportOptions();
+        options.setDateRange(LocalDate.of(2021, 5, 1), LocalDate.of(2021, 5, 20));
+        options.setCategoryNames(Collections.singletonList("Groceries"));
+        options.setColumns(Arrays.asList(ExportColumn.AMOUNT, ExportColumn.TITLE));
+        try {
+            Path path = tempDir.resolve("export.jsonl");
+            assertEquals(1, new JsonLinesExporter().export(spendingList, path, options));
+
+            List<String> lines = Files.readAllLines(path);
+            assertEquals(1, lines.size());
+            assertEquals("{\"amount\":12.0,\"title\":\"Superstore\"}", lines.get(0));
+            JSONObject json = new JSONObject(lines.get(0));
+            assertEquals(12, json.getDouble("amount"));
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testExportOpenDateRange() {
+        ExportOptions options = new ExportOptions();
+        options.setDateRange(null, LocalDate.of(2021, 5, 1));
+        try {
+            Path path = tempDir.resolve("export.jsonl");
+            assertEquals(2, new JsonLinesExporter().export(spendingList, path, options));
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testExportIsCancelledByInterrupt() {
+        Path path = tempDir.resolve("export.csv");
+        List<Record> snapshot = new ArrayList<>(spendingList.getRecords());
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class, () -> new CsvExporter().export(snapshot, path,
+                    new ExportOptions()));
+        } finally {
+            Thread.interrupted();
+        }
+        assertFalse(Files.exists(path));
+    }
+
+    @Test
+    void testSetNoColumns() {
+        ExportOptions options = new ExportOptions();
+        assertThrows(IllegalArgumentException.class, () -> options.setColumns(Collections.emptyList()));
+    }
+}
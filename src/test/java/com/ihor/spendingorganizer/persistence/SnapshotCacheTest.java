@@ -0,0 +1,179 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path cacheDir;
+    private Path source;
+    private SpendingList spendingList;
+
+    @BeforeEach
+    void setUp() {
+        cacheDir = tempDir.resolve("cache");
+        source = tempDir.resolve("source.json");
+        try {
+            Categories categories = new Categories();
+            new Category("new default", categories, true, true);
+            spendingList = new SpendingList(categories);
+            spendingList.addRecord(new Record("Went to Toronto", 401.34, new Category("Travel", categories)));
+            spendingList.addRecord(new Record("Went to SaveOn", 100.76, categories.getCategoryByName("default")));
+            new JsonSpendingListStore().save(spendingList, source);
+        } catch (NameException | NegativeAmountException | IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testGetMissingEntry() {
+        SnapshotCache cache = new SnapshotCache(cacheDir, Long.MAX_VALUE);
+        try {
+            assertEquals(Optional.empty(), cache.get(cache.keyOf(source)));
+        } catch (IOException e) {
+            fail("Source exists");
+        }
+    }
+
+    @Test
+    void testPutAndGet() {
+        SnapshotCache cache = new SnapshotCache(cacheDir, Long.MAX_VALUE);
+        try {
+            SpendingList fromFile = new JsonSpendingListStore().open(source);
+            cache.put(cache.keyOf(source), fromFile);
+
+            SpendingList cached = cache.get(cache.keyOf(source)).orElseThrow();
+            assertEquals(fromFile, cached);
+            assertEquals(fromFile.getCategories().getDefaultCategory(), cached.getCategories().getDefaultCategory());
+            assertEquals(fromFile.getCategories().getCategories().size(),
+                    cached.getCategories().getCategories().size());
+        } catch (IOException | NameException | NegativeAmountException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testChangedSourceInvalidatesEntry() {
+        SnapshotCache cache = new SnapshotCache(cacheDir, Long.MAX_VALUE);
+        try {
+            cache.put(cache.keyOf(source), spendingList);
+            Files.writeString(source, Files.readString(source).replace("Toronto", "Montreal"));
+
+            assertEquals(Optional.empty(), cache.get(cache.keyOf(source)));
+            assertEquals(0, countEntries());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testChangedContentWithSameSizeAndTimeInvalidatesEntry() {
+        SnapshotCache cache = new SnapshotCache(cacheDir, Long.MAX_VALUE);
+        try {
+            cache.put(cache.keyOf(source), spendingList);
+            FileTime modified = Files.getLastModifiedTime(source);
+            Files.writeString(source, Files.readString(source).replace("Toronto", "Windsor"));
+            Files.setLastModifiedTime(source, modified);
+
+            assertEquals(Optional.empty(), cache.get(cache.keyOf(source)));
+            assertEquals(0, countEntries());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testInterruptedGetKeepsEntry() {
+        SnapshotCache cache = new SnapshotCache(cacheDir, Long.MAX_VALUE);
+        try {
+            SnapshotCache.Key key = cache.keyOf(source);
+            cache.put(key, spendingList);
+            long[] bytesHashed = new long[1];
+            assertTrue(cache.get(key, new ReadProgressListener() {
+                @Override
+                public void bytesRead(long bytesRead, long totalBytes) {
+                    bytesHashed[0] = bytesRead;
+                }
+            }).isPresent());
+            assertEquals(Files.size(source), bytesHashed[0]);
+
+            Thread.currentThread().interrupt();
+            assertThrows(InterruptedIOException.class, () -> cache.get(key));
+            assertTrue(Thread.interrupted());
+            assertEquals(1, countEntries());
+            assertTrue(cache.get(key).isPresent());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testCorruptedEntryIsDeleted() {
+        SnapshotCache cache = new SnapshotCache(cacheDir, Long.MAX_VALUE);
+        try {
+            cache.put(cache.keyOf(source), spendingList);
+            try (Stream<Path> entries = Files.list(cacheDir)) {
+                Path entry = entries.findFirst().orElseThrow();
+                byte[] bytes = Files.readAllBytes(entry);
+                Files.write(entry, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+            }
+
+            assertEquals(Optional.empty(), cache.get(cache.keyOf(source)));
+            assertEquals(0, countEntries());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        try {
+            Path otherSource = tempDir.resolve("other.json");
+            Files.copy(source, otherSource);
+            SnapshotCache unbounded = new SnapshotCache(cacheDir, Long.MAX_VALUE);
+            unbounded.put(unbounded.keyOf(source), spendingList);
+            long entrySize;
+            try (Stream<Path> entries = Files.list(cacheDir)) {
+                Path entry = entries.findFirst().orElseThrow();
+                entrySize = Files.size(entry);
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(0));
+            }
+
+            SnapshotCache bounded = new SnapshotCache(cacheDir, entrySize + entrySize / 2);
+            bounded.put(bounded.keyOf(otherSource), spendingList);
+
+            assertEquals(1, countEntries());
+            assertEquals(Optional.empty(), bounded.get(bounded.keyOf(source)));
+            assertTrue(bounded.get(bounded.keyOf(otherSource)).isPresent());
+        } catch (IOException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns number of entries in the cache directory
+    private long countEntries() throws IOException {
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            return entries.count();
+        }
+    }
+}
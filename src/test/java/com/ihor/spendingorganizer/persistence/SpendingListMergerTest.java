@@ -0,0 +1,163 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.EventLog;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.NameException;
+import com.ihor.spendingorganizer.model.exceptions.NegativeAmountException;
+import com.ihor.spendingorganizer.model.exceptions.RecordFieldException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingListMergerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SpendingListStore store = new JsonSpendingListStore();
+
+    @Test
+    void testOpenMerged() {
+        try {
+            Path card = tempDir.resolve("card.json");
+            Path cash = tempDir.resolve("cash.jsonz");
+            store.save(makeSpendingList("Groceries", 1, 5, 9), card);
+            store.save(makeSpendingList("Groceries", 2, 3, 10), cash);
+
+            SpendingList merged = SpendingListMerger.openMerged(Arrays.asList(card, cash));
+
+            List<Integer> days = merged.getRecords().stream()
+                    .map(r -> r.getTimeAdded().getDayOfMonth())
+                    .collect(Collectors.toList());
+            assertEquals(Arrays.asList(10, 9, 5, 3, 2, 1), days);
+            assertEquals(Arrays.asList("default", "Groceries"), merged.getCategories().getCategoriesNames());
+            Category groceries = merged.getCategories().getCategoryByName("Groceries");
+            assertTrue(merged.getRecords().stream().allMatch(r -> r.getCategory() == groceries));
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testOpenMergedReadsManyFilesConcurrently() {
+        try {
+            List<Path> paths = new ArrayList<>();
+            for (int file = 0; file < 8; file++) {
+                Categories categories = new Categories();
+                Category category = new Category("Category " + file % 3, categories);
+                SpendingList spendingList = new SpendingList(categories);
+                List<Record> records = new ArrayList<>();
+                for (int i = 0; i < 500; i++) {
+                    records.add(new Record("Title " + i, i, category,
+                            LocalDateTime.of(2021, Month.APRIL, 1, 0, 0).minusMinutes(8L * i + file)));
+                }
+                spendingList.addRecords(records);
+                Path path = tempDir.resolve("file" + file + ".json");
+                store.save(spendingList, path);
+                paths.add(path);
+            }
+
+            SpendingList merged = SpendingListMerger.openMerged(paths);
+
+            assertEquals(8 * 500, merged.getRecords().size());
+            for (int i = 1; i < merged.getRecords().size(); i++) {
+                assertTrue(merged.getRecords().get(i - 1).getTimeAdded()
+                        .isAfter(merged.getRecords().get(i).getTimeAdded()));
+            }
+            assertEquals(Arrays.asList("default", "Category 0", "Category 1", "Category 2"),
+                    merged.getCategories().getCategoriesNames());
+            assertTrue(EventLog.getInstance().iterator().hasNext());
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testMergeUnifiesDefaultCategories() {
+        try {
+            SpendingList first = makeSpendingList("Travel", 4);
+            Category ownDefault = new Category("Other", first.getCategories(), true, true);
+            first.getCategories().getCategories().remove(first.getCategories().getDefaultCategory());
+            first.getCategories().setDefaultCategory(ownDefault);
+            first.getRecords().get(0).setCategory(ownDefault);
+
+            SpendingList second = makeSpendingList("Travel", 2, 6);
+            second.getRecords().get(0).setCategory(second.getCategories().getDefaultCategory());
+
+            SpendingList merged = SpendingListMerger.merge(Arrays.asList(first, second));
+
+            Categories categories = merged.getCategories();
+            assertEquals("Other", categories.getDefaultCategory().getName());
+            assertEquals(Arrays.asList("Other", "Travel"), categories.getCategoriesNames());
+            assertEquals(categories.getDefaultCategory(), merged.getRecords().get(0).getCategory());
+            assertEquals(categories.getDefaultCategory(), merged.getRecords().get(1).getCategory());
+            assertEquals(categories.getCategoryByName("Travel"), merged.getRecords().get(2).getCategory());
+        } catch (RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testMergeDropsDuplicates() {
+        try {
+            RecordDeduplicator deduplicator = new RecordDeduplicator();
+            SpendingList merged = SpendingListMerger.merge(Arrays.asList(
+                    makeSpendingList("Groceries", 1, 2, 3),
+                    makeSpendingList("Groceries", 2, 3, 4),
+                    makeSpendingList("Travel", 4)), deduplicator);
+
+            assertEquals(5, merged.getRecords().size());
+            assertEquals(2, deduplicator.getDuplicates());
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testOpenMergedCorruptedFile() {
+        Path broken = tempDir.resolve("broken.json");
+        try {
+            Files.writeString(broken, "{");
+        } catch (IOException e) {
+            fail("Temp directory is writable");
+        }
+        assertThrows(RuntimeException.class,
+                () -> SpendingListMerger.openMerged(Collections.singletonList(broken)));
+    }
+
+    @Test
+    void testOpenMergedMissingFile() {
+        assertThrows(IOException.class,
+                () -> SpendingListMerger.openMerged(Collections.singletonList(tempDir.resolve("none.json"))));
+    }
+
+    // EFFECTS: returns spending list with a record in category for each of days of April 2021,
+    //          sorted from more recent to less recent
+    private SpendingList makeSpendingList(String category, int... days) throws NameException,
+            NegativeAmountException {
+        Categories categories = new Categories();
+        Category c = new Category(category, categories);
+        SpendingList spendingList = new SpendingList(categories);
+        for (int day : days) {
+            Record record = new Record("Title " + day, day, c);
+            record.setTimeAdded(LocalDateTime.of(2021, Month.APRIL, day, 12, 0));
+            spendingList.addRecord(record);
+        }
+        return spendingList;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ihor.spendingorganizer.persistence;
+
+import com.ihor.spendingorganizer.model.Categories;
+import com.ihor.spendingorganizer.model.Category;
+import com.ihor.spendingorganizer.model.Record;
+import com.ihor.spendingorganizer.model.SpendingList;
+import com.ihor.spendingorganizer.model.exceptions.RecordFieldException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceCatalogTest {
+
+    @TempDir
+    Path workspace;
+
+    private final LocalDate april = LocalDate.of(2021, Month.APRIL, 1);
+    private final LocalDate may = LocalDate.of(2021, Month.MAY, 1);
+    private final SpendingListStore store = new JsonSpendingListStore();
+
+    @BeforeEach
+    void setUp() {
+        try {
+            store.save(makeSpendingList("Groceries", 100, april), workspace.resolve("anna-2021.json"));
+            store.save(makeSpendingList("Travel", 300, may), workspace.resolve("bob-2021.jsonz"));
+            Files.writeString(workspace.resolve("notes.txt"), "not a spending list");
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testRefreshAndQuery() {
+        WorkspaceCatalog catalog = new WorkspaceCatalog(workspace);
+        try {
+            assertEquals(2, catalog.refresh());
+            assertEquals(0, catalog.refresh());
+        } catch (IOException e) {
+            fail("Workspace exists: " + e.getMessage());
+        }
+
+        assertEquals(Arrays.asList("Groceries", "Travel", "default"), catalog.getCategoryNames());
+        assertEquals(Arrays.asList(may, april), catalog.getDates());
+        Map<String, Double> expected = new HashMap<>();
+        expected.put("Groceries", 100.0);
+        expected.put("Travel", 300.0);
+        assertEquals(expected, catalog.groupByCategory(LocalDate.MIN, LocalDate.MAX));
+        assertEquals(Collections.singletonMap("Travel", Collections.singletonMap(may, 300.0)),
+                catalog.groupByCategoryAndDate(may, may));
+
+        WorkspaceCatalog.Entry entry = catalog.getEntries().get(0);
+        assertEquals("anna-2021.json", entry.getFileName());
+        assertEquals(Optional.of(april), entry.getFirstMonth());
+        assertEquals(Optional.of(april), entry.getLastMonth());
+    }
+
+    @Test
+    void testRefreshReadsOnlyChangedFiles() {
+        try {
+            new WorkspaceCatalog(workspace).refresh();
+
+            Path changed = workspace.resolve("anna-2021.json");
+            SpendingList spendingList = store.open(changed);
+            Record record = new Record("Superstore", 50, spendingList.getCategories().getCategoryByName("Groceries"));
+            record.setTimeAdded(LocalDateTime.of(may, LocalTime.NOON));
+            spendingList.addRecord(record);
+            store.save(spendingList, changed);
+            Files.delete(workspace.resolve("bob-2021.jsonz"));
+
+            // entries of unchanged files are loaded from the index
+            WorkspaceCatalog catalog = new WorkspaceCatalog(workspace);
+            assertEquals(1, catalog.refresh());
+            assertEquals(1, catalog.getEntries().size());
+            assertEquals(Collections.singletonMap("Groceries", 150.0),
+                    catalog.groupByCategory(LocalDate.MIN, LocalDate.MAX));
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testRefreshSkipsCorruptedFiles() {
+        try {
+            Files.writeString(workspace.resolve("broken.json"), "{");
+            WorkspaceCatalog catalog = new WorkspaceCatalog(workspace);
+            assertEquals(3, catalog.refresh());
+            assertEquals(Collections.singletonList("broken.json"), catalog.getSkippedFiles());
+            assertEquals(2, catalog.getEntries().size());
+        } catch (IOException e) {
+            fail("Workspace exists: " + e.getMessage());
+        }
+    }
+
+    @Test
+    void testAddWorkspaceHistoryLeavesFilesOut() {
+        try {
+            Path anna = workspace.resolve("anna-2021.json");
+            Record groceries = store.open(anna).getRecords().get(0);
+            Record travel = store.open(workspace.resolve("bob-2021.jsonz")).getRecords().get(0);
+
+            // directory that hasn't been cataloged isn't a workspace
+            RecordDeduplicator deduplicator = new RecordDeduplicator();
+            WorkspaceCatalog.addWorkspaceHistoryTo(deduplicator, List.of(anna));
+            assertFalse(deduplicator.isDuplicate(travel));
+
+            new WorkspaceCatalog(workspace).refresh();
+            deduplicator = new RecordDeduplicator();
+            WorkspaceCatalog.addWorkspaceHistoryTo(deduplicator, List.of(anna));
+            assertTrue(deduplicator.isDuplicate(travel));
+            assertFalse(deduplicator.isDuplicate(groceries));
+        } catch (IOException | RecordFieldException e) {
+            fail("Not the case: " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: returns spending list with one record of amount in category added in month
+    private SpendingList makeSpendingList(String category, double amount, LocalDate month)
+            throws RecordFieldException {
+        Categories categories = new Categories();
+        Record record = new Record("Title", amount, new Category(category, categories));
+        record.setTimeAdded(month.atTime(12, 0));
+        SpendingList spendingList = new SpendingList(categories);
+        spendingList.addRecord(record);
+        return spendingList;
+    }
+}